@@ -4,11 +4,35 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.List;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
 
 /**
  * Algorithm Performance Visualizer - Enterprise Edition
@@ -59,6 +83,7 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
         getContentPane().setBackground(BG_DARK);
 
         Model model = new Model();
+        model.openHistory(HistoryStore.defaultPath());
         View view = new View();
         new Controller(model, view, this);
 
@@ -68,99 +93,3672 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
     // =====================================================================================
     // UTILITY & DATA MODELS
     // =====================================================================================
-    public static String formatTime(double ns) {
-        if (ns < 1000) return String.format("%.0f ns", ns);
-        if (ns < 1_000_000) return String.format("%.2f μs", ns / 1000.0);
-        if (ns < 1_000_000_000) return String.format("%.2f ms", ns / 1_000_000.0);
-        return String.format("%.2f s", ns / 1_000_000_000.0);
+    public static String formatTime(double ns) { return Units.formatTime(ns); }
+    public static String formatMemory(long bytes) { return Units.formatMemory(bytes); }
+    public static String formatCount(double n) { return Units.formatCount(n); }
+
+    /**
+     * Human-readable times, sizes and counts. Kept apart from the outer class so headless code (CLI, profiler summaries,
+     * the scheduler) can format values without initialising the JFrame subclass and, through its colours, AWT.
+     */
+    static final class Units {
+        static String formatTime(double ns) {
+            if (ns < 1000) return String.format("%.0f ns", ns);
+            if (ns < 1_000_000) return String.format("%.2f μs", ns / 1000.0);
+            if (ns < 1_000_000_000) return String.format("%.2f ms", ns / 1_000_000.0);
+            return String.format("%.2f s", ns / 1_000_000_000.0);
+        }
+
+        static String formatMemory(long bytes) {
+            if (bytes < 1024) return bytes + " B";
+            if (bytes < 1048576) return String.format("%.2f KB", bytes / 1024.0);
+            return String.format("%.2f MB", bytes / 1048576.0);
+        }
+
+        static String formatCount(double n) {
+            if (n < 10_000) return String.format("%.0f", n);
+            if (n < 1_000_000) return String.format("%.1fK", n / 1000.0);
+            if (n < 1_000_000_000) return String.format("%.2fM", n / 1_000_000.0);
+            return String.format("%.2fB", n / 1_000_000_000.0);
+        }
+    }
+
+    static class BenchmarkResult {
+        public static final String CSV_HEADER = "Algorithm,Size,MedianTime_ns,AvgTime_ns,MinTime_ns,MaxTime_ns,Memory_Bytes,MaxAlloc_Bytes,GC_Count,GC_Time_ms,Threads,MedianCI_Low_ns,MedianCI_High_ns,Samples,Outliers,CV,P50_ns,P90_ns,P99_ns,P99_9_ns,SysCPU,BgCPU,JIT_ms,Noise,ColdTime_ns,WarmupRuns,SteadyState,Comparisons,Swaps,Reads,Writes,Calls,MaxDepth,AuxAllocations,AuxElements,QueriesPerRun,NsPerQuery,QPS";
+        String algorithm; int size;
+        /** Worker threads for parallel algorithms; 0 for sequential ones. */
+        int threads;
+        /** memoryBytes is the median bytes allocated per invocation, maxAllocBytes the largest single invocation. Both count allocation, not live memory. */
+        long avgTime, medianTime, minTime, maxTime, memoryBytes;
+        long maxAllocBytes, gcCount, gcTimeMs;
+        /** 95% confidence interval of the median, samples kept after outlier rejection, and coefficient of variation. */
+        long ciLow, ciHigh; int samples, outliers; double cv;
+        /** The cell's timed runs left after outlier rejection (the same set as min/max), and the percentiles read from it. Null/0 for imported results. */
+        LatencyHistogram histogram; long p50, p90, p99, p999;
+        /** System.nanoTime() bounds of the timed runs, the counters read at their start, and the runtime conditions sampled over them (null if not sampled). */
+        long measuredFrom, measuredTo; TelemetrySampler.Snapshot measuredBase; TelemetrySampler.Window telemetry;
+        /** First invocation at the cell's size, before warmup; the other time statistics are steady-state. 0 for imported results. */
+        long coldTime; int warmupRuns; boolean steadyState;
+        /** Flight Recorder file and its timed-region summary when the cell was profiled, else null. */
+        Path jfrFile; FlightRecorderProbe.Summary profile;
+        /** Counts from one instrumented run on the cell's input, or null when operation counting was off or unsupported. */
+        OperationCounts ops;
+        /** Lookups answered by one timed invocation ({@link Kernel#queriesPerRun}); 0 when the algorithm is not a search. */
+        int queriesPerRun;
+        public BenchmarkResult(String a, int s, long avg, long med, long min, long max, long mem) {
+            algorithm=a; size=s; avgTime=avg; medianTime=med; minTime=min; maxTime=max; memoryBytes=mem;
+        }
+        /** Chart/table series this result belongs to: one per algorithm, and per thread count for parallel algorithms. */
+        public String seriesName() { return threads > 0 ? algorithm + " [" + threads + "T]" : algorithm; }
+        /** Median time per lookup, or NaN for results without a query count. */
+        public double nsPerQuery() { return queriesPerRun > 0 ? (double) medianTime / queriesPerRun : Double.NaN; }
+        public double queriesPerSecond() { return queriesPerRun > 0 && medianTime > 0 ? queriesPerRun * 1e9 / medianTime : Double.NaN; }
+        public String toCsv() {
+            TelemetrySampler.Window t = telemetry;
+            OperationCounts o = ops;
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%.4f,%d,%d,%d,%d,%s,%s,%s,%s,%d,%d,%b,%s,%s", algorithm, size, medianTime, avgTime, minTime, maxTime, memoryBytes, maxAllocBytes, gcCount, gcTimeMs, threads,
+                    ciLow, ciHigh, samples, outliers, cv, p50, p90, p99, p999, t == null ? "" : load(t.systemCpu, ""), t == null ? "" : load(t.backgroundCpu, ""), t == null ? "" : String.valueOf(t.jitMs), t != null && t.isNoisy() ? t.noise : "", coldTime, warmupRuns, steadyState,
+                    o == null ? ",,,,,,," : String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%d", o.comparisons, o.swaps, o.reads, o.writes, o.calls, o.maxDepth, o.allocations, o.allocatedElements),
+                    queriesPerRun == 0 ? ",," : String.format(Locale.ROOT, "%d,%.3f,%.0f", queriesPerRun, nsPerQuery(), queriesPerSecond()));
+        }
+        public String toJson() {
+            return String.format(Locale.ROOT, "{\"algorithm\":\"%s\",\"size\":%d,\"medianTimeNs\":%d,\"avgTimeNs\":%d,\"minTimeNs\":%d,\"maxTimeNs\":%d,\"memoryBytes\":%d,\"maxAllocBytes\":%d,\"gcCount\":%d,\"gcTimeMs\":%d,\"threads\":%d,"
+                    + "\"medianCiLowNs\":%d,\"medianCiHighNs\":%d,\"samples\":%d,\"outliers\":%d,\"cv\":%.4f,\"p50Ns\":%d,\"p90Ns\":%d,\"p99Ns\":%d,\"p999Ns\":%d,\"sysCpu\":%s,\"backgroundCpu\":%s,\"jitMs\":%s,\"noise\":%s,\"coldTimeNs\":%d,\"warmupRuns\":%d,\"steadyState\":%b,\"ops\":%s,\"queriesPerRun\":%d,\"nsPerQuery\":%s,\"qps\":%s}",
+                    algorithm.replace("\\", "\\\\").replace("\"", "\\\""), size, medianTime, avgTime, minTime, maxTime, memoryBytes, maxAllocBytes, gcCount, gcTimeMs, threads, ciLow, ciHigh, samples, outliers, cv, p50, p90, p99, p999,
+                    telemetry == null ? "null" : load(telemetry.systemCpu, "null"), telemetry == null ? "null" : load(telemetry.backgroundCpu, "null"), telemetry == null ? "null" : String.valueOf(telemetry.jitMs),
+                    telemetry != null && telemetry.isNoisy() ? "\"" + telemetry.noise + "\"" : "null", coldTime, warmupRuns, steadyState,
+                    ops == null ? "null" : String.format(Locale.ROOT, "{\"comparisons\":%d,\"swaps\":%d,\"reads\":%d,\"writes\":%d,\"calls\":%d,\"maxDepth\":%d,\"auxAllocations\":%d,\"auxElements\":%d}",
+                            ops.comparisons, ops.swaps, ops.reads, ops.writes, ops.calls, ops.maxDepth, ops.allocations, ops.allocatedElements),
+                    queriesPerRun, queriesPerRun == 0 ? "null" : String.format(Locale.ROOT, "%.3f", nsPerQuery()), queriesPerRun == 0 ? "null" : String.format(Locale.ROOT, "%.0f", queriesPerSecond()));
+        }
+        private static String load(double v, String missing) { return Double.isNaN(v) ? missing : String.format(Locale.ROOT, "%.3f", v); }
+    }
+
+    static class RunHistory {
+        private static final java.time.format.DateTimeFormatter STAMP = java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss dd/MM/yy").withZone(java.time.ZoneId.systemDefault());
+        String algorithms, config, order, fingerprint; long seed, createdAt; private String timestamp;
+        /** Results by series; null for runs read back from the history store until {@link Model#historyData} loads them. */
+        Map<String, List<BenchmarkResult>> data;
+        /** Offset of the run's record in the history store, or -1 if it was never persisted. */
+        long storeOffset = -1;
+        public RunHistory(String algos, String conf, String order, long seed, Map<String, List<BenchmarkResult>> d) {
+            this(System.currentTimeMillis(), algos, conf, order, HistoryStore.fingerprint(), seed); data = new LinkedHashMap<>(d);
+        }
+        RunHistory(long createdAt, String algos, String conf, String order, String fingerprint, long seed) {
+            this.createdAt = createdAt; algorithms = algos; config = conf; this.order = order; this.fingerprint = fingerprint; this.seed = seed;
+        }
+        /** Formatted on first use: the history store creates tens of thousands of these at startup. */
+        public String timestamp() { if (timestamp == null) timestamp = STAMP.format(java.time.Instant.ofEpochMilli(createdAt)); return timestamp; }
+    }
+
+    // =====================================================================================
+    // ALGORITHM SPI & REGISTRY
+    // =====================================================================================
+    /**
+     * Service-provider interface for anything the dashboard can benchmark. Extra implementations are discovered with
+     * {@link ServiceLoader} from {@code META-INF/services/AlgorithmPerformanceVisualizer$BenchAlgorithm} on the classpath.
+     * This source tree has no package, so provider classes must live in the default package as well.
+     */
+    public interface BenchAlgorithm {
+        String name();
+        AlgoInfo info();
+        /** Largest input size worth measuring; sweeps are clipped to it (exponential algorithms). */
+        default int maxSize() { return Integer.MAX_VALUE; }
+        /** Resolves everything the timed region needs for one (algorithm, size) cell. Called outside the timed region. */
+        Kernel prepare(int size);
+        /** Parallel algorithms take the worker thread count as an extra sweep dimension and get a cell to themselves. */
+        default boolean isParallel() { return false; }
+        default Kernel prepare(int size, int threads) { return prepare(size); }
+        default boolean canVisualize() { return false; }
+        /** Optional visualisation hook: sorts {@code array} in place, reporting each step to the probe. */
+        default void visualize(int[] array, VisProbe probe) throws InterruptedException { throw new UnsupportedOperationException(name() + " has no visualisation"); }
+        default boolean canCount() { return false; }
+        /** Optional instrumented run for the operation-count mode: processes {@code data} like the kernel, recording every step in {@code counts}. */
+        default void countOperations(int[] data, OperationCounts counts) { throw new UnsupportedOperationException(name() + " has no instrumented variant"); }
+    }
+
+    /** Per-cell execution of a prepared algorithm, driven from a single benchmark thread. Closed when the cell ends. */
+    public interface Kernel extends AutoCloseable {
+        /** Untimed per-invocation setup on a fresh input, e.g. sorting it for Binary Search. */
+        default void setup(int[] data) {}
+        /** The timed work. Returns a value that callers consume so the JIT cannot discard it. */
+        long run(int[] data);
+        /** Lookups answered by one {@link #run}, for search kernels; throughput is reported per query when this is non-zero. */
+        default int queriesPerRun() { return 0; }
+        /** Releases per-cell resources such as thread pools. */
+        @Override default void close() {}
+    }
+
+    /**
+     * Receives the steps of a visualised sort. Only {@link #tick} is required; sorts that report through compare, swap
+     * and write let the Visualizer trace exactly which elements changed, and still run under a tick-only probe.
+     */
+    public interface VisProbe {
+        void tick(int current, int comparing) throws InterruptedException;
+        default void compare(int i, int j) throws InterruptedException { tick(i, j); }
+        /** Swaps a[i] and a[j] of the array being visualised. */
+        default void swap(int[] a, int i, int j) throws InterruptedException { tick(i, j); int t = a[i]; a[i] = a[j]; a[j] = t; }
+        /** Stores {@code value} at a[i] of the array being visualised. */
+        default void write(int[] a, int i, int value) throws InterruptedException { tick(i, -1); a[i] = value; }
+    }
+    interface Visualization { void run(int[] array, VisProbe probe) throws InterruptedException; }
+    interface Instrumentation { void run(int[] data, OperationCounts counts); }
+
+    /** Theoretical complexity and encyclopedia metadata for an algorithm. */
+    public static final class AlgoInfo {
+        public final String category, bestTime, averageTime, worstTime, space, stable, inPlace, description;
+        public AlgoInfo(String category, String best, String avg, String worst, String space, String stable, String inPlace, String description) {
+            this.category = category; this.bestTime = best; this.averageTime = avg; this.worstTime = worst;
+            this.space = space; this.stable = stable; this.inPlace = inPlace; this.description = description;
+        }
+    }
+
+    /** Growth functions behind the O-notation strings in AlgoInfo, used for theoretical curves. */
+    enum ComplexityClass {
+        CONSTANT("O(1)"), LOGARITHMIC("O(log n)"), LINEAR("O(n)"), LINEARITHMIC("O(n log n)"), QUADRATIC("O(n²)"), EXPONENTIAL("O(2ⁿ)");
+
+        final String label;
+        ComplexityClass(String label) { this.label = label; }
+
+        double eval(double n) {
+            double log = Math.log(Math.max(n, 2)) / Math.log(2);
+            switch (this) {
+                case CONSTANT: return 1;
+                case LOGARITHMIC: return log;
+                case LINEAR: return n;
+                case LINEARITHMIC: return n * log;
+                case QUADRATIC: return n * n;
+                default: return Math.pow(2, n);
+            }
+        }
+
+        /** Maps AlgoInfo notation to a growth class; "O(n + k)" and "O(d(n + k))" count as linear in n. Returns null if unknown. */
+        static ComplexityClass parse(String notation) {
+            if (notation == null) return null;
+            String n = notation.replace(" ", "");
+            for (ComplexityClass c : values()) if (c.label.replace(" ", "").equals(n)) return c;
+            if (n.equals("O(n+k)") || n.equals("O(d(n+k))")) return LINEAR;
+            return null;
+        }
+    }
+
+    /**
+     * Empirical growth estimate for one series. Each candidate class is fitted as y ≈ c·f(n) by least squares on
+     * log y (equivalently, on relative error, so small and large sizes weigh the same), and the class with the
+     * smallest residual wins. The log-log regression slope is reported alongside as the measured polynomial exponent.
+     */
+    static final class ComplexityFit {
+        static final int MIN_POINTS = 3;
+        final ComplexityClass best; final double constant, rSquared, relativeRmsError, exponent;
+
+        private ComplexityFit(ComplexityClass best, double constant, double rSquared, double relativeRmsError, double exponent) {
+            this.best = best; this.constant = constant; this.rSquared = rSquared; this.relativeRmsError = relativeRmsError; this.exponent = exponent;
+        }
+
+        /** Fits the positive values of {@code stat}; returns null with fewer than {@link #MIN_POINTS} distinct sizes. */
+        static ComplexityFit fit(List<BenchmarkResult> pts, java.util.function.ToLongFunction<BenchmarkResult> stat) {
+            double[] xs = new double[pts.size()], ys = new double[pts.size()]; int m = 0; Set<Integer> sizes = new HashSet<>();
+            for (BenchmarkResult r : pts) {
+                long y = stat.applyAsLong(r);
+                if (y > 0 && r.size > 0) { xs[m] = r.size; ys[m++] = y; if (sizes.size() < MIN_POINTS) sizes.add(r.size); }
+            }
+            if (sizes.size() < MIN_POINTS) return null;
+            double maxN = 0, mx = 0, my = 0;
+            double[] lx = new double[m], ly = new double[m];
+            for (int i = 0; i < m; i++) { lx[i] = Math.log(xs[i]); ly[i] = Math.log(ys[i]); mx += lx[i]; my += ly[i]; maxN = Math.max(maxN, xs[i]); }
+            mx /= m; my /= m;
+            double sxy = 0, sxx = 0; for (int i = 0; i < m; i++) { sxy += (lx[i] - mx) * (ly[i] - my); sxx += (lx[i] - mx) * (lx[i] - mx); }
+
+            ComplexityClass best = null; double bestRss = Double.POSITIVE_INFINITY, bestLogC = 0;
+            for (ComplexityClass cls : ComplexityClass.values()) {
+                if (Double.isInfinite(cls.eval(maxN))) continue;
+                double[] lf = new double[m]; double logC = 0;
+                for (int i = 0; i < m; i++) { lf[i] = Math.log(cls.eval(xs[i])); logC += ly[i] - lf[i]; }
+                logC /= m;
+                double rss = 0; for (int i = 0; i < m; i++) { double e = ly[i] - logC - lf[i]; rss += e * e; }
+                if (rss < bestRss) { best = cls; bestRss = rss; bestLogC = logC; }
+            }
+            double c = Math.exp(bestLogC), mean = 0, ssRes = 0, ssTot = 0;
+            for (int i = 0; i < m; i++) mean += ys[i];
+            mean /= m;
+            for (int i = 0; i < m; i++) { double e = ys[i] - c * best.eval(xs[i]); ssRes += e * e; ssTot += (ys[i] - mean) * (ys[i] - mean); }
+            return new ComplexityFit(best, c, ssTot > 0 ? 1 - ssRes / ssTot : 1, Math.exp(Math.sqrt(bestRss / m)) - 1, sxx > 0 ? sxy / sxx : 0);
+        }
+
+        double predict(double n) { return constant * best.eval(n); }
+
+        String describe() { return String.format(Locale.ROOT, "%s, c = %.3g, R² = %.3f, ±%.0f%% RMS, log-log slope %.2f", best.label, constant, rSquared, relativeRmsError * 100, exponent); }
+    }
+
+    /** Constructor-configured BenchAlgorithm used for the built-ins. */
+    static class SimpleAlgorithm implements BenchAlgorithm {
+        private final String name; private final AlgoInfo info; private final IntFunction<Kernel> prepare;
+        private final Visualization visualization; private final int maxSize; private final Instrumentation instrumentation;
+        SimpleAlgorithm(String name, AlgoInfo info, IntFunction<Kernel> prepare) { this(name, info, prepare, null, Integer.MAX_VALUE); }
+        SimpleAlgorithm(String name, AlgoInfo info, IntFunction<Kernel> prepare, Visualization visualization, int maxSize) { this(name, info, prepare, visualization, maxSize, null); }
+        SimpleAlgorithm(String name, AlgoInfo info, IntFunction<Kernel> prepare, Visualization visualization, int maxSize, Instrumentation instrumentation) {
+            this.name = name; this.info = info; this.prepare = prepare; this.visualization = visualization; this.maxSize = maxSize; this.instrumentation = instrumentation;
+        }
+        @Override public String name() { return name; }
+        @Override public AlgoInfo info() { return info; }
+        @Override public int maxSize() { return maxSize; }
+        @Override public Kernel prepare(int size) { return prepare.apply(size); }
+        @Override public boolean canVisualize() { return visualization != null; }
+        @Override public void visualize(int[] array, VisProbe probe) throws InterruptedException {
+            if (visualization == null) BenchAlgorithm.super.visualize(array, probe); else visualization.run(array, probe);
+        }
+        @Override public boolean canCount() { return instrumentation != null; }
+        @Override public void countOperations(int[] data, OperationCounts counts) {
+            if (instrumentation == null) BenchAlgorithm.super.countOperations(data, counts); else instrumentation.run(data, counts);
+        }
+    }
+
+    /** Built-in algorithms followed by any ServiceLoader providers, in registration order. First registration of a name wins. */
+    static final class AlgorithmRegistry {
+        private static final Map<String, BenchAlgorithm> ALGORITHMS = load();
+
+        private static Map<String, BenchAlgorithm> load() {
+            Map<String, BenchAlgorithm> map = new LinkedHashMap<>();
+            for (BenchAlgorithm a : builtins()) map.put(a.name(), a);
+            for (BenchAlgorithm a : ServiceLoader.load(BenchAlgorithm.class)) {
+                if (map.putIfAbsent(a.name(), a) != null) System.err.println("Ignoring duplicate algorithm provider for '" + a.name() + "': " + a.getClass().getName());
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        /** Built-in algorithms. Lives here rather than in Model so loading the registry never re-enters Model's initializer. */
+        static List<BenchAlgorithm> builtins() {
+            List<BenchAlgorithm> all = new ArrayList<>(Arrays.asList(
+                new SimpleAlgorithm("Linear Search", new AlgoInfo("Searching", "O(1)", "O(n)", "O(n)", "O(1)", "Yes", "Yes",
+                        "Checks each element sequentially until the target is found. Simple but slow for large datasets."),
+                        size -> new Model.SearchKernel(false, Model::linearSearch), null, Integer.MAX_VALUE, Model::countLinearSearch),
+                new SimpleAlgorithm("Binary Search", new AlgoInfo("Searching", "O(1)", "O(log n)", "O(log n)", "O(1)", "N/A", "Yes",
+                        "Efficiently finds an item from a sorted list by repeatedly halving the search space."),
+                        size -> new Model.SearchKernel(true, Model::binarySearch), null, Integer.MAX_VALUE, Model::countBinarySearch),
+                new SimpleAlgorithm("Bubble Sort", new AlgoInfo("Sorting", "O(n)", "O(n²)", "O(n²)", "O(1)", "Yes", "Yes",
+                        "Simplest sorting algorithm that repeatedly swaps adjacent elements if they are in the wrong order."),
+                        size -> data -> { Model.bubbleSort(data); return 0; }, Model::visBubble, Integer.MAX_VALUE, Model::countBubble),
+                new SimpleAlgorithm("Selection Sort", new AlgoInfo("Sorting", "O(n²)", "O(n²)", "O(n²)", "O(1)", "No", "Yes",
+                        "Sorts an array by repeatedly finding the minimum element from the unsorted part and moving it to the beginning."),
+                        size -> data -> { Model.selectionSort(data); return 0; }, Model::visSelection, Integer.MAX_VALUE, Model::countSelection),
+                new SimpleAlgorithm("Insertion Sort", new AlgoInfo("Sorting", "O(n)", "O(n²)", "O(n²)", "O(1)", "Yes", "Yes",
+                        "Builds the final sorted array one item at a time. Highly efficient for small or mostly sorted data."),
+                        size -> data -> { Model.insertionSort(data); return 0; }, Model::visInsertion, Integer.MAX_VALUE, Model::countInsertion),
+                new SimpleAlgorithm("Merge Sort", new AlgoInfo("Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(n)", "Yes", "No",
+                        "Divide and conquer algorithm that splits the array in halves, sorts them recursively, and merges them back."),
+                        size -> data -> { Model.mergeSort(data); return 0; }, (a, p) -> Model.visMerge(a, p, 0, a.length - 1), Integer.MAX_VALUE, Model::countMerge),
+                new SimpleAlgorithm("Quick Sort", new AlgoInfo("Sorting", "O(n log n)", "O(n log n)", "O(n²)", "O(log n)", "No", "Yes",
+                        "Partitions the array around a pivot element. Often the fastest general-purpose sort in practice due to cache efficiency."),
+                        size -> data -> { Model.quickSort(data, 0, data.length - 1); return 0; }, (a, p) -> Model.visQuick(a, p, 0, a.length - 1), Integer.MAX_VALUE, (a, c) -> Model.countQuick(a, c, 0, a.length - 1)),
+                new SimpleAlgorithm("Heap Sort", new AlgoInfo("Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(1)", "No", "Yes",
+                        "Uses a binary heap data structure to sort elements in-place with guaranteed O(n log n) performance."),
+                        size -> data -> { Model.heapSort(data); return 0; }, Model::visHeap, Integer.MAX_VALUE, Model::countHeap),
+                new SimpleAlgorithm("Counting Sort", new AlgoInfo("Sorting", "O(n + k)", "O(n + k)", "O(n + k)", "O(n + k)", "Yes", "No",
+                        "Non-comparison integer sort that operates by counting the number of objects having distinct key values."),
+                        size -> data -> { Model.countingSort(data); return 0; }, null, Integer.MAX_VALUE, Model::countCounting),
+                new SimpleAlgorithm("Radix Sort", new AlgoInfo("Sorting", "O(d(n + k))", "O(d(n + k))", "O(d(n + k))", "O(n + k)", "Yes", "No",
+                        "Avoids comparison by distributing elements into buckets according to their individual digits or radix."),
+                        size -> data -> { Model.radixSort(data); return 0; }, null, Integer.MAX_VALUE, Model::countRadix),
+                new SimpleAlgorithm("Introsort", new AlgoInfo("Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(log n)", "No", "Yes",
+                        "Median-of-three quicksort that switches to heap sort after 2·log₂n levels of recursion and to insertion sort on small ranges, so the worst case stays O(n log n)."),
+                        size -> data -> { ComparisonSorts.introSort(data, 0, data.length); return 0; }, null, Integer.MAX_VALUE, ComparisonSorts::countIntroSort),
+                new SimpleAlgorithm("Dual-Pivot Quick Sort", new AlgoInfo("Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(log n)", "No", "Yes",
+                        "Partitions around two pivots into three ranges, the scheme behind the JDK's primitive sort. Fewer element moves per level than single-pivot quicksort, with a heap-sort fallback."),
+                        size -> data -> { ComparisonSorts.dualPivotSort(data); return 0; }, null, Integer.MAX_VALUE, ComparisonSorts::countDualPivotSort),
+                new SimpleAlgorithm("Pattern-Defeating Quick Sort", new AlgoInfo("Sorting", "O(n)", "O(n log n)", "O(n log n)", "O(log n)", "No", "Yes",
+                        "pdqsort: introsort that recognises sorted and reversed input in linear time, groups keys equal to the pivot, and breaks adversarial patterns by shuffling after bad splits."),
+                        size -> { ComparisonSorts.PdqSort pdq = new ComparisonSorts.PdqSort(ComparisonSorts.PDQ_CUTOFF); return data -> { pdq.sort(data); return 0; }; }, null, Integer.MAX_VALUE,
+                        (a, c) -> new ComparisonSorts.CountingPdqSort(ComparisonSorts.PDQ_CUTOFF, c).sort(a)),
+                new SimpleAlgorithm("TimSort", new AlgoInfo("Sorting", "O(n)", "O(n log n)", "O(n log n)", "O(n)", "Yes", "No",
+                        "Stable natural merge sort that detects existing runs, extends short ones with binary insertion sort and merges them through one reusable buffer. Linear on already sorted input."),
+                        size -> new ComparisonSorts.TimSort(size, ComparisonSorts.TIM_MIN_MERGE), null, Integer.MAX_VALUE,
+                        (a, c) -> new ComparisonSorts.CountingTimSort(ComparisonSorts.TIM_MIN_MERGE, c).sort(a)),
+                new SimpleAlgorithm("LSD Radix Sort (8-bit)", new AlgoInfo("Sorting", "O(n)", "O(d(n + k))", "O(d(n + k))", "O(n + k)", "Yes", "No",
+                        "Least-significant-digit radix sort over four byte-wide digits with the sign bit flipped, so negative keys sort correctly. Digits that are the same for every key are skipped."),
+                        size -> new IntegerSorts.LsdRadixSort(size, 8), null, Integer.MAX_VALUE, (a, c) -> IntegerSorts.countLsdRadixSort(a, 8, c)),
+                new SimpleAlgorithm("LSD Radix Sort (11-bit)", new AlgoInfo("Sorting", "O(n)", "O(d(n + k))", "O(d(n + k))", "O(n + k)", "Yes", "No",
+                        "The same radix sort with 2048-bucket digits: three scatter passes instead of four, at the cost of histograms that no longer fit in L1."),
+                        size -> new IntegerSorts.LsdRadixSort(size, 11), null, Integer.MAX_VALUE, (a, c) -> IntegerSorts.countLsdRadixSort(a, 11, c)),
+                new SimpleAlgorithm("Range Counting Sort", new AlgoInfo("Sorting", "O(n + k)", "O(n + k)", "O(n + k)", "O(n + k)", "Yes", "No",
+                        "Counting sort over [min, max] that handles negative keys and falls back to 11-bit radix sort when the key range exceeds max(4n, 65,536), instead of allocating a table sized by the largest key."),
+                        size -> new IntegerSorts.RangeCountingSort(size), null, Integer.MAX_VALUE, IntegerSorts::countRangeCountingSort),
+                new SimpleAlgorithm("Fibonacci Recursive", new AlgoInfo("Recursion", "O(1)", "O(2ⁿ)", "O(2ⁿ)", "O(n)", "N/A", "N/A",
+                        "Calculates the nth Fibonacci number by recursively calling itself. Demonstrates extreme exponential time overhead. Uses int arithmetic, which wraps after n = 46."),
+                        size -> data -> Model.fibonacciRecursive(size), null, 40, (data, c) -> Model.countFibonacciRecursive(data.length, c)),
+                new SimpleAlgorithm("Fibonacci DP", new AlgoInfo("Recursion", "O(n)", "O(n)", "O(n)", "O(1)", "N/A", "N/A",
+                        "Calculates the nth Fibonacci number using a bottom-up dynamic programming approach, reducing exponential time to linear time. Uses int arithmetic, which wraps after n = 46, so this measures the loop rather than the numbers; the BigInteger family computes them exactly."),
+                        size -> data -> Model.fibonacciDP(size), null, Integer.MAX_VALUE, (data, c) -> Model.countFibonacciDP(data.length, c))
+            ));
+            // Batch engines sit next to the two single-query searches
+            all.addAll(2, BatchSearch.algorithms());
+            all.addAll(BigFibonacci.algorithms());
+            all.addAll(VectorKernels.algorithms());
+            all.addAll(TypedSorts.algorithms());
+            all.addAll(ParallelSorts.algorithms());
+            return all;
+        }
+
+        static BenchAlgorithm get(String name) {
+            BenchAlgorithm a = ALGORITHMS.get(name);
+            if (a == null) throw new IllegalArgumentException("Unknown algorithm: " + name);
+            return a;
+        }
+        static BenchAlgorithm find(String name) { return ALGORITHMS.get(name); }
+        static Collection<BenchAlgorithm> all() { return ALGORITHMS.values(); }
+        static String[] names() { return ALGORITHMS.keySet().toArray(new String[0]); }
+    }
+
+    // =====================================================================================
+    // MVC: MODEL
+    // =====================================================================================
+    static class Model {
+        public static final String[] ALGORITHMS = AlgorithmRegistry.names();
+        public static final String[] ORDERS = {"Random", "Ascending", "Descending", "Almost Sorted", "Zipf", "Few Unique", "Sawtooth", "Organ Pipe", "Sorted Runs", "Quicksort Killer"};
+        public static final SamplingPolicy DEFAULT_SAMPLING = SamplingPolicy.adaptive(0.02, 2000);
+
+        private final Map<String, List<BenchmarkResult>> results = new LinkedHashMap<>();
+        public final List<RunHistory> history = new ArrayList<>();
+        private HistoryStore historyStore;
+        private RegressionGate baseline;
+
+        public void clearResults() { results.clear(); }
+        public void addResult(String algo, BenchmarkResult res) { results.computeIfAbsent(algo, k -> new ArrayList<>()).add(res); }
+        public Map<String, List<BenchmarkResult>> getResults() { return results; }
+        public void loadResults(Map<String, List<BenchmarkResult>> data) { results.clear(); data.forEach((k, v) -> results.put(k, new ArrayList<>(v))); }
+
+        /** Opens the on-disk run history and lists its runs, newest first. If it can't be opened, history stays in memory. */
+        public void openHistory(Path file) {
+            try { historyStore = HistoryStore.open(file); List<RunHistory> stored = historyStore.runs(); Collections.reverse(stored); history.addAll(stored); }
+            catch (IOException e) { System.err.println("Run history unavailable (" + file + "): " + e.getMessage()); }
+        }
+        public HistoryStore getHistoryStore() { return historyStore; }
+        /** Baseline the results are compared with, or null. */
+        public RegressionGate getBaseline() { return baseline; }
+        public void setBaseline(RegressionGate gate) { baseline = gate; }
+
+        public void saveToHistory(String algos, String conf, String order, long seed) {
+            RunHistory run = new RunHistory(algos, conf, order, seed, results); history.add(0, run);
+            if (historyStore != null) {
+                try { historyStore.append(run); } catch (IOException e) { System.err.println("Could not persist run to " + historyStore.getFile() + ": " + e.getMessage()); }
+            }
+        }
+
+        /** A run's results, read from the history store on first access. */
+        public Map<String, List<BenchmarkResult>> historyData(RunHistory run) throws IOException {
+            if (run.data == null) run.data = historyStore.load(run);
+            return run.data;
+        }
+
+        public int[] generateInputData(int size, String order) { return generateInputData(size, order, new SplittableRandom().nextLong()); }
+
+        /** Same (size, order, seed), same data, whether or not it was generated in parallel. See {@link InputDistributions}. */
+        public int[] generateInputData(int size, String order, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] data = new int[size]; int bound = (int) Math.min(Integer.MAX_VALUE, Math.max(10, size * 10L));
+            // Runs and teeth of √n elements: √n of them, each long enough to matter
+            int run = Math.max(2, (int) Math.sqrt(size));
+            switch (order) {
+                case "Zipf": InputDistributions.ZipfSampler zipf = new InputDistributions.ZipfSampler(Math.max(10, size), InputDistributions.ZIPF_EXPONENT); InputDistributions.fill(data, random, zipf::sample); return data;
+                case "Few Unique": int[] values = random.ints(InputDistributions.FEW_UNIQUE, 0, bound).toArray(); InputDistributions.fill(data, random, r -> values[r.nextInt(values.length)]); return data;
+                case "Sawtooth": InputDistributions.setAll(data, i -> i % run); return data;
+                case "Organ Pipe": InputDistributions.setAll(data, i -> Math.min(i, size - 1 - i)); return data;
+                case "Quicksort Killer": return InputDistributions.QuicksortKiller.generate(size);
+            }
+            InputDistributions.fill(data, random, r -> r.nextInt(bound));
+            switch (order) {
+                case "Ascending": InputDistributions.sort(data); break;
+                case "Descending":
+                    InputDistributions.sort(data); for (int i = 0; i < size / 2; i++) { int t = data[i]; data[i] = data[size - 1 - i]; data[size - 1 - i] = t; } break;
+                case "Almost Sorted":
+                    InputDistributions.sort(data); for (int i = 0; i < Math.max(1, size / 20); i++) { int idx1 = random.nextInt(size), idx2 = random.nextInt(size); int t = data[idx1]; data[idx1] = data[idx2]; data[idx2] = t; } break;
+                case "Sorted Runs": InputDistributions.sortRuns(data, run); break;
+            } return data;
+        }
+
+        public BenchmarkResult measureCell(String algo, int size, String order, int runs) throws Exception {
+            try (InputCorpus corpus = new InputCorpus(this, new Random().nextLong(), InputCorpus.Storage.HEAP)) { return measureCell(algo, size, 0, order, SamplingPolicy.fixed(runs), corpus); }
+        }
+
+        /**
+         * Measures one (algorithm, size) cell: one cold-start run, warmup to steady state, then timed runs, each on a fresh
+         * bulk copy of the corpus input for (size, order). Safe to call from several threads sharing one corpus.
+         * {@code threads} is the worker count for parallel algorithms and ignored (0) for sequential ones.
+         * The number of timed runs is decided by {@code policy}; time statistics are taken after outlier rejection,
+         * allocation statistics over every run.
+         */
+        public BenchmarkResult measureCell(String algo, int size, int threads, String order, SamplingPolicy policy, InputCorpus corpus) throws Exception {
+            long[] times = new long[Math.min(policy.maxRuns, Math.max(policy.minRuns, 64))], allocs = new long[times.length];
+            BenchAlgorithm algorithm = AlgorithmRegistry.get(algo);
+
+            // Resolved once per cell: warmup and the timed region below are plain interface calls on this kernel
+            int[] data = new int[size]; int runs = 0; long measuredFrom, measuredTo; TelemetrySampler.Snapshot measuredBase;
+            long coldTime, gcCountBefore, gcTimeBefore; int warmups = 0, queries; boolean steady = false;
+            try (Kernel kernel = prepare(algorithm, size, threads)) {
+                queries = kernel.queriesPerRun();
+                // Cold start: the first invocation at the real size, before any warmup
+                corpus.copyInto(size, order, data); kernel.setup(data);
+                long coldStart = System.nanoTime(); consume(kernel.run(data)); coldTime = System.nanoTime() - coldStart;
+
+                // Warmup iterations take the same path as timed ones, probes included, so the harness gets compiled here too
+                long[] warm = new long[64]; long warmStart = System.nanoTime(), jitMark = WarmupPolicy.compilationMillis(); int nextWarmCheck = 2 * WarmupPolicy.MIN_WINDOW;
+                while (warmups < WarmupPolicy.MAX_ITERATIONS && System.nanoTime() - warmStart < policy.warmup.budgetNanos) {
+                    if (warmups == warm.length) warm = Arrays.copyOf(warm, warmups * 2);
+                    corpus.copyInto(size, order, data); kernel.setup(data);
+                    long allocStart = MemoryProbe.threadAllocatedBytes();
+                    long start = System.nanoTime(); long result = kernel.run(data); long end = System.nanoTime();
+                    MemoryProbe.allocatedSince(allocStart); consume(result); warm[warmups++] = end - start;
+                    if (warmups < nextWarmCheck || System.nanoTime() - warmStart < policy.warmup.budgetNanos / 10) continue;
+                    int window = Math.max(WarmupPolicy.MIN_WINDOW, warmups / 4); long jit = WarmupPolicy.compilationMillis();
+                    if (jit == jitMark && WarmupPolicy.isStable(warm, warmups, window)) { steady = true; break; }
+                    jitMark = jit; nextWarmCheck = warmups + window;
+                }
+                System.gc(); Thread.sleep(5);
+                gcCountBefore = MemoryProbe.gcCount(); gcTimeBefore = MemoryProbe.gcTimeMs(); measuredBase = TelemetrySampler.mark();
+
+                long loopStart = System.nanoTime(); int nextCheck = policy.minRuns; long loopEnd = loopStart;
+                while (runs < policy.maxRuns) {
+                    if (runs == times.length) { times = Arrays.copyOf(times, Math.min(policy.maxRuns, runs * 2)); allocs = Arrays.copyOf(allocs, times.length); }
+                    corpus.copyInto(size, order, data); kernel.setup(data);
+                    long allocStart = MemoryProbe.threadAllocatedBytes();
+                    long start = System.nanoTime(); long result = kernel.run(data); long end = System.nanoTime();
+                    allocs[runs] = MemoryProbe.allocatedSince(allocStart);
+                    times[runs++] = end - start; consume(result); loopEnd = end;
+
+                    if (policy.isFixed()) continue;
+                    if (end - loopStart >= policy.budgetNanos && runs >= SamplingPolicy.BUDGET_FLOOR) break;
+                    if (runs >= nextCheck) {
+                        if (SampleStats.of(times, runs).relativeError() <= policy.targetRelError) break;
+                        nextCheck = runs + Math.max(1, runs / 10);
+                    }
+                }
+                measuredFrom = loopStart; measuredTo = loopEnd;
+            }
+            long gcCount = MemoryProbe.gcCount() - gcCountBefore, gcTime = MemoryProbe.gcTimeMs() - gcTimeBefore;
+            SampleStats stats = SampleStats.of(times, runs);
+            allocs = Arrays.copyOf(allocs, runs); Arrays.sort(allocs);
+            BenchmarkResult result = new BenchmarkResult(algo, size, stats.mean, stats.median, stats.min, stats.max, allocs[runs/2]);
+            result.maxAllocBytes = allocs[runs-1]; result.gcCount = gcCount; result.gcTimeMs = gcTime;
+            result.ciLow = stats.ciLow; result.ciHigh = stats.ciHigh; result.samples = stats.kept; result.outliers = stats.outliers; result.cv = stats.cv;
+            result.threads = algorithm.isParallel() ? threads : 0;
+            LatencyHistogram histogram = stats.histogram();
+            result.histogram = histogram; result.p50 = histogram.percentile(50); result.p90 = histogram.percentile(90); result.p99 = histogram.percentile(99); result.p999 = histogram.percentile(99.9);
+            result.measuredFrom = measuredFrom; result.measuredTo = measuredTo; result.measuredBase = measuredBase;
+            result.coldTime = coldTime; result.warmupRuns = warmups; result.steadyState = steady;
+            result.queriesPerRun = queries;
+            return result;
+        }
+
+        private static Kernel prepare(BenchAlgorithm algorithm, int size, int threads) {
+            return algorithm.isParallel() ? algorithm.prepare(size, threads) : algorithm.prepare(size);
+        }
+
+        // Results of every timed run end up here so the JIT cannot treat the work as dead code (same idea as JMH's Blackhole).
+        private static volatile long blackhole;
+        static void consume(long value) { blackhole += value; }
+
+        // --- Built-in Registrations ---
+        interface SearchFn { int search(int[] arr, int target); }
+
+        /** Searches for the last generated element; Binary Search sorts the input first, outside the timed region. */
+        static final class SearchKernel implements Kernel {
+            private final boolean sortFirst; private final SearchFn fn; private int target;
+            SearchKernel(boolean sortFirst, SearchFn fn) { this.sortFirst = sortFirst; this.fn = fn; }
+            @Override public void setup(int[] data) { target = data.length > 0 ? data[data.length - 1] : 0; if (sortFirst) Arrays.sort(data); }
+            @Override public long run(int[] data) { return fn.search(data, target); }
+            @Override public int queriesPerRun() { return 1; }
+        }
+
+        // --- Core Algorithms ---
+        static int linearSearch(int[] arr, int t) { for (int i=0; i<arr.length; i++) if (arr[i]==t) return i; return -1; }
+        static int binarySearch(int[] arr, int t) { int l = 0, r = arr.length - 1; while (l <= r) { int m = l + (r - l) / 2; if (arr[m] == t) return m; if (arr[m] < t) l = m + 1; else r = m - 1; } return -1; }
+        static void bubbleSort(int[] arr) { for (int i = 0; i < arr.length - 1; i++) { boolean swapped = false; for (int j = 0; j < arr.length - i - 1; j++) if (arr[j] > arr[j + 1]) { int t = arr[j]; arr[j] = arr[j + 1]; arr[j + 1] = t; swapped = true; } if (!swapped) break; } }
+        static void selectionSort(int[] arr) { for (int i = 0; i < arr.length - 1; i++) { int min = i; for (int j = i + 1; j < arr.length; j++) if (arr[j] < arr[min]) min = j; int t = arr[min]; arr[min] = arr[i]; arr[i] = t; } }
+        static void insertionSort(int[] arr) { for (int i = 1; i < arr.length; ++i) { int key = arr[i], j = i - 1; while (j >= 0 && arr[j] > key) { arr[j + 1] = arr[j]; j--; } arr[j + 1] = key; } }
+        static void mergeSort(int[] arr) { if (arr.length > 1) { int mid = arr.length / 2; int[] l = Arrays.copyOfRange(arr, 0, mid), r = Arrays.copyOfRange(arr, mid, arr.length); mergeSort(l); mergeSort(r); int i = 0, j = 0, k = 0; while (i < l.length && j < r.length) arr[k++] = (l[i] < r[j]) ? l[i++] : r[j++]; while (i < l.length) arr[k++] = l[i++]; while (j < r.length) arr[k++] = r[j++]; } }
+        static void quickSort(int[] arr, int low, int high) { if (low < high) { int pivot = arr[high], i = low - 1; for (int j = low; j < high; j++) if (arr[j] < pivot) { i++; int t = arr[i]; arr[i] = arr[j]; arr[j] = t; } int t = arr[i + 1]; arr[i + 1] = arr[high]; arr[high] = t; quickSort(arr, low, i); quickSort(arr, i + 2, high); } }
+        static void heapSort(int[] arr) { int n = arr.length; for (int i = n / 2 - 1; i >= 0; i--) heapify(arr, n, i); for (int i = n - 1; i > 0; i--) { int t = arr[0]; arr[0] = arr[i]; arr[i] = t; heapify(arr, i, 0); } }
+        static void heapify(int[] arr, int n, int i) { int max = i, l = 2 * i + 1, r = 2 * i + 2; if (l < n && arr[l] > arr[max]) max = l; if (r < n && arr[r] > arr[max]) max = r; if (max != i) { int t = arr[i]; arr[i] = arr[max]; arr[max] = t; heapify(arr, n, max); } }
+        static void countingSort(int[] arr) { if(arr.length == 0) return; int max = arr[0]; for (int i = 1; i < arr.length; i++) if (arr[i] > max) max = arr[i]; int[] count = new int[max + 1], output = new int[arr.length]; for (int i=0; i<arr.length; i++) count[arr[i]]++; for (int i=1; i<=max; i++) count[i] += count[i - 1]; for (int i = arr.length - 1; i >= 0; i--) { output[count[arr[i]] - 1] = arr[i]; count[arr[i]]--; } System.arraycopy(output, 0, arr, 0, arr.length); }
+        static void radixSort(int[] arr) { if(arr.length == 0) return; int max = arr[0]; for (int i = 1; i < arr.length; i++) if (arr[i] > max) max = arr[i]; for (int exp = 1; max / exp > 0; exp *= 10) { int[] output = new int[arr.length], count = new int[10]; for (int i = 0; i < arr.length; i++) count[(arr[i] / exp) % 10]++; for (int i = 1; i < 10; i++) count[i] += count[i - 1]; for (int i = arr.length - 1; i >= 0; i--) { output[count[(arr[i] / exp) % 10] - 1] = arr[i]; count[(arr[i] / exp) % 10]--; } System.arraycopy(output, 0, arr, 0, arr.length); } }
+        static int fibonacciRecursive(int n) { if (n <= 1) return n; return fibonacciRecursive(n - 1) + fibonacciRecursive(n - 2); }
+        static int fibonacciDP(int n) { if (n <= 1) return n; int a = 0, b = 1, c = 0; for(int i = 2; i <= n; i++) { c = a + b; a = b; b = c; } return c; }
+
+        // --- Visualisation Variants (report every compare, swap and write to the probe, used by SortingVisualizerPanel) ---
+        static void visBubble(int[] array, VisProbe p) throws InterruptedException { for (int i = 0; i < array.length - 1; i++) for (int j = 0; j < array.length - i - 1; j++) { p.compare(j, j + 1); if (array[j] > array[j + 1]) p.swap(array, j, j + 1); } }
+        static void visSelection(int[] array, VisProbe p) throws InterruptedException { for (int i = 0; i < array.length - 1; i++) { int minIdx = i; for (int j = i + 1; j < array.length; j++) { p.compare(j, minIdx); if (array[j] < array[minIdx]) minIdx = j; } p.swap(array, minIdx, i); } }
+        static void visInsertion(int[] array, VisProbe p) throws InterruptedException { for (int i = 1; i < array.length; ++i) { int key = array[i], j = i - 1; while (j >= 0) { p.compare(j, j + 1); if (array[j] <= key) break; p.write(array, j + 1, array[j]); j--; } p.write(array, j + 1, key); } }
+        static void visQuick(int[] array, VisProbe p, int low, int high) throws InterruptedException { if(low < high) { int pv = array[high], i = low - 1; for(int j=low; j<high; j++) { p.compare(j, high); if(array[j] < pv) { i++; p.swap(array, i, j); } } p.swap(array, i + 1, high); visQuick(array, p, low, i); visQuick(array, p, i+2, high); } }
+        static void visMerge(int[] array, VisProbe p, int l, int r) throws InterruptedException { if(l < r) { int m = l + (r-l)/2; visMerge(array, p, l, m); visMerge(array, p, m+1, r); int n1 = m - l + 1, n2 = r - m, L[] = new int[n1], R[] = new int[n2]; for(int i=0; i<n1; ++i) L[i] = array[l+i]; for(int j=0; j<n2; ++j) R[j] = array[m+1+j]; int i=0, j=0, k=l; while(i<n1 && j<n2) { p.compare(l + i, m + 1 + j); p.write(array, k++, L[i] <= R[j] ? L[i++] : R[j++]); } while(i<n1) p.write(array, k++, L[i++]); while(j<n2) p.write(array, k++, R[j++]); } }
+        static void visHeap(int[] array, VisProbe p) throws InterruptedException { int n = array.length; for (int i = n / 2 - 1; i >= 0; i--) visHeapify(array, p, n, i); for (int i = n - 1; i > 0; i--) { p.swap(array, 0, i); visHeapify(array, p, i, 0); } }
+        static void visHeapify(int[] array, VisProbe p, int n, int i) throws InterruptedException { int max = i, l = 2*i + 1, r = 2*i + 2; if(l < n) { p.compare(l, max); if (array[l] > array[max]) max = l; } if(r < n) { p.compare(r, max); if (array[r] > array[max]) max = r; } if(max != i) { p.swap(array, i, max); visHeapify(array, p, n, max); } }
+
+        // --- Instrumented Variants (same steps as the core algorithms, counted on an OperationCounts; never timed) ---
+        static void countLinearSearch(int[] arr, OperationCounts c) { int t = arr.length > 0 ? arr[arr.length - 1] : 0; c.enter(); for (int i = 0; i < arr.length; i++) if (c.equal(c.read(arr, i), t)) break; c.exit(); }
+        static void countBinarySearch(int[] arr, OperationCounts c) { int t = arr.length > 0 ? arr[arr.length - 1] : 0; Arrays.sort(arr); c.enter(); int l = 0, r = arr.length - 1; while (l <= r) { int m = l + (r - l) / 2, v = c.read(arr, m); if (c.equal(v, t)) break; if (c.less(v, t)) l = m + 1; else r = m - 1; } c.exit(); }
+        static void countBubble(int[] arr, OperationCounts c) { c.enter(); for (int i = 0; i < arr.length - 1; i++) { boolean swapped = false; for (int j = 0; j < arr.length - i - 1; j++) if (c.less(c.read(arr, j + 1), c.read(arr, j))) { c.swap(arr, j, j + 1); swapped = true; } if (!swapped) break; } c.exit(); }
+        static void countSelection(int[] arr, OperationCounts c) { c.enter(); for (int i = 0; i < arr.length - 1; i++) { int min = i; for (int j = i + 1; j < arr.length; j++) if (c.less(c.read(arr, j), c.read(arr, min))) min = j; c.swap(arr, min, i); } c.exit(); }
+        static void countInsertion(int[] arr, OperationCounts c) { c.enter(); for (int i = 1; i < arr.length; ++i) { int key = c.read(arr, i), j = i - 1; while (j >= 0 && c.less(key, c.read(arr, j))) { c.write(arr, j + 1, c.read(arr, j)); j--; } c.write(arr, j + 1, key); } c.exit(); }
+        static void countMerge(int[] arr, OperationCounts c) { c.enter(); if (arr.length > 1) { int mid = arr.length / 2; int[] l = c.copyOfRange(arr, 0, mid), r = c.copyOfRange(arr, mid, arr.length); countMerge(l, c); countMerge(r, c); int i = 0, j = 0, k = 0; while (i < l.length && j < r.length) { int a = c.read(l, i), b = c.read(r, j); if (c.less(a, b)) { c.write(arr, k++, a); i++; } else { c.write(arr, k++, b); j++; } } while (i < l.length) c.write(arr, k++, c.read(l, i++)); while (j < r.length) c.write(arr, k++, c.read(r, j++)); } c.exit(); }
+        static void countQuick(int[] arr, OperationCounts c, int low, int high) { c.enter(); if (low < high) { int pivot = c.read(arr, high), i = low - 1; for (int j = low; j < high; j++) if (c.less(c.read(arr, j), pivot)) { i++; c.swap(arr, i, j); } c.swap(arr, i + 1, high); countQuick(arr, c, low, i); countQuick(arr, c, i + 2, high); } c.exit(); }
+        static void countHeap(int[] arr, OperationCounts c) { c.enter(); int n = arr.length; for (int i = n / 2 - 1; i >= 0; i--) countHeapify(arr, c, n, i); for (int i = n - 1; i > 0; i--) { c.swap(arr, 0, i); countHeapify(arr, c, i, 0); } c.exit(); }
+        static void countHeapify(int[] arr, OperationCounts c, int n, int i) { c.enter(); int max = i, l = 2 * i + 1, r = 2 * i + 2; if (l < n && c.less(c.read(arr, max), c.read(arr, l))) max = l; if (r < n && c.less(c.read(arr, max), c.read(arr, r))) max = r; if (max != i) { c.swap(arr, i, max); countHeapify(arr, c, n, max); } c.exit(); }
+        static void countCounting(int[] arr, OperationCounts c) { c.enter(); if (arr.length > 0) { int max = c.read(arr, 0); for (int i = 1; i < arr.length; i++) { int v = c.read(arr, i); if (c.less(max, v)) max = v; } int[] count = c.allocate(max + 1), output = c.allocate(arr.length); for (int i = 0; i < arr.length; i++) { int v = c.read(arr, i); c.write(count, v, c.read(count, v) + 1); } for (int i = 1; i <= max; i++) c.write(count, i, c.read(count, i) + c.read(count, i - 1)); for (int i = arr.length - 1; i >= 0; i--) { int v = c.read(arr, i), pos = c.read(count, v) - 1; c.write(output, pos, v); c.write(count, v, pos); } c.arraycopy(output, 0, arr, 0, arr.length); } c.exit(); }
+        static void countRadix(int[] arr, OperationCounts c) { c.enter(); if (arr.length > 0) { int max = c.read(arr, 0); for (int i = 1; i < arr.length; i++) { int v = c.read(arr, i); if (c.less(max, v)) max = v; } for (int exp = 1; max / exp > 0; exp *= 10) { int[] output = c.allocate(arr.length), count = c.allocate(10); for (int i = 0; i < arr.length; i++) { int d = (c.read(arr, i) / exp) % 10; c.write(count, d, c.read(count, d) + 1); } for (int i = 1; i < 10; i++) c.write(count, i, c.read(count, i) + c.read(count, i - 1)); for (int i = arr.length - 1; i >= 0; i--) { int v = c.read(arr, i), d = (v / exp) % 10, pos = c.read(count, d) - 1; c.write(output, pos, v); c.write(count, d, pos); } c.arraycopy(output, 0, arr, 0, arr.length); } } c.exit(); }
+        static int countFibonacciRecursive(int n, OperationCounts c) { c.enter(); int f = n <= 1 ? n : countFibonacciRecursive(n - 1, c) + countFibonacciRecursive(n - 2, c); c.exit(); return f; }
+        // Each step reads the two previous DP states and writes the next one
+        static void countFibonacciDP(int n, OperationCounts c) { c.enter(); for (int i = 2; i <= n; i++) { c.reads += 2; c.writes++; } c.exit(); }
+    }
+
+    // =====================================================================================
+    // COMPARISON SORT ENGINES
+    // =====================================================================================
+    /**
+     * Hardened comparison sorts to benchmark against the textbook versions in Model: introsort, dual-pivot quicksort,
+     * pattern-defeating quicksort and TimSort. None of them recurses more than O(log n) deep or degrades to O(n²) on
+     * presorted input. Insertion-sort cutoffs default to the values below and can be tuned per JVM with
+     * {@code -Dsort.cutoff.<intro|dualpivot|pdq|tim>=N}.
+     */
+    static final class ComparisonSorts {
+        static final int INTRO_CUTOFF = cutoff("intro", 16), DUAL_PIVOT_CUTOFF = cutoff("dualpivot", 44),
+                         PDQ_CUTOFF = Math.max(8, cutoff("pdq", 24)), TIM_MIN_MERGE = cutoff("tim", 32);
+
+        static int cutoff(String engine, int fallback) { return Math.max(2, Integer.getInteger("sort.cutoff." + engine, fallback)); }
+
+        static void swap(int[] a, int i, int j) { int t = a[i]; a[i] = a[j]; a[j] = t; }
+        static void insertionSort(int[] a, int lo, int hi) { for (int i = lo + 1; i < hi; i++) { int key = a[i], j = i - 1; while (j >= lo && a[j] > key) { a[j + 1] = a[j]; j--; } a[j + 1] = key; } }
+        static int log2(int n) { return 31 - Integer.numberOfLeadingZeros(Math.max(1, n)); }
+
+        /** Heap sort of a[lo, hi); the O(n log n) fallback when a quicksort variant runs out of depth budget. */
+        static void heapSort(int[] a, int lo, int hi) {
+            int n = hi - lo;
+            for (int i = n / 2 - 1; i >= 0; i--) siftDown(a, lo, i, n);
+            for (int end = n - 1; end > 0; end--) { swap(a, lo, lo + end); siftDown(a, lo, 0, end); }
+        }
+
+        static void siftDown(int[] a, int lo, int i, int n) {
+            int v = a[lo + i];
+            while (true) {
+                int c = 2 * i + 1;
+                if (c >= n) break;
+                if (c + 1 < n && a[lo + c + 1] > a[lo + c]) c++;
+                if (a[lo + c] <= v) break;
+                a[lo + i] = a[lo + c]; i = c;
+            }
+            a[lo + i] = v;
+        }
+
+        /** Hoare partition around the median of a[lo], a[mid], a[hi]. Returns j with a[lo..j] <= pivot <= a[j+1..hi]. */
+        static int partition(int[] a, int lo, int hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, lo, mid);
+            if (a[hi] < a[lo]) swap(a, lo, hi);
+            if (a[hi] < a[mid]) swap(a, mid, hi);
+            int pivot = a[mid], i = lo - 1, j = hi + 1;
+            while (true) {
+                do i++; while (a[i] < pivot);
+                do j--; while (a[j] > pivot);
+                if (i >= j) return j;
+                swap(a, i, j);
+            }
+        }
+
+        // --- Introsort ---
+        static void introSort(int[] a, int lo, int hi) { introSort(a, lo, hi, 2 * log2(hi - lo), INTRO_CUTOFF); }
+
+        /** Sorts a[lo, hi). Falls back to heap sort once {@code depth} partitions have been spent on one range. */
+        static void introSort(int[] a, int lo, int hi, int depth, int cutoff) {
+            while (hi - lo > cutoff) {
+                if (depth-- == 0) { heapSort(a, lo, hi); return; }
+                int p = partition(a, lo, hi - 1);
+                // Recurse into the smaller side so the stack stays O(log n)
+                if (p + 1 - lo < hi - p - 1) { introSort(a, lo, p + 1, depth, cutoff); lo = p + 1; } else { introSort(a, p + 1, hi, depth, cutoff); hi = p + 1; }
+            }
+            insertionSort(a, lo, hi);
+        }
+
+        // --- Dual-Pivot Quick Sort ---
+        static void dualPivotSort(int[] a) { if (a.length > 1) dualPivotSort(a, 0, a.length - 1, 2 * log2(a.length), DUAL_PIVOT_CUTOFF); }
+
+        /**
+         * Yaroslavskiy partitioning of a[left..right] into {@code < p}, {@code p..q} and {@code > q}. Pivots are taken
+         * from the tertiles rather than the ends so presorted input splits evenly; a depth budget bounds the worst case.
+         */
+        static void dualPivotSort(int[] a, int left, int right, int depth, int cutoff) {
+            while (right - left >= cutoff) {
+                if (depth-- == 0) { heapSort(a, left, right + 1); return; }
+                int third = (right - left) / 3, m1 = left + third, m2 = right - third;
+                if (a[m1] > a[m2]) swap(a, m1, m2);
+                swap(a, m1, left); swap(a, m2, right);
+                int p = a[left], q = a[right], lt = left + 1, gt = right - 1;
+                for (int k = lt; k <= gt; k++) {
+                    int x = a[k];
+                    if (x < p) swap(a, k, lt++);
+                    else if (x > q) {
+                        while (a[gt] > q && k < gt) gt--;
+                        swap(a, k, gt--);
+                        if (a[k] < p) swap(a, k, lt++);
+                    }
+                }
+                swap(a, left, --lt); swap(a, right, ++gt);
+                dualPivotSort(a, left, lt - 1, depth, cutoff);
+                if (p < q) dualPivotSort(a, lt + 1, gt - 1, depth, cutoff); // equal pivots: the middle is all p
+                left = gt + 1;
+            }
+            insertionSort(a, left, right + 1);
+        }
+
+        // --- Pattern-Defeating Quick Sort ---
+        /**
+         * pdqsort: introsort that detects already-partitioned ranges (finished with a bounded insertion sort), groups
+         * runs of keys equal to the previous pivot in one linear pass, and shuffles elements after unbalanced splits
+         * before giving up to heap sort.
+         */
+        static final class PdqSort {
+            static final int NINTHER_THRESHOLD = 128, PARTIAL_INSERTION_LIMIT = 8;
+            private final int cutoff; private boolean alreadyPartitioned;
+            PdqSort(int cutoff) { this.cutoff = Math.max(8, cutoff); }
+
+            void sort(int[] a) { if (a.length > 1) sort(a, 0, a.length, log2(a.length), true); }
+
+            private void sort(int[] a, int begin, int end, int badAllowed, boolean leftmost) {
+                while (true) {
+                    int size = end - begin;
+                    if (size < cutoff) { if (leftmost) insertionSort(a, begin, end); else unguardedInsertionSort(a, begin, end); return; }
+
+                    int s2 = size / 2;
+                    if (size > NINTHER_THRESHOLD) {
+                        sort3(a, begin, begin + s2, end - 1); sort3(a, begin + 1, begin + s2 - 1, end - 2);
+                        sort3(a, begin + 2, begin + s2 + 1, end - 3); sort3(a, begin + s2 - 1, begin + s2, begin + s2 + 1);
+                        swap(a, begin, begin + s2);
+                    } else sort3(a, begin + s2, begin, end - 1);
+
+                    // The pivot equals the element left of this range, so nothing here is smaller: split off the equal keys
+                    if (!leftmost && a[begin - 1] >= a[begin]) { begin = partitionLeft(a, begin, end) + 1; continue; }
+
+                    int pivotPos = partitionRight(a, begin, end);
+                    int lSize = pivotPos - begin, rSize = end - (pivotPos + 1);
+                    if (lSize < size / 8 || rSize < size / 8) {
+                        if (--badAllowed == 0) { heapSort(a, begin, end); return; }
+                        if (lSize >= cutoff) {
+                            swap(a, begin, begin + lSize / 4); swap(a, pivotPos - 1, pivotPos - lSize / 4);
+                            if (lSize > NINTHER_THRESHOLD) {
+                                swap(a, begin + 1, begin + lSize / 4 + 1); swap(a, begin + 2, begin + lSize / 4 + 2);
+                                swap(a, pivotPos - 2, pivotPos - (lSize / 4 + 1)); swap(a, pivotPos - 3, pivotPos - (lSize / 4 + 2));
+                            }
+                        }
+                        if (rSize >= cutoff) {
+                            swap(a, pivotPos + 1, pivotPos + 1 + rSize / 4); swap(a, end - 1, end - rSize / 4);
+                            if (rSize > NINTHER_THRESHOLD) {
+                                swap(a, pivotPos + 2, pivotPos + 2 + rSize / 4); swap(a, pivotPos + 3, pivotPos + 3 + rSize / 4);
+                                swap(a, end - 2, end - (1 + rSize / 4)); swap(a, end - 3, end - (2 + rSize / 4));
+                            }
+                        }
+                    } else if (alreadyPartitioned && partialInsertionSort(a, begin, pivotPos) && partialInsertionSort(a, pivotPos + 1, end)) return;
+
+                    sort(a, begin, pivotPos, badAllowed, leftmost);
+                    begin = pivotPos + 1; leftmost = false;
+                }
+            }
+
+            /** Partitions around a[begin] with equal keys to the right; records whether no swap was needed. */
+            private int partitionRight(int[] a, int begin, int end) {
+                int pivot = a[begin], first = begin, last = end;
+                while (a[++first] < pivot);
+                if (first - 1 == begin) while (first < last && !(a[--last] < pivot));
+                else while (!(a[--last] < pivot));
+                alreadyPartitioned = first >= last;
+                while (first < last) {
+                    swap(a, first, last);
+                    while (a[++first] < pivot);
+                    while (!(a[--last] < pivot));
+                }
+                int pivotPos = first - 1;
+                a[begin] = a[pivotPos]; a[pivotPos] = pivot;
+                return pivotPos;
+            }
+
+            /** Partitions around a[begin] with equal keys to the left. */
+            private static int partitionLeft(int[] a, int begin, int end) {
+                int pivot = a[begin], first = begin, last = end;
+                while (pivot < a[--last]);
+                if (last + 1 == end) while (first < last && !(pivot < a[++first]));
+                else while (!(pivot < a[++first]));
+                while (first < last) {
+                    swap(a, first, last);
+                    while (pivot < a[--last]);
+                    while (!(pivot < a[++first]));
+                }
+                a[begin] = a[last]; a[last] = pivot;
+                return last;
+            }
+
+            /** Insertion sort that gives up after {@link #PARTIAL_INSERTION_LIMIT} moves. */
+            private static boolean partialInsertionSort(int[] a, int begin, int end) {
+                int limit = 0;
+                for (int cur = begin + 1; cur < end; cur++) {
+                    if (limit > PARTIAL_INSERTION_LIMIT) return false;
+                    int tmp = a[cur], sift = cur;
+                    if (tmp < a[sift - 1]) {
+                        do { a[sift] = a[sift - 1]; sift--; } while (sift != begin && tmp < a[sift - 1]);
+                        a[sift] = tmp; limit += cur - sift;
+                    }
+                }
+                return true;
+            }
+
+            /** Relies on a[begin - 1] being no greater than anything in the range, which holds for every non-leftmost range. */
+            private static void unguardedInsertionSort(int[] a, int begin, int end) {
+                for (int i = begin + 1; i < end; i++) { int key = a[i], j = i - 1; while (a[j] > key) { a[j + 1] = a[j]; j--; } a[j + 1] = key; }
+            }
+
+            private static void sort2(int[] a, int i, int j) { if (a[j] < a[i]) swap(a, i, j); }
+            private static void sort3(int[] a, int i, int j, int k) { sort2(a, i, j); sort2(a, j, k); sort2(a, i, j); }
+        }
+
+        // --- TimSort ---
+        /**
+         * Natural merge sort: finds ascending runs (reversing strictly descending ones), extends short runs to minRun
+         * with binary insertion sort and merges under the TimSort stack invariants. Before each merge, the prefix of the
+         * left run and the suffix of the right run that are already in place are skipped by binary search. The scratch
+         * buffer holds at most half the input and is allocated once per cell.
+         */
+        static final class TimSort implements Kernel {
+            private final int minMerge; private final int[] tmp, runBase = new int[64], runLen = new int[64];
+            private int[] a; private int stackSize;
+            TimSort(int size, int minMerge) { this.minMerge = minMerge; this.tmp = new int[size / 2 + 1]; }
+
+            @Override public long run(int[] data) { sort(data); return 0; }
+
+            void sort(int[] data) {
+                a = data; stackSize = 0;
+                int lo = 0, hi = data.length, remaining = hi;
+                if (remaining < 2) return;
+                if (remaining < minMerge) { binaryInsertionSort(lo, hi, lo + countRunAndMakeAscending(lo, hi)); return; }
+                int minRun = minRunLength(remaining);
+                do {
+                    int len = countRunAndMakeAscending(lo, hi);
+                    if (len < minRun) { int force = Math.min(remaining, minRun); binaryInsertionSort(lo, lo + force, lo + len); len = force; }
+                    runBase[stackSize] = lo; runLen[stackSize++] = len;
+                    mergeCollapse();
+                    lo += len; remaining -= len;
+                } while (remaining != 0);
+                while (stackSize > 1) { int n = stackSize - 2; if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--; mergeAt(n); }
+                a = null;
+            }
+
+            /** minRun in [minMerge / 2, minMerge] so that n / minRun is close to, but no more than, a power of two. */
+            private int minRunLength(int n) { int r = 0; while (n >= minMerge) { r |= n & 1; n >>= 1; } return n + r; }
+
+            private int countRunAndMakeAscending(int lo, int hi) {
+                int runHi = lo + 1;
+                if (runHi == hi) return 1;
+                if (a[runHi++] < a[lo]) {
+                    while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+                    for (int i = lo, j = runHi - 1; i < j; i++, j--) swap(a, i, j);
+                } else while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+                return runHi - lo;
+            }
+
+            /** Sorts a[lo, hi) given that a[lo, start) is already sorted. Stable: equal keys go after existing ones. */
+            private void binaryInsertionSort(int lo, int hi, int start) {
+                for (; start < hi; start++) {
+                    int pivot = a[start], left = lo, right = start;
+                    while (left < right) { int mid = (left + right) >>> 1; if (pivot < a[mid]) right = mid; else left = mid + 1; }
+                    System.arraycopy(a, left, a, left + 1, start - left);
+                    a[left] = pivot;
+                }
+            }
+
+            private void mergeCollapse() {
+                while (stackSize > 1) {
+                    int n = stackSize - 2;
+                    if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1] || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                        if (runLen[n - 1] < runLen[n + 1]) n--;
+                    } else if (runLen[n] > runLen[n + 1]) break;
+                    mergeAt(n);
+                }
+            }
+
+            private void mergeAt(int i) {
+                int base1 = runBase[i], len1 = runLen[i], base2 = runBase[i + 1], len2 = runLen[i + 1];
+                runLen[i] = len1 + len2;
+                if (i == stackSize - 3) { runBase[i + 1] = runBase[i + 2]; runLen[i + 1] = runLen[i + 2]; }
+                stackSize--;
+
+                // Elements of run 1 not greater than run 2's head, and of run 2 not less than run 1's tail, are in place
+                int k = upperBound(a[base2], base1, base1 + len1) - base1;
+                base1 += k; len1 -= k;
+                if (len1 == 0) return;
+                len2 = lowerBound(a[base1 + len1 - 1], base2, base2 + len2) - base2;
+                if (len2 == 0) return;
+                if (len1 <= len2) mergeLo(base1, len1, base2, len2); else mergeHi(base1, len1, base2, len2);
+            }
+
+            private int upperBound(int key, int lo, int hi) { while (lo < hi) { int mid = (lo + hi) >>> 1; if (key < a[mid]) hi = mid; else lo = mid + 1; } return lo; }
+            private int lowerBound(int key, int lo, int hi) { while (lo < hi) { int mid = (lo + hi) >>> 1; if (a[mid] < key) lo = mid + 1; else hi = mid; } return lo; }
+
+            private void mergeLo(int base1, int len1, int base2, int len2) {
+                System.arraycopy(a, base1, tmp, 0, len1);
+                int i = 0, j = base2, end2 = base2 + len2, k = base1;
+                while (i < len1 && j < end2) a[k++] = a[j] < tmp[i] ? a[j++] : tmp[i++];
+                System.arraycopy(tmp, i, a, k, len1 - i);
+            }
+
+            private void mergeHi(int base1, int len1, int base2, int len2) {
+                System.arraycopy(a, base2, tmp, 0, len2);
+                int i = base1 + len1 - 1, j = len2 - 1, k = base2 + len2 - 1;
+                while (i >= base1 && j >= 0) a[k--] = tmp[j] < a[i] ? a[i--] : tmp[j--];
+                System.arraycopy(tmp, 0, a, k - j, j + 1);
+            }
+        }
+
+        // --- Instrumented twins ---
+        // Same control flow as the engines above, with every key comparison, element access, recursive call and scratch
+        // buffer reported to OperationCounts. Keep each twin in step with its engine, or the counts describe other code.
+        static void countInsertionSort(int[] a, int lo, int hi, OperationCounts c) { for (int i = lo + 1; i < hi; i++) { int key = c.read(a, i), j = i - 1; while (j >= lo && c.less(key, c.read(a, j))) { c.write(a, j + 1, c.read(a, j)); j--; } c.write(a, j + 1, key); } }
+
+        static void countHeapSort(int[] a, int lo, int hi, OperationCounts c) {
+            c.enter(); int n = hi - lo;
+            for (int i = n / 2 - 1; i >= 0; i--) countSiftDown(a, lo, i, n, c);
+            for (int end = n - 1; end > 0; end--) { c.swap(a, lo, lo + end); countSiftDown(a, lo, 0, end, c); }
+            c.exit();
+        }
+
+        static void countSiftDown(int[] a, int lo, int i, int n, OperationCounts c) {
+            int v = c.read(a, lo + i);
+            while (true) {
+                int k = 2 * i + 1;
+                if (k >= n) break;
+                if (k + 1 < n && c.less(c.read(a, lo + k), c.read(a, lo + k + 1))) k++;
+                int child = c.read(a, lo + k);
+                if (!c.less(v, child)) break;
+                c.write(a, lo + i, child); i = k;
+            }
+            c.write(a, lo + i, v);
+        }
+
+        static int countPartition(int[] a, int lo, int hi, OperationCounts c) {
+            int mid = (lo + hi) >>> 1;
+            if (c.less(c.read(a, mid), c.read(a, lo))) c.swap(a, lo, mid);
+            if (c.less(c.read(a, hi), c.read(a, lo))) c.swap(a, lo, hi);
+            if (c.less(c.read(a, hi), c.read(a, mid))) c.swap(a, mid, hi);
+            int pivot = c.read(a, mid), i = lo - 1, j = hi + 1;
+            while (true) {
+                do i++; while (c.less(c.read(a, i), pivot));
+                do j--; while (c.less(pivot, c.read(a, j)));
+                if (i >= j) return j;
+                c.swap(a, i, j);
+            }
+        }
+
+        static void countIntroSort(int[] a, OperationCounts c) { countIntroSort(a, 0, a.length, 2 * log2(a.length), INTRO_CUTOFF, c); }
+
+        static void countIntroSort(int[] a, int lo, int hi, int depth, int cutoff, OperationCounts c) {
+            c.enter();
+            while (hi - lo > cutoff) {
+                if (depth-- == 0) { countHeapSort(a, lo, hi, c); c.exit(); return; }
+                int p = countPartition(a, lo, hi - 1, c);
+                if (p + 1 - lo < hi - p - 1) { countIntroSort(a, lo, p + 1, depth, cutoff, c); lo = p + 1; } else { countIntroSort(a, p + 1, hi, depth, cutoff, c); hi = p + 1; }
+            }
+            countInsertionSort(a, lo, hi, c);
+            c.exit();
+        }
+
+        static void countDualPivotSort(int[] a, OperationCounts c) { if (a.length > 1) countDualPivotSort(a, 0, a.length - 1, 2 * log2(a.length), DUAL_PIVOT_CUTOFF, c); }
+
+        static void countDualPivotSort(int[] a, int left, int right, int depth, int cutoff, OperationCounts c) {
+            c.enter();
+            while (right - left >= cutoff) {
+                if (depth-- == 0) { countHeapSort(a, left, right + 1, c); c.exit(); return; }
+                int third = (right - left) / 3, m1 = left + third, m2 = right - third;
+                if (c.less(c.read(a, m2), c.read(a, m1))) c.swap(a, m1, m2);
+                c.swap(a, m1, left); c.swap(a, m2, right);
+                int p = c.read(a, left), q = c.read(a, right), lt = left + 1, gt = right - 1;
+                for (int k = lt; k <= gt; k++) {
+                    int x = c.read(a, k);
+                    if (c.less(x, p)) c.swap(a, k, lt++);
+                    else if (c.less(q, x)) {
+                        while (c.less(q, c.read(a, gt)) && k < gt) gt--;
+                        c.swap(a, k, gt--);
+                        if (c.less(c.read(a, k), p)) c.swap(a, k, lt++);
+                    }
+                }
+                c.swap(a, left, --lt); c.swap(a, right, ++gt);
+                countDualPivotSort(a, left, lt - 1, depth, cutoff, c);
+                if (c.less(p, q)) countDualPivotSort(a, lt + 1, gt - 1, depth, cutoff, c);
+                left = gt + 1;
+            }
+            countInsertionSort(a, left, right + 1, c);
+            c.exit();
+        }
+
+        /** {@link PdqSort} reporting to {@code c}. */
+        static final class CountingPdqSort {
+            private final int cutoff; private final OperationCounts c; private boolean alreadyPartitioned;
+            CountingPdqSort(int cutoff, OperationCounts c) { this.cutoff = Math.max(8, cutoff); this.c = c; }
+
+            void sort(int[] a) { if (a.length > 1) sort(a, 0, a.length, log2(a.length), true); }
+
+            private void sort(int[] a, int begin, int end, int badAllowed, boolean leftmost) {
+                c.enter();
+                while (true) {
+                    int size = end - begin;
+                    if (size < cutoff) { if (leftmost) countInsertionSort(a, begin, end, c); else unguardedInsertionSort(a, begin, end); break; }
+
+                    int s2 = size / 2;
+                    if (size > PdqSort.NINTHER_THRESHOLD) {
+                        sort3(a, begin, begin + s2, end - 1); sort3(a, begin + 1, begin + s2 - 1, end - 2);
+                        sort3(a, begin + 2, begin + s2 + 1, end - 3); sort3(a, begin + s2 - 1, begin + s2, begin + s2 + 1);
+                        c.swap(a, begin, begin + s2);
+                    } else sort3(a, begin + s2, begin, end - 1);
+
+                    if (!leftmost && !c.less(c.read(a, begin - 1), c.read(a, begin))) { begin = partitionLeft(a, begin, end) + 1; continue; }
+
+                    int pivotPos = partitionRight(a, begin, end);
+                    int lSize = pivotPos - begin, rSize = end - (pivotPos + 1);
+                    if (lSize < size / 8 || rSize < size / 8) {
+                        if (--badAllowed == 0) { countHeapSort(a, begin, end, c); break; }
+                        if (lSize >= cutoff) {
+                            c.swap(a, begin, begin + lSize / 4); c.swap(a, pivotPos - 1, pivotPos - lSize / 4);
+                            if (lSize > PdqSort.NINTHER_THRESHOLD) {
+                                c.swap(a, begin + 1, begin + lSize / 4 + 1); c.swap(a, begin + 2, begin + lSize / 4 + 2);
+                                c.swap(a, pivotPos - 2, pivotPos - (lSize / 4 + 1)); c.swap(a, pivotPos - 3, pivotPos - (lSize / 4 + 2));
+                            }
+                        }
+                        if (rSize >= cutoff) {
+                            c.swap(a, pivotPos + 1, pivotPos + 1 + rSize / 4); c.swap(a, end - 1, end - rSize / 4);
+                            if (rSize > PdqSort.NINTHER_THRESHOLD) {
+                                c.swap(a, pivotPos + 2, pivotPos + 2 + rSize / 4); c.swap(a, pivotPos + 3, pivotPos + 3 + rSize / 4);
+                                c.swap(a, end - 2, end - (1 + rSize / 4)); c.swap(a, end - 3, end - (2 + rSize / 4));
+                            }
+                        }
+                    } else if (alreadyPartitioned && partialInsertionSort(a, begin, pivotPos) && partialInsertionSort(a, pivotPos + 1, end)) break;
+
+                    sort(a, begin, pivotPos, badAllowed, leftmost);
+                    begin = pivotPos + 1; leftmost = false;
+                }
+                c.exit();
+            }
+
+            private int partitionRight(int[] a, int begin, int end) {
+                int pivot = c.read(a, begin), first = begin, last = end;
+                while (c.less(c.read(a, ++first), pivot));
+                if (first - 1 == begin) while (first < last && !c.less(c.read(a, --last), pivot));
+                else while (!c.less(c.read(a, --last), pivot));
+                alreadyPartitioned = first >= last;
+                while (first < last) {
+                    c.swap(a, first, last);
+                    while (c.less(c.read(a, ++first), pivot));
+                    while (!c.less(c.read(a, --last), pivot));
+                }
+                int pivotPos = first - 1;
+                c.write(a, begin, c.read(a, pivotPos)); c.write(a, pivotPos, pivot);
+                return pivotPos;
+            }
+
+            private int partitionLeft(int[] a, int begin, int end) {
+                int pivot = c.read(a, begin), first = begin, last = end;
+                while (c.less(pivot, c.read(a, --last)));
+                if (last + 1 == end) while (first < last && !c.less(pivot, c.read(a, ++first)));
+                else while (!c.less(pivot, c.read(a, ++first)));
+                while (first < last) {
+                    c.swap(a, first, last);
+                    while (c.less(pivot, c.read(a, --last)));
+                    while (!c.less(pivot, c.read(a, ++first)));
+                }
+                c.write(a, begin, c.read(a, last)); c.write(a, last, pivot);
+                return last;
+            }
+
+            private boolean partialInsertionSort(int[] a, int begin, int end) {
+                int limit = 0;
+                for (int cur = begin + 1; cur < end; cur++) {
+                    if (limit > PdqSort.PARTIAL_INSERTION_LIMIT) return false;
+                    int tmp = c.read(a, cur), sift = cur;
+                    if (c.less(tmp, c.read(a, sift - 1))) {
+                        do { c.write(a, sift, c.read(a, sift - 1)); sift--; } while (sift != begin && c.less(tmp, c.read(a, sift - 1)));
+                        c.write(a, sift, tmp); limit += cur - sift;
+                    }
+                }
+                return true;
+            }
+
+            private void unguardedInsertionSort(int[] a, int begin, int end) {
+                for (int i = begin + 1; i < end; i++) { int key = c.read(a, i), j = i - 1; while (c.less(key, c.read(a, j))) { c.write(a, j + 1, c.read(a, j)); j--; } c.write(a, j + 1, key); }
+            }
+
+            private void sort2(int[] a, int i, int j) { if (c.less(c.read(a, j), c.read(a, i))) c.swap(a, i, j); }
+            private void sort3(int[] a, int i, int j, int k) { sort2(a, i, j); sort2(a, j, k); sort2(a, i, j); }
+        }
+
+        /** {@link TimSort} reporting to {@code c}. The scratch buffer counts as one auxiliary allocation per sort. */
+        static final class CountingTimSort {
+            private final int minMerge; private final OperationCounts c; private final int[] runBase = new int[64], runLen = new int[64];
+            private int[] a, tmp; private int stackSize;
+            CountingTimSort(int minMerge, OperationCounts c) { this.minMerge = minMerge; this.c = c; }
+
+            void sort(int[] data) {
+                c.enter();
+                a = data; tmp = c.allocate(data.length / 2 + 1); stackSize = 0;
+                int lo = 0, hi = data.length, remaining = hi;
+                if (remaining >= 2 && remaining < minMerge) binaryInsertionSort(lo, hi, lo + countRunAndMakeAscending(lo, hi));
+                else if (remaining >= 2) {
+                    int minRun = minRunLength(remaining);
+                    do {
+                        int len = countRunAndMakeAscending(lo, hi);
+                        if (len < minRun) { int force = Math.min(remaining, minRun); binaryInsertionSort(lo, lo + force, lo + len); len = force; }
+                        runBase[stackSize] = lo; runLen[stackSize++] = len;
+                        mergeCollapse();
+                        lo += len; remaining -= len;
+                    } while (remaining != 0);
+                    while (stackSize > 1) { int n = stackSize - 2; if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--; mergeAt(n); }
+                }
+                a = tmp = null;
+                c.exit();
+            }
+
+            private int minRunLength(int n) { int r = 0; while (n >= minMerge) { r |= n & 1; n >>= 1; } return n + r; }
+
+            private int countRunAndMakeAscending(int lo, int hi) {
+                int runHi = lo + 1;
+                if (runHi == hi) return 1;
+                if (c.less(c.read(a, runHi++), c.read(a, lo))) {
+                    while (runHi < hi && c.less(c.read(a, runHi), c.read(a, runHi - 1))) runHi++;
+                    for (int i = lo, j = runHi - 1; i < j; i++, j--) c.swap(a, i, j);
+                } else while (runHi < hi && !c.less(c.read(a, runHi), c.read(a, runHi - 1))) runHi++;
+                return runHi - lo;
+            }
+
+            private void binaryInsertionSort(int lo, int hi, int start) {
+                for (; start < hi; start++) {
+                    int pivot = c.read(a, start), left = lo, right = start;
+                    while (left < right) { int mid = (left + right) >>> 1; if (c.less(pivot, c.read(a, mid))) right = mid; else left = mid + 1; }
+                    c.arraycopy(a, left, a, left + 1, start - left);
+                    c.write(a, left, pivot);
+                }
+            }
+
+            private void mergeCollapse() {
+                while (stackSize > 1) {
+                    int n = stackSize - 2;
+                    if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1] || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                        if (runLen[n - 1] < runLen[n + 1]) n--;
+                    } else if (runLen[n] > runLen[n + 1]) break;
+                    mergeAt(n);
+                }
+            }
+
+            private void mergeAt(int i) {
+                int base1 = runBase[i], len1 = runLen[i], base2 = runBase[i + 1], len2 = runLen[i + 1];
+                runLen[i] = len1 + len2;
+                if (i == stackSize - 3) { runBase[i + 1] = runBase[i + 2]; runLen[i + 1] = runLen[i + 2]; }
+                stackSize--;
+
+                int k = upperBound(c.read(a, base2), base1, base1 + len1) - base1;
+                base1 += k; len1 -= k;
+                if (len1 == 0) return;
+                len2 = lowerBound(c.read(a, base1 + len1 - 1), base2, base2 + len2) - base2;
+                if (len2 == 0) return;
+                if (len1 <= len2) mergeLo(base1, len1, base2, len2); else mergeHi(base1, len1, base2, len2);
+            }
+
+            private int upperBound(int key, int lo, int hi) { while (lo < hi) { int mid = (lo + hi) >>> 1; if (c.less(key, c.read(a, mid))) hi = mid; else lo = mid + 1; } return lo; }
+            private int lowerBound(int key, int lo, int hi) { while (lo < hi) { int mid = (lo + hi) >>> 1; if (c.less(c.read(a, mid), key)) lo = mid + 1; else hi = mid; } return lo; }
+
+            private void mergeLo(int base1, int len1, int base2, int len2) {
+                c.arraycopy(a, base1, tmp, 0, len1);
+                int i = 0, j = base2, end2 = base2 + len2, k = base1;
+                while (i < len1 && j < end2) { int x = c.read(a, j), y = c.read(tmp, i); if (c.less(x, y)) { c.write(a, k++, x); j++; } else { c.write(a, k++, y); i++; } }
+                c.arraycopy(tmp, i, a, k, len1 - i);
+            }
+
+            private void mergeHi(int base1, int len1, int base2, int len2) {
+                c.arraycopy(a, base2, tmp, 0, len2);
+                int i = base1 + len1 - 1, j = len2 - 1, k = base2 + len2 - 1;
+                while (i >= base1 && j >= 0) { int x = c.read(tmp, j), y = c.read(a, i); if (c.less(x, y)) { c.write(a, k--, y); i--; } else { c.write(a, k--, x); j--; } }
+                c.arraycopy(tmp, 0, a, k - j, j + 1);
+            }
+        }
+    }
+
+    // =====================================================================================
+    // INTEGER SORT ENGINES
+    // =====================================================================================
+    /**
+     * Non-comparison sorts that work on the full int range: an LSD radix sort over 8- or 11-bit digits and a counting
+     * sort offset by the minimum key. Buffers are allocated once per cell in prepare().
+     */
+    static final class IntegerSorts {
+
+        /**
+         * LSD radix sort. Keys are compared with the sign bit flipped so negatives order first. One read pass builds
+         * the histogram of every digit; a pass whose digit is the same for all keys is skipped, so small-range data
+         * costs one scatter per digit that actually varies.
+         */
+        static final class LsdRadixSort implements Kernel {
+            private final int bits, passes, mask; private final int[] buf; private final int[][] counts;
+            LsdRadixSort(int size, int bits) {
+                this.bits = bits; this.passes = (Integer.SIZE + bits - 1) / bits; this.mask = (1 << bits) - 1;
+                this.buf = new int[size]; this.counts = new int[passes][1 << bits];
+            }
+
+            @Override public long run(int[] data) { sort(data); return 0; }
+
+            void sort(int[] a) {
+                int n = a.length;
+                if (n < 2) return;
+                for (int[] c : counts) Arrays.fill(c, 0);
+                for (int v : a) { int key = v ^ Integer.MIN_VALUE; for (int p = 0; p < passes; p++) counts[p][(key >>> (p * bits)) & mask]++; }
+
+                int[] src = a, dst = buf;
+                for (int p = 0; p < passes; p++) {
+                    int[] c = counts[p]; int shift = p * bits;
+                    if (c[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == n) continue; // every key has the same digit here
+                    for (int d = 0, sum = 0; d <= mask; d++) { int t = c[d]; c[d] = sum; sum += t; }
+                    for (int i = 0; i < n; i++) { int v = src[i]; dst[c[((v ^ Integer.MIN_VALUE) >>> shift) & mask]++] = v; }
+                    int[] t = src; src = dst; dst = t;
+                }
+                if (src != a) System.arraycopy(src, 0, a, 0, n);
+            }
+        }
+
+        /**
+         * Counting sort over [min, max] rather than [0, max], so negative and large-but-clustered keys work. When the
+         * range exceeds max({@link #RANGE_FACTOR}·n, {@link #MIN_RANGE}) the count table would dwarf the input, and the
+         * 11-bit radix sort takes over. The floor keeps small inputs on the counting path, where a 256 KB table is still cheap.
+         */
+        static final class RangeCountingSort implements Kernel {
+            static final int RANGE_FACTOR = 4, MIN_RANGE = 1 << 16;
+            private final int[] counts; private final LsdRadixSort fallback;
+            RangeCountingSort(int size) {
+                this.counts = new int[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_RANGE, (long) RANGE_FACTOR * size))];
+                this.fallback = new LsdRadixSort(size, 11);
+            }
+
+            /** Returns 1 when the radix fallback was used. */
+            @Override public long run(int[] data) { return sort(data) ? 0 : 1; }
+
+            boolean sort(int[] a) {
+                int n = a.length;
+                if (n < 2) return true;
+                int min = a[0], max = a[0];
+                for (int v : a) { if (v < min) min = v; else if (v > max) max = v; }
+                if ((long) max - min + 1 > counts.length) { fallback.sort(a); return false; }
+
+                int range = max - min + 1;
+                for (int v : a) counts[v - min]++;
+                // Emitting keys straight from the counts needs no output buffer, and clears the table for the next run
+                for (int d = 0, k = 0; d < range; d++) { for (int c = counts[d]; c > 0; c--) a[k++] = d + min; counts[d] = 0; }
+                return true;
+            }
+        }
+
+        // --- Instrumented twins ---
+        // Same control flow as the engines above. Radix and counting sorts make no key comparisons, so their counts are
+        // element and histogram accesses; the tables the engines allocate once per cell count as auxiliary allocations.
+        static void countLsdRadixSort(int[] a, int bits, OperationCounts c) {
+            c.enter();
+            int n = a.length, passes = (Integer.SIZE + bits - 1) / bits, mask = (1 << bits) - 1;
+            if (n >= 2) {
+                int[] buf = c.allocate(n); int[][] counts = new int[passes][];
+                for (int p = 0; p < passes; p++) counts[p] = c.allocate(1 << bits);
+                for (int i = 0; i < n; i++) { int key = c.read(a, i) ^ Integer.MIN_VALUE; for (int p = 0; p < passes; p++) { int d = (key >>> (p * bits)) & mask; c.write(counts[p], d, c.read(counts[p], d) + 1); } }
+
+                int[] src = a, dst = buf;
+                for (int p = 0; p < passes; p++) {
+                    int[] cnt = counts[p]; int shift = p * bits;
+                    if (c.read(cnt, ((c.read(src, 0) ^ Integer.MIN_VALUE) >>> shift) & mask) == n) continue;
+                    for (int d = 0, sum = 0; d <= mask; d++) { int t = c.read(cnt, d); c.write(cnt, d, sum); sum += t; }
+                    for (int i = 0; i < n; i++) { int v = c.read(src, i), d = ((v ^ Integer.MIN_VALUE) >>> shift) & mask, pos = c.read(cnt, d); c.write(dst, pos, v); c.write(cnt, d, pos + 1); }
+                    int[] t = src; src = dst; dst = t;
+                }
+                if (src != a) c.arraycopy(src, 0, a, 0, n);
+            }
+            c.exit();
+        }
+
+        static void countRangeCountingSort(int[] a, OperationCounts c) {
+            c.enter();
+            int n = a.length;
+            if (n >= 2) {
+                int min = c.read(a, 0), max = min;
+                for (int i = 0; i < n; i++) { int v = c.read(a, i); if (c.less(v, min)) min = v; else if (c.less(max, v)) max = v; }
+                int table = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(RangeCountingSort.MIN_RANGE, (long) RangeCountingSort.RANGE_FACTOR * n));
+                if ((long) max - min + 1 > table) countLsdRadixSort(a, 11, c);
+                else {
+                    int range = max - min + 1; int[] counts = c.allocate(table);
+                    for (int i = 0; i < n; i++) { int d = c.read(a, i) - min; c.write(counts, d, c.read(counts, d) + 1); }
+                    for (int d = 0, k = 0; d < range; d++) { for (int m = c.read(counts, d); m > 0; m--) c.write(a, k++, d + min); c.write(counts, d, 0); }
+                }
+            }
+            c.exit();
+        }
+    }
+
+    // =====================================================================================
+    // SEARCH ENGINES: Batch Queries
+    // =====================================================================================
+    /**
+     * Lookup throughput rather than single-query latency. Each cell builds its structure once per distinct input (the
+     * corpus hands every run of a cell the same data, so once per cell), then each timed run answers {@link #QUERIES} random
+     * queries, half of them keys that are present. Every engine computes the lower bound of each query and returns the
+     * sum of the values it found (Integer.MAX_VALUE past the end), so all engines produce the same checksum on the same input.
+     */
+    static final class BatchSearch {
+        /** Queries per timed invocation; {@code -Dsearch.batch=N} overrides. */
+        static final int QUERIES = Math.max(1, Integer.getInteger("search.batch", 1 << 20));
+        /** Keys per B-tree node: sixteen ints fill one 64-byte cache line. */
+        static final int BLOCK = 16;
+
+        /** Owns the query batch, and rebuilds it and the search structure whenever setup sees a new input. */
+        abstract static class BatchKernel implements Kernel {
+            final int[] queries = new int[QUERIES]; private int[] source;
+            @Override public final void setup(int[] data) {
+                if (Arrays.equals(data, source)) return;
+                source = data.clone();
+                int[] sorted = data.clone(); Arrays.sort(sorted);
+                Random random = new Random(data.length);
+                int bound = sorted.length == 0 ? 1 : Math.max(1, sorted[sorted.length - 1] + 1);
+                for (int i = 0; i < queries.length; i++) queries[i] = (i & 1) == 0 && sorted.length > 0 ? sorted[random.nextInt(sorted.length)] : random.nextInt(bound);
+                build(sorted);
+            }
+            @Override public int queriesPerRun() { return queries.length; }
+            abstract void build(int[] sorted);
+        }
+
+        static List<BenchAlgorithm> algorithms() {
+            return Arrays.asList(
+                new SimpleAlgorithm("Batch Binary Search", new AlgoInfo("Searching", "O(log n)", "O(log n)", "O(log n)", "O(n)", "N/A", "No",
+                        "Baseline for the batch engines: a textbook lower-bound binary search over a sorted copy, answering a million random queries per run. The data-dependent branch mispredicts about half the time."),
+                        size -> new BatchKernel() {
+                            int[] a;
+                            @Override void build(int[] sorted) { a = sorted; }
+                            @Override public long run(int[] data) { long sum = 0; for (int q : queries) sum += valueAt(a, lowerBound(a, q)); return sum; }
+                        }),
+                new SimpleAlgorithm("Branchless Binary Search", new AlgoInfo("Searching", "O(log n)", "O(log n)", "O(log n)", "O(n)", "N/A", "No",
+                        "Halves a length instead of moving two bounds, so each step is a compare and a conditional move with no branch to mispredict. It always takes ⌈log₂ n⌉ steps."),
+                        size -> new BatchKernel() {
+                            int[] a;
+                            @Override void build(int[] sorted) { a = sorted; }
+                            @Override public long run(int[] data) { long sum = 0; for (int q : queries) sum += valueAt(a, branchlessLowerBound(a, q)); return sum; }
+                        }),
+                new SimpleAlgorithm("Eytzinger Search", new AlgoInfo("Searching", "O(log n)", "O(log n)", "O(log n)", "O(n)", "N/A", "No",
+                        "Stores the sorted keys in breadth-first (heap) order, so the first levels of every search share a few hot cache lines. Each step also loads the node four levels down, which overlaps the memory misses of the next steps."),
+                        size -> new BatchKernel() {
+                            Eytzinger tree;
+                            @Override void build(int[] sorted) { tree = new Eytzinger(sorted); }
+                            @Override public long run(int[] data) { long sum = 0; for (int q : queries) sum += tree.lowerBoundValue(q); return sum + tree.drainPrefetches(); }
+                        }),
+                new SimpleAlgorithm("Interpolation Search", new AlgoInfo("Searching", "O(1)", "O(log log n)", "O(log n)", "O(n)", "N/A", "No",
+                        "Guesses the position from the key's value between the range's end keys, which takes O(log log n) probes on uniform keys. After 2·log₂ n probes it falls back to bisection, which bounds the worst case on skewed keys."),
+                        size -> new BatchKernel() {
+                            int[] a;
+                            @Override void build(int[] sorted) { a = sorted; }
+                            @Override public long run(int[] data) { long sum = 0; for (int q : queries) sum += valueAt(a, interpolationLowerBound(a, q)); return sum; }
+                        }),
+                new SimpleAlgorithm("B-Tree Search (16-way)", new AlgoInfo("Searching", "O(log n)", "O(log n)", "O(log n)", "O(n)", "N/A", "No",
+                        "Static B-tree in one array, 16 keys to a cache-line node. A search visits log₁₇ n nodes and ranks the query inside each node with 16 branch-free compares, so it takes about a quarter of the cache misses of binary search."),
+                        size -> new BatchKernel() {
+                            BTree tree;
+                            @Override void build(int[] sorted) { tree = new BTree(sorted); }
+                            @Override public long run(int[] data) { long sum = 0; for (int q : queries) sum += tree.lowerBoundValue(q); return sum; }
+                        })
+            );
+        }
+
+        static int valueAt(int[] a, int i) { return i < a.length ? a[i] : Integer.MAX_VALUE; }
+
+        /** Index of the first element {@code >= x}, or a.length. */
+        static int lowerBound(int[] a, int x) {
+            int lo = 0, hi = a.length;
+            while (lo < hi) { int mid = (lo + hi) >>> 1; if (a[mid] < x) lo = mid + 1; else hi = mid; }
+            return lo;
+        }
+
+        static int branchlessLowerBound(int[] a, int x) {
+            int n = a.length, base = 0;
+            if (n == 0) return 0;
+            while (n > 1) { int half = n >>> 1; base = a[base + half] < x ? base + half : base; n -= half; }
+            return base + (a[base] < x ? 1 : 0);
+        }
+
+        static int interpolationLowerBound(int[] a, int x) {
+            int lo = 0, hi = a.length - 1;
+            if (hi < 0 || a[hi] < x) return a.length;
+            // Invariant: the answer is in [lo, hi] and a[hi] >= x
+            for (int probes = 2 * ComparisonSorts.log2(a.length) + 1; lo < hi; probes--) {
+                int vlo = a[lo];
+                if (vlo >= x) return lo;
+                int mid = probes > 0 ? lo + (int) (((long) x - vlo) * (hi - lo) / ((long) a[hi] - vlo)) : (lo + hi) >>> 1;
+                if (mid >= hi) mid = hi - 1;
+                if (a[mid] < x) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Keys in breadth-first order at indices 1..n: node k has children 2k and 2k+1. Near the leaves the look-ahead
+         * index 16k runs past the end and is clamped to the last slot, which stays cached.
+         */
+        static final class Eytzinger {
+            private final int[] b; private final int n, last; private int prefetched;
+
+            Eytzinger(int[] sorted) {
+                n = sorted.length; b = new int[n + 1]; last = n;
+                fill(sorted, 0, 1);
+            }
+
+            private int fill(int[] sorted, int i, int k) {
+                if (k <= n) { i = fill(sorted, i, 2 * k); b[k] = sorted[i++]; i = fill(sorted, i, 2 * k + 1); }
+                return i;
+            }
+
+            int lowerBoundValue(int x) {
+                int k = 1, touch = 0;
+                while (k <= n) {
+                    // Java has no prefetch intrinsic: an early load of the great-great-grandchild's line is the closest
+                    // equivalent. Its value feeds a checksum so the JIT cannot drop it.
+                    touch += b[Math.min(k << 4, last)];
+                    k = 2 * k + (b[k] < x ? 1 : 0);
+                }
+                prefetched += touch;
+                // Undo the trailing right turns (and the last left turn) to get back to the lower bound's node
+                k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+                return k == 0 ? Integer.MAX_VALUE : b[k];
+            }
+
+            /** Returns 0 built from the look-ahead loads, so adding it to a result keeps them alive without changing it. */
+            long drainPrefetches() { int t = prefetched; prefetched = 0; return t & 0L; }
+        }
+
+        /**
+         * Static B-tree (S-tree): BLOCK sorted keys per node, node k's children are k·(BLOCK + 1) + 1 + i, and keys go in
+         * by in-order traversal, so a node's i-th child holds the keys between its (i-1)-th and i-th keys. Missing keys
+         * are padded with Integer.MAX_VALUE.
+         */
+        static final class BTree {
+            private final int[] keys; private final int blocks; private int next;
+
+            BTree(int[] sorted) {
+                blocks = (sorted.length + BLOCK - 1) / BLOCK; keys = new int[Math.max(1, blocks) * BLOCK];
+                Arrays.fill(keys, Integer.MAX_VALUE); fill(sorted, 0);
+            }
+
+            private void fill(int[] sorted, int k) {
+                if (k >= blocks) return;
+                for (int i = 0; i < BLOCK; i++) { fill(sorted, child(k, i)); if (next < sorted.length) keys[k * BLOCK + i] = sorted[next++]; }
+                fill(sorted, child(k, BLOCK));
+            }
+
+            private static int child(int k, int i) { return k * (BLOCK + 1) + i + 1; }
+
+            int lowerBoundValue(int x) {
+                int k = 0, result = Integer.MAX_VALUE;
+                while (k < blocks) {
+                    int base = k * BLOCK, rank = 0;
+                    for (int i = 0; i < BLOCK; i++) rank += keys[base + i] < x ? 1 : 0;
+                    if (rank < BLOCK) result = keys[base + rank];
+                    k = child(k, rank);
+                }
+                return result;
+            }
+        }
+    }
+
+    // =====================================================================================
+    // DATA-PARALLEL KERNELS
+    // =====================================================================================
+    /**
+     * Scalar and SIMD versions of the scans, histograms and small sorts the other engines are built from. Each pair is
+     * registered separately so a sweep measures the speedup on this CPU. The SIMD versions are written as lane loops
+     * (long counted blocks, reductions without branches, one array per lane column) that HotSpot's superword pass
+     * compiles to AVX2/AVX-512/NEON instructions. They need neither {@code jdk.incubator.vector} nor
+     * {@code --add-modules}, and where the JIT does not vectorize they still run correctly as scalar code.
+     */
+    static final class VectorKernels {
+        /** Elements checked per block of the SIMD linear search before looking for the exact index; long enough to stay a vectorized loop. */
+        static final int SCAN_BLOCK = 1024;
+        /** Partition size for the block sorts, and the width of the sorting network. */
+        static final int PARTITION = 16;
+        /** Batcher odd-even merge network for PARTITION keys, as (low, high) index pairs: 63 compare-exchanges. */
+        static final int[] NETWORK = oddEvenMergeNetwork(PARTITION);
+        static final boolean INCUBATOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        /** Widest vector register the JIT will use in bytes, and whether it auto-vectorizes loops at all; 0/true if the VM does not say. */
+        static final int VECTOR_BYTES = (int) vmOption("MaxVectorSize", 0); static final boolean SUPERWORD = vmOption("UseSuperWord", 1) != 0;
+
+        private static long vmOption(String name, long missing) {
+            try {
+                String v = ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+                return v.equals("true") ? 1 : v.equals("false") ? 0 : Long.parseLong(v);
+            } catch (RuntimeException | LinkageError e) { return missing; }
+        }
+
+        /** One line for reports: what the SIMD variants compile to on this JVM. */
+        static String describe() {
+            String width = VECTOR_BYTES > 0 ? VECTOR_BYTES * 8 + "-bit (" + VECTOR_BYTES / 4 + " int lanes)" : "unknown width";
+            return "Vector units: " + width + ", superword " + (SUPERWORD ? "on" : "off (SIMD variants run scalar)") + ", jdk.incubator.vector " + (INCUBATOR ? "loaded" : "not loaded");
+        }
+
+        static List<BenchAlgorithm> algorithms() {
+            return Arrays.asList(
+                new SimpleAlgorithm("Linear Search (SIMD)", new AlgoInfo("Searching", "O(1)", "O(n)", "O(n)", "O(1)", "Yes", "Yes",
+                        "Linear Search that tests " + SCAN_BLOCK + " elements per step with a branch-free count of mismatches, which the JIT turns into vector compares. Only the block that contains the target is scanned element by element."),
+                        size -> new Model.SearchKernel(false, VectorKernels::indexOf)),
+                new SimpleAlgorithm("Min/Max Scan (scalar)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(1)", "N/A", "Yes",
+                        "The max scan at the start of Counting Sort and Radix Sort, extended to the minimum: one pass with a data-dependent branch for each bound."),
+                        size -> VectorKernels::minMaxScalar),
+                new SimpleAlgorithm("Min/Max Scan (SIMD)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(1)", "N/A", "Yes",
+                        "The same scan as two branch-free Math.min/Math.max reductions, which the JIT can run as vector min/max across all lanes and combine at the end. HotSpot vectorizes int min/max reductions from JDK 21; on older JVMs this pair measures branches against conditional moves."),
+                        size -> VectorKernels::minMax),
+                new SimpleAlgorithm("Byte Histogram (scalar)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(1)", "N/A", "Yes",
+                        "Counts the low byte of every key into 256 buckets, as one radix pass does. Runs of equal keys make each increment wait for the previous one."),
+                        size -> new HistogramKernel(false)),
+                new SimpleAlgorithm("Byte Histogram (4-way)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(1)", "N/A", "Yes",
+                        "Counts consecutive keys into four separate tables, the one-table-per-lane layout vector histograms use, and sums the tables at the end. Repeated digits no longer wait on each other. Neither the JIT nor the Vector API has a conflict-free scatter-add, so the increments themselves stay scalar."),
+                        size -> new HistogramKernel(true)),
+                new SimpleAlgorithm("Block Sort " + PARTITION + " (insertion)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(1)", "Yes", "Yes",
+                        "Sorts every " + PARTITION + "-element partition with insertion sort, the small-partition cutoff of Introsort, pdqsort and TimSort."),
+                        size -> data -> { blockInsertionSort(data); return 0; }),
+                new SimpleAlgorithm("Block Sort " + PARTITION + " (SIMD network)", new AlgoInfo("Data-Parallel", "O(n)", "O(n)", "O(n)", "O(n)", "No", "No",
+                        "Sorts every " + PARTITION + "-element partition with a " + NETWORK.length / 2 + "-comparator odd-even merge network. The partitions are transposed into one array per position, so each compare-exchange is a vector min/max over as many partitions as there are lanes."),
+                        NetworkSortKernel::new)
+            );
+        }
+
+        static int indexOf(int[] a, int target) {
+            int i = 0, n = a.length;
+            for (; i + SCAN_BLOCK <= n; i += SCAN_BLOCK) {
+                int misses = 0;
+                // (x | -x) >>> 31 is 0 only for x == 0: counts the block's mismatches without a branch per element
+                for (int j = i; j < i + SCAN_BLOCK; j++) { int x = a[j] ^ target; misses += (x | -x) >>> 31; }
+                if (misses != SCAN_BLOCK) break;
+            }
+            for (; i < n; i++) if (a[i] == target) return i;
+            return -1;
+        }
+
+        static long minMaxScalar(int[] a) {
+            if (a.length == 0) return 0;
+            int min = a[0], max = a[0];
+            for (int i = 1; i < a.length; i++) { if (a[i] < min) min = a[i]; if (a[i] > max) max = a[i]; }
+            return pack(min, max);
+        }
+
+        static long minMax(int[] a) {
+            if (a.length == 0) return 0;
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int x : a) { min = Math.min(min, x); max = Math.max(max, x); }
+            return pack(min, max);
+        }
+
+        private static long pack(int min, int max) { return (long) max << 32 | (min & 0xFFFFFFFFL); }
+
+        /** Low-byte histogram; returns the sum of digit × count so both variants can be checked against each other. */
+        static final class HistogramKernel implements Kernel {
+            private final boolean split; private final int[] counts = new int[256], lanes = new int[4 * 256];
+            HistogramKernel(boolean split) { this.split = split; }
+
+            @Override public long run(int[] a) {
+                Arrays.fill(counts, 0);
+                if (split) {
+                    Arrays.fill(lanes, 0);
+                    int i = 0;
+                    for (; i + 4 <= a.length; i += 4) { lanes[a[i] & 0xFF]++; lanes[256 + (a[i + 1] & 0xFF)]++; lanes[512 + (a[i + 2] & 0xFF)]++; lanes[768 + (a[i + 3] & 0xFF)]++; }
+                    for (; i < a.length; i++) lanes[a[i] & 0xFF]++;
+                    for (int d = 0; d < 256; d++) counts[d] = lanes[d] + lanes[256 + d] + lanes[512 + d] + lanes[768 + d];
+                } else {
+                    for (int x : a) counts[x & 0xFF]++;
+                }
+                long sum = 0; for (int d = 0; d < 256; d++) sum += (long) d * counts[d];
+                return sum;
+            }
+        }
+
+        static void blockInsertionSort(int[] a) {
+            for (int from = 0; from < a.length; from += PARTITION) ComparisonSorts.insertionSort(a, from, Math.min(a.length, from + PARTITION));
+        }
+
+        /** Column i holds element i of every full partition; the partial last partition is insertion-sorted in place. */
+        static final class NetworkSortKernel implements Kernel {
+            private final int[][] columns;
+            NetworkSortKernel(int size) { columns = new int[PARTITION][size / PARTITION]; }
+
+            @Override public long run(int[] a) {
+                int blocks = columns[0].length;
+                for (int b = 0, o = 0; b < blocks; b++, o += PARTITION) for (int i = 0; i < PARTITION; i++) columns[i][b] = a[o + i];
+                for (int c = 0; c < NETWORK.length; c += 2) {
+                    int[] lo = columns[NETWORK[c]], hi = columns[NETWORK[c + 1]];
+                    for (int b = 0; b < blocks; b++) { int x = lo[b], y = hi[b]; lo[b] = Math.min(x, y); hi[b] = Math.max(x, y); }
+                }
+                for (int b = 0, o = 0; b < blocks; b++, o += PARTITION) for (int i = 0; i < PARTITION; i++) a[o + i] = columns[i][b];
+                ComparisonSorts.insertionSort(a, blocks * PARTITION, a.length);
+                return 0;
+            }
+        }
+
+        /** Batcher's odd-even merge sort network for a power-of-two width, as consecutive (low, high) index pairs. */
+        static int[] oddEvenMergeNetwork(int n) {
+            List<Integer> pairs = new ArrayList<>();
+            for (int p = 1; p < n; p <<= 1)
+                for (int k = p; k >= 1; k >>= 1)
+                    for (int j = k % p; j <= n - 1 - k; j += 2 * k)
+                        for (int i = 0; i <= Math.min(k - 1, n - j - k - 1); i++)
+                            if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) { pairs.add(i + j); pairs.add(i + j + k); }
+            return pairs.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    // =====================================================================================
+    // TYPED KEY ENGINES: long, double and objects
+    // =====================================================================================
+    /**
+     * The same merge sort, radix sort and binary search over long[], double[], boxed Long[] and objects sorted by a key,
+     * next to the JDK's Arrays.sort for each type. Comparing the series at one size gives the cost of wider keys, of
+     * boxing, and of a comparator call per comparison. The primitive versions are written out per type and never box.
+     * Inputs are derived from the cell's int corpus in the untimed setup, with order preserved:
+     * <ul>
+     * <li>Each int becomes a 64-bit key with the int in the high half and a hash of it in the low half.</li>
+     * <li>doubles are x/4 − 1000. One key in 1024 is NaN and one in 1024 is −0.0, so a sort that gets the
+     * Double.compare total order wrong shows up.</li>
+     * </ul>
+     */
+    static final class TypedSorts {
+        /** What production sorts look like: objects ordered by one field. */
+        static final class Row {
+            final long id; final int payload;
+            Row(long id, int payload) { this.id = id; this.payload = payload; }
+            long id() { return id; }
+        }
+        static final Comparator<Row> BY_ID = Comparator.comparingLong(Row::id);
+
+        static long longKey(int x) { return (long) x << 32 | ((x * 0x9E3779B9) & 0xFFFFFFFFL); }
+        static double doubleKey(int x) { return (x & 1023) == 1023 ? Double.NaN : (x & 1023) == 511 ? -0.0 : x / 4.0 - 1000.0; }
+
+        static List<BenchAlgorithm> algorithms() {
+            return Arrays.asList(
+                sort("Merge Sort (long[])", "O(n)", "O(n log n)", "O(n)", true, "Top-down merge sort on 64-bit primitive keys with one scratch buffer per cell. The baseline for the other typed merge sorts, which run the same algorithm.", size -> new LongKernel(size) {
+                    @Override void sort(long[] a) { mergeSort(a, buf, 0, a.length); } }),
+                sort("Merge Sort (double[])", "O(n)", "O(n log n)", "O(n)", true, "The same merge sort on doubles, in Double.compare order: NaNs are moved to the end first, the rest is sorted with plain <, and then the zeros are rewritten as −0.0 before 0.0, which is how the JDK sorts doubles.", size -> new DoubleKernel(size) {
+                    @Override void sort(double[] a) { int n = moveNaNsToEnd(a); mergeSort(a, buf, 0, n); orderZeros(a, n); } }),
+                sort("Merge Sort (Long[] boxed)", "O(n)", "O(n log n)", "O(n)", true, "The same merge sort on boxed Longs through Comparator.naturalOrder(): each comparison is an interface call and two pointer loads, and the array holds references to objects scattered over the heap.", size -> new ObjectKernel<Long>(size, Long[]::new, x -> longKey(x)) {
+                    @Override void sort(Long[] a) { mergeSort(a, buf, 0, a.length, Comparator.naturalOrder()); } }),
+                sort("Merge Sort (records via comparator)", "O(n)", "O(n log n)", "O(n)", true, "The same merge sort on objects ordered by a long field through Comparator.comparingLong(Row::id), the usual way to sort records by key.", size -> new ObjectKernel<Row>(size, Row[]::new, x -> new Row(longKey(x), x)) {
+                    @Override void sort(Row[] a) { mergeSort(a, buf, 0, a.length, BY_ID); } }),
+                sort("Merge Sort (records via key extractor)", "O(n)", "O(n log n)", "O(n)", true, "Extracts each object's key once into a long[], merge sorts the keys with an index array alongside, then permutes the objects. This trades the comparator calls for two extra passes and the index arrays.", size -> new ObjectKernel<Row>(size, Row[]::new, x -> new Row(longKey(x), x)) {
+                    final long[] keys = new long[size], keyBuf = new long[size]; final int[] index = new int[size], indexBuf = new int[size];
+                    @Override void sort(Row[] a) {
+                        for (int i = 0; i < a.length; i++) { keys[i] = a[i].id; index[i] = i; }
+                        mergeSort(keys, keyBuf, index, indexBuf, 0, a.length);
+                        for (int i = 0; i < a.length; i++) buf[i] = a[index[i]];
+                        System.arraycopy(buf, 0, a, 0, a.length);
+                    } }),
+                sort("Radix Sort (long[])", "O(n)", "O(n)", "O(n)", true, "LSD radix sort over eight byte-wide digits of 64-bit keys, with the sign bit flipped so negatives sort first. Digits that are the same for every key are skipped.", size -> new LongKernel(size) {
+                    final int[][] counts = new int[Long.BYTES][256];
+                    @Override void sort(long[] a) { for (int i = 0; i < a.length; i++) a[i] ^= Long.MIN_VALUE; radixSortUnsigned(a, buf, counts); for (int i = 0; i < a.length; i++) a[i] ^= Long.MIN_VALUE; } }),
+                sort("Radix Sort (double[])", "O(n)", "O(n)", "O(n)", true, "Maps each double to a 64-bit key whose unsigned order is the Double.compare order: the sign bit is flipped, and for negatives the other bits are too. It then radix sorts the keys and maps them back, so NaN and −0.0 need no special cases.", size -> new DoubleKernel(size) {
+                    final long[] keys = new long[size], keyBuf = new long[size]; final int[][] counts = new int[Long.BYTES][256];
+                    @Override void sort(double[] a) {
+                        for (int i = 0; i < a.length; i++) { long b = Double.doubleToLongBits(a[i]); keys[i] = b ^ (b >> 63 | Long.MIN_VALUE); }
+                        radixSortUnsigned(keys, keyBuf, counts);
+                        for (int i = 0; i < a.length; i++) { long k = keys[i]; a[i] = Double.longBitsToDouble(k ^ (~k >> 63 | Long.MIN_VALUE)); }
+                    } }),
+                sort("Arrays.sort (long[])", "O(n)", "O(n log n)", "O(log n)", false, "JDK dual-pivot quicksort on long[].", size -> new LongKernel(size) { @Override void sort(long[] a) { Arrays.sort(a); } }),
+                sort("Arrays.sort (double[])", "O(n)", "O(n log n)", "O(log n)", false, "JDK dual-pivot quicksort on double[], with the same NaN and −0.0 handling as Merge Sort (double[]).", size -> new DoubleKernel(size) { @Override void sort(double[] a) { Arrays.sort(a); } }),
+                sort("Arrays.sort (Long[] boxed)", "O(n)", "O(n log n)", "O(n)", true, "JDK TimSort on boxed Longs in natural order.", size -> new ObjectKernel<Long>(size, Long[]::new, x -> longKey(x)) { @Override void sort(Long[] a) { Arrays.sort(a); } }),
+                sort("Arrays.sort (records via comparator)", "O(n)", "O(n log n)", "O(n)", true, "JDK TimSort on objects through Comparator.comparingLong(Row::id).", size -> new ObjectKernel<Row>(size, Row[]::new, x -> new Row(longKey(x), x)) { @Override void sort(Row[] a) { Arrays.sort(a, BY_ID); } }),
+                search("Binary Search (long[])", "Binary Search on a sorted long[].", size -> new LookupKernel<long[]>(new LongKernel(size) { @Override void sort(long[] a) { Arrays.sort(a); } }) {
+                    @Override long find(long[] a, int last) { return binarySearch(a, longKey(last)); } }),
+                search("Binary Search (double[])", "Binary Search on a sorted double[] in Double.compare order, so NaN and −0.0 are found where Arrays.sort put them.", size -> new LookupKernel<double[]>(new DoubleKernel(size) { @Override void sort(double[] a) { Arrays.sort(a); } }) {
+                    @Override long find(double[] a, int last) { return binarySearch(a, doubleKey(last)); } }),
+                search("Binary Search (records via comparator)", "Binary Search on objects sorted by key, comparing through Comparator.comparingLong(Row::id) against a probe object.", size -> new LookupKernel<Row[]>(new ObjectKernel<Row>(size, Row[]::new, x -> new Row(longKey(x), x)) { @Override void sort(Row[] a) { Arrays.sort(a, BY_ID); } }) {
+                    @Override long find(Row[] a, int last) { return binarySearch(a, new Row(longKey(last), last), BY_ID); } })
+            );
+        }
+
+        private static BenchAlgorithm sort(String name, String best, String time, String space, boolean stable, String description, IntFunction<Kernel> prepare) {
+            return new SimpleAlgorithm(name, new AlgoInfo("Sorting", best, time, time, space, stable ? "Yes" : "No", space.equals("O(n)") ? "No" : "Yes", description), prepare);
+        }
+
+        private static BenchAlgorithm search(String name, String description, IntFunction<Kernel> prepare) {
+            return new SimpleAlgorithm(name, new AlgoInfo("Searching", "O(1)", "O(log n)", "O(log n)", "O(1)", "N/A", "Yes", description + " The target is the last generated element, as for Binary Search."), prepare);
+        }
+
+        /** Owns a typed copy of the cell's input, rebuilt from the int corpus before every run outside the timed region. */
+        abstract static class TypedKernel<A> implements Kernel {
+            @Override public long run(int[] data) { sort(array()); return 0; }
+            abstract A array();
+            abstract void sort(A a);
+        }
+
+        abstract static class LongKernel extends TypedKernel<long[]> {
+            final long[] a, buf;
+            LongKernel(int size) { a = new long[size]; buf = new long[size]; }
+            @Override public void setup(int[] data) { for (int i = 0; i < data.length; i++) a[i] = longKey(data[i]); }
+            @Override long[] array() { return a; }
+        }
+
+        abstract static class DoubleKernel extends TypedKernel<double[]> {
+            final double[] a, buf;
+            DoubleKernel(int size) { a = new double[size]; buf = new double[size]; }
+            @Override public void setup(int[] data) { for (int i = 0; i < data.length; i++) a[i] = doubleKey(data[i]); }
+            @Override double[] array() { return a; }
+        }
+
+        /**
+         * Objects are created once per distinct input and copied back before each run, so the timed region and its GC
+         * counts cover only the sort. The corpus hands every run of a cell the same input, so that means once per cell.
+         */
+        abstract static class ObjectKernel<T> extends TypedKernel<T[]> {
+            final T[] a, buf; private final T[] template; private final IntFunction<T> box; private int[] source;
+            ObjectKernel(int size, IntFunction<T[]> array, IntFunction<T> box) { a = array.apply(size); buf = array.apply(size); template = array.apply(size); this.box = box; }
+            @Override public void setup(int[] data) {
+                if (!Arrays.equals(data, source)) { source = data.clone(); for (int i = 0; i < data.length; i++) template[i] = box.apply(data[i]); }
+                System.arraycopy(template, 0, a, 0, data.length);
+            }
+            @Override T[] array() { return a; }
+        }
+
+        /** Sorts the typed input in setup, then looks up the key made from the last generated element. */
+        abstract static class LookupKernel<A> implements Kernel {
+            private final TypedKernel<A> input; private int last;
+            LookupKernel(TypedKernel<A> input) { this.input = input; }
+            @Override public void setup(int[] data) { last = data.length > 0 ? data[data.length - 1] : 0; input.setup(data); input.sort(input.array()); }
+            @Override public long run(int[] data) { return find(input.array(), last); }
+            @Override public int queriesPerRun() { return 1; }
+            abstract long find(A a, int last);
+        }
+
+        // --- Merge sort, written out per element type so the primitive versions never box ---
+        static void mergeSort(long[] a, long[] buf, int lo, int hi) {
+            if (hi - lo < 2) return;
+            int mid = (lo + hi) >>> 1;
+            mergeSort(a, buf, lo, mid); mergeSort(a, buf, mid, hi);
+            if (a[mid - 1] <= a[mid]) return;
+            System.arraycopy(a, lo, buf, lo, mid - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) a[k++] = a[j] < buf[i] ? a[j++] : buf[i++];
+            while (i < mid) a[k++] = buf[i++];
+        }
+
+        static void mergeSort(double[] a, double[] buf, int lo, int hi) {
+            if (hi - lo < 2) return;
+            int mid = (lo + hi) >>> 1;
+            mergeSort(a, buf, lo, mid); mergeSort(a, buf, mid, hi);
+            if (a[mid - 1] <= a[mid]) return;
+            System.arraycopy(a, lo, buf, lo, mid - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) a[k++] = a[j] < buf[i] ? a[j++] : buf[i++];
+            while (i < mid) a[k++] = buf[i++];
+        }
+
+        static <T> void mergeSort(T[] a, T[] buf, int lo, int hi, Comparator<? super T> c) {
+            if (hi - lo < 2) return;
+            int mid = (lo + hi) >>> 1;
+            mergeSort(a, buf, lo, mid, c); mergeSort(a, buf, mid, hi, c);
+            if (c.compare(a[mid - 1], a[mid]) <= 0) return;
+            System.arraycopy(a, lo, buf, lo, mid - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) a[k++] = c.compare(a[j], buf[i]) < 0 ? a[j++] : buf[i++];
+            while (i < mid) a[k++] = buf[i++];
+        }
+
+        /** Merge sort of keys that carries each key's original position along in {@code index}. */
+        static void mergeSort(long[] a, long[] buf, int[] index, int[] indexBuf, int lo, int hi) {
+            if (hi - lo < 2) return;
+            int mid = (lo + hi) >>> 1;
+            mergeSort(a, buf, index, indexBuf, lo, mid); mergeSort(a, buf, index, indexBuf, mid, hi);
+            if (a[mid - 1] <= a[mid]) return;
+            System.arraycopy(a, lo, buf, lo, mid - lo); System.arraycopy(index, lo, indexBuf, lo, mid - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) { if (a[j] < buf[i]) { index[k] = index[j]; a[k++] = a[j++]; } else { index[k] = indexBuf[i]; a[k++] = buf[i++]; } }
+            while (i < mid) { index[k] = indexBuf[i]; a[k++] = buf[i++]; }
+        }
+
+        /** Moves NaNs behind everything else and returns how many keys are left to sort. */
+        static int moveNaNsToEnd(double[] a) {
+            int n = a.length;
+            for (int i = n - 1; i >= 0; i--) if (Double.isNaN(a[i])) { double t = a[i]; a[i] = a[--n]; a[n] = t; }
+            return n;
+        }
+
+        /** In a[0, n) sorted with {@code <}, −0.0 and 0.0 are interleaved; rewrites the run of zeros with the negative ones first. */
+        static void orderZeros(double[] a, int n) {
+            int lo = 0, hi = n;
+            while (lo < hi) { int mid = (lo + hi) >>> 1; if (a[mid] < 0.0) lo = mid + 1; else hi = mid; }
+            int negative = 0, end = lo;
+            for (; end < n && a[end] == 0.0; end++) if (Double.doubleToRawLongBits(a[end]) < 0) negative++;
+            for (int i = lo; i < end; i++) a[i] = i < lo + negative ? -0.0 : 0.0;
+        }
+
+        /** LSD radix sort of keys in unsigned order, eight byte-wide digits, skipping digits every key shares. */
+        static void radixSortUnsigned(long[] a, long[] buf, int[][] counts) {
+            int n = a.length;
+            if (n < 2) return;
+            for (int[] c : counts) Arrays.fill(c, 0);
+            for (long v : a) for (int p = 0; p < Long.BYTES; p++) counts[p][(int) (v >>> (p * 8)) & 0xFF]++;
+            long[] src = a, dst = buf;
+            for (int p = 0; p < Long.BYTES; p++) {
+                int[] c = counts[p]; int shift = p * 8;
+                if (c[(int) (src[0] >>> shift) & 0xFF] == n) continue; // every key has the same digit here
+                for (int d = 0, sum = 0; d < 256; d++) { int t = c[d]; c[d] = sum; sum += t; }
+                for (int i = 0; i < n; i++) { long v = src[i]; dst[c[(int) (v >>> shift) & 0xFF]++] = v; }
+                long[] t = src; src = dst; dst = t;
+            }
+            if (src != a) System.arraycopy(src, 0, a, 0, n);
+        }
+
+        static int binarySearch(long[] a, long key) {
+            int lo = 0, hi = a.length - 1;
+            while (lo <= hi) { int mid = (lo + hi) >>> 1; if (a[mid] < key) lo = mid + 1; else if (a[mid] > key) hi = mid - 1; else return mid; }
+            return -1;
+        }
+
+        static int binarySearch(double[] a, double key) {
+            int lo = 0, hi = a.length - 1;
+            while (lo <= hi) { int mid = (lo + hi) >>> 1, c = Double.compare(a[mid], key); if (c < 0) lo = mid + 1; else if (c > 0) hi = mid - 1; else return mid; }
+            return -1;
+        }
+
+        static <T> int binarySearch(T[] a, T key, Comparator<? super T> cmp) {
+            int lo = 0, hi = a.length - 1;
+            while (lo <= hi) { int mid = (lo + hi) >>> 1, c = cmp.compare(a[mid], key); if (c < 0) lo = mid + 1; else if (c > 0) hi = mid - 1; else return mid; }
+            return -1;
+        }
+    }
+
+    // =====================================================================================
+    // BIG-NUMBER ENGINES: Fibonacci
+    // =====================================================================================
+    /**
+     * Exact Fibonacci numbers on BigInteger, for n in the millions. F(n) has about 0.694·n bits, so the cost of an
+     * addition grows linearly with n and the cost of a multiplication M(n) grows faster. BigInteger multiplies
+     * schoolbook below 2,560 bits, by Karatsuba up to 7,680 bits and by Toom-Cook 3 above that (about n^1.46). The
+     * "O(log n)" algorithms therefore take O(M(n)) time, and their curves bend upwards near n ≈ 3,700 and n ≈ 11,000.
+     * Each kernel returns the bit length of F(n).
+     */
+    static final class BigFibonacci {
+        static List<BenchAlgorithm> algorithms() {
+            return Arrays.asList(
+                new SimpleAlgorithm("Fibonacci DP (BigInteger)", new AlgoInfo("Recursion", "O(n²)", "O(n²)", "O(n²)", "O(n)", "N/A", "N/A",
+                        "Bottom-up DP with exact arithmetic: n additions of numbers up to 0.694·n bits, so O(n²) bit operations even though it makes O(n) steps."),
+                        size -> data -> dp(size).bitLength(), null, 1 << 17),
+                new SimpleAlgorithm("Fibonacci Memoised (BigInteger)", new AlgoInfo("Recursion", "O(M(n))", "O(M(n))", "O(M(n))", "O(n)", "N/A", "N/A",
+                        "Top-down recursion on Dijkstra's halving identities F(2k) = (2F(k−1) + F(k))·F(k) and F(2k+1) = F(k)² + F(k+1)², memoised in a hash map. Only about 2·log₂ n distinct values are needed, so the recursion stays shallow."),
+                        size -> data -> memoised(size, new HashMap<>()).bitLength()),
+                new SimpleAlgorithm("Fibonacci Matrix Power (BigInteger)", new AlgoInfo("Recursion", "O(M(n))", "O(M(n))", "O(M(n))", "O(n)", "N/A", "N/A",
+                        "Raises [[1,1],[1,0]] to the nth power by repeated squaring. The powers are symmetric, so each matrix is kept as three numbers, and squaring one takes three squares and one product."),
+                        size -> data -> matrixPower(size).bitLength()),
+                new SimpleAlgorithm("Fibonacci Fast Doubling (BigInteger)", new AlgoInfo("Recursion", "O(M(n))", "O(M(n))", "O(M(n))", "O(n)", "N/A", "N/A",
+                        "Walks the bits of n from the top, taking (F(k), F(k+1)) to (F(2k), F(2k+1)) with one product and two squares per bit. The last step computes F(n) alone. Each step doubles the length of the numbers, so the last few steps account for most of the time."),
+                        size -> data -> fastDoubling(size).bitLength())
+            );
+        }
+
+        static BigInteger dp(int n) {
+            BigInteger a = BigInteger.ZERO, b = BigInteger.ONE;
+            for (int i = 0; i < n; i++) { BigInteger t = a.add(b); a = b; b = t; }
+            return a;
+        }
+
+        static BigInteger memoised(int n, Map<Integer, BigInteger> memo) {
+            if (n < 2) return BigInteger.valueOf(n);
+            BigInteger f = memo.get(n);
+            if (f != null) return f;
+            int k = n >>> 1;
+            if ((n & 1) == 0) { BigInteger fk = memoised(k, memo); f = memoised(k - 1, memo).shiftLeft(1).add(fk).multiply(fk); }
+            else { BigInteger fk = memoised(k, memo), fk1 = memoised(k + 1, memo); f = fk.multiply(fk).add(fk1.multiply(fk1)); }
+            memo.put(n, f);
+            return f;
+        }
+
+        /** Powers of Q = [[1,1],[1,0]] are [[F(m+1), F(m)], [F(m), F(m−1)]]: symmetric, and they commute with each other. */
+        static BigInteger matrixPower(int n) {
+            BigInteger ra = BigInteger.ONE, rb = BigInteger.ZERO, rc = BigInteger.ONE; // identity
+            BigInteger qa = BigInteger.ONE, qb = BigInteger.ONE, qc = BigInteger.ZERO; // Q
+            for (int m = n; m > 0; m >>>= 1) {
+                if ((m & 1) != 0) {
+                    BigInteger bb = rb.multiply(qb);
+                    BigInteger a = ra.multiply(qa).add(bb), b = ra.multiply(qb).add(rb.multiply(qc)), c = bb.add(rc.multiply(qc));
+                    ra = a; rb = b; rc = c;
+                }
+                if (m > 1) {
+                    BigInteger bb = qb.multiply(qb);
+                    BigInteger a = qa.multiply(qa).add(bb), b = qb.multiply(qa.add(qc)), c = bb.add(qc.multiply(qc));
+                    qa = a; qb = b; qc = c;
+                }
+            }
+            return rb;
+        }
+
+        static BigInteger fastDoubling(int n) {
+            BigInteger a = BigInteger.ZERO, b = BigInteger.ONE; // F(k), F(k+1) for k = the bits of n seen so far
+            for (int bit = Integer.highestOneBit(n); bit > 1; bit >>>= 1) {
+                BigInteger c = a.multiply(b.shiftLeft(1).subtract(a)), d = a.multiply(a).add(b.multiply(b));
+                if ((n & bit) != 0) { a = d; b = c.add(d); } else { a = c; b = d; }
+            }
+            // The last step, on the longest numbers, only needs F(n)
+            if (n == 0) return a;
+            return (n & 1) != 0 ? a.multiply(a).add(b.multiply(b)) : a.multiply(b.shiftLeft(1).subtract(a));
+        }
+    }
+
+    // =====================================================================================
+    // PARALLEL SORTING FAMILY
+    // =====================================================================================
+    /**
+     * Fork/join merge sort, parallel quicksort, parallel LSD radix sort and Arrays.parallelSort as a baseline.
+     * Each cell gets its own ForkJoinPool sized to the requested thread count, created in prepare() so pool start-up
+     * stays out of the timed region, and all scratch buffers are allocated once per cell.
+     */
+    static final class ParallelSorts {
+        /** Below this many elements a task sorts its range sequentially. */
+        static final int SEQUENTIAL_CUTOFF = 1 << 13;
+        static final int INSERTION_CUTOFF = 24;
+
+        interface ParallelKernelFactory { Kernel create(int size, int threads); }
+
+        static final class ParallelAlgorithm implements BenchAlgorithm {
+            private final String name; private final AlgoInfo info; private final ParallelKernelFactory factory;
+            ParallelAlgorithm(String name, AlgoInfo info, ParallelKernelFactory factory) { this.name = name; this.info = info; this.factory = factory; }
+            @Override public String name() { return name; }
+            @Override public AlgoInfo info() { return info; }
+            @Override public boolean isParallel() { return true; }
+            @Override public Kernel prepare(int size) { return prepare(size, Runtime.getRuntime().availableProcessors()); }
+            @Override public Kernel prepare(int size, int threads) { return factory.create(size, Math.max(1, threads)); }
+        }
+
+        /** Owns the cell's pool; subclasses run their sort inside it. */
+        abstract static class PoolKernel implements Kernel {
+            final ForkJoinPool pool; final int threads;
+            PoolKernel(int threads) { this.threads = threads; this.pool = new ForkJoinPool(threads); }
+            @Override public void close() { pool.shutdownNow(); }
+        }
+
+        static List<BenchAlgorithm> algorithms() {
+            return Arrays.asList(
+                new ParallelAlgorithm("Parallel Merge Sort", new AlgoInfo("Parallel Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(n)", "Yes", "No",
+                        "Fork/join merge sort: halves are sorted as independent tasks and merged through one scratch buffer allocated per cell. Span O(n) with a sequential merge."),
+                        (size, threads) -> new PoolKernel(threads) {
+                            final int[] buf = new int[size]; final int cutoff = Math.max(SEQUENTIAL_CUTOFF, size / (threads * 4));
+                            @Override public long run(int[] data) { pool.invoke(new MergeTask(data, buf, 0, data.length, cutoff)); return 0; }
+                        }),
+                new ParallelAlgorithm("Parallel Quick Sort", new AlgoInfo("Parallel Sorting", "O(n log n)", "O(n log n)", "O(n²)", "O(log n)", "No", "Yes",
+                        "Median-of-three Hoare partitioning; both sides of each partition are sorted as parallel tasks until ranges fall below the sequential cutoff, where introsort takes over."),
+                        (size, threads) -> new PoolKernel(threads) {
+                            final int cutoff = Math.max(SEQUENTIAL_CUTOFF, size / (threads * 4));
+                            @Override public long run(int[] data) { if (data.length > 1) pool.invoke(new QuickTask(data, 0, data.length - 1, cutoff)); return 0; }
+                        }),
+                new ParallelAlgorithm("Parallel Radix Sort", new AlgoInfo("Parallel Sorting", "O(n)", "O(d(n + k))", "O(d(n + k))", "O(n + k)", "Yes", "No",
+                        "LSD radix sort over 8-bit digits. Every thread builds a private histogram of its chunk, prefix sums give each thread its own output slots, and the scatter runs in parallel without contention."),
+                        (size, threads) -> new PoolKernel(threads) {
+                            final int[] buf = new int[size]; final int[][] histograms = new int[threads][256];
+                            @Override public long run(int[] data) { pool.invoke(ForkJoinTask.adapt(() -> radixSort(data, buf, histograms))); return 0; }
+                        }),
+                new ParallelAlgorithm("Arrays.parallelSort", new AlgoInfo("Parallel Sorting", "O(n log n)", "O(n log n)", "O(n log n)", "O(n)", "No", "No",
+                        "JDK baseline run inside the cell's pool. Its split granularity follows the common pool parallelism, so it sorts sequentially when that is 1."),
+                        (size, threads) -> new PoolKernel(threads) {
+                            @Override public long run(int[] data) { pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(data))); return 0; }
+                        })
+            );
+        }
+
+        // --- Fork/Join Merge Sort ---
+        static final class MergeTask extends RecursiveAction {
+            final int[] a, buf; final int lo, hi, cutoff;
+            MergeTask(int[] a, int[] buf, int lo, int hi, int cutoff) { this.a = a; this.buf = buf; this.lo = lo; this.hi = hi; this.cutoff = cutoff; }
+            @Override protected void compute() {
+                if (hi - lo <= cutoff) { mergeSort(a, buf, lo, hi); return; }
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new MergeTask(a, buf, lo, mid, cutoff), new MergeTask(a, buf, mid, hi, cutoff));
+                merge(a, buf, lo, mid, hi);
+            }
+        }
+
+        static void mergeSort(int[] a, int[] buf, int lo, int hi) {
+            if (hi - lo <= INSERTION_CUTOFF) { ComparisonSorts.insertionSort(a, lo, hi); return; }
+            int mid = (lo + hi) >>> 1;
+            mergeSort(a, buf, lo, mid); mergeSort(a, buf, mid, hi); merge(a, buf, lo, mid, hi);
+        }
+
+        /** Merges a[lo, mid) and a[mid, hi) by copying only the left run into the scratch buffer. */
+        static void merge(int[] a, int[] buf, int lo, int mid, int hi) {
+            if (a[mid - 1] <= a[mid]) return;
+            System.arraycopy(a, lo, buf, lo, mid - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) a[k++] = buf[i] <= a[j] ? buf[i++] : a[j++];
+            while (i < mid) a[k++] = buf[i++];
+        }
+
+        // --- Parallel Quick Sort (inclusive bounds) ---
+        static final class QuickTask extends RecursiveAction {
+            final int[] a; final int lo, hi, cutoff;
+            QuickTask(int[] a, int lo, int hi, int cutoff) { this.a = a; this.lo = lo; this.hi = hi; this.cutoff = cutoff; }
+            @Override protected void compute() {
+                if (hi - lo < cutoff) { ComparisonSorts.introSort(a, lo, hi + 1); return; }
+                int p = ComparisonSorts.partition(a, lo, hi);
+                invokeAll(new QuickTask(a, lo, p, cutoff), new QuickTask(a, p + 1, hi, cutoff));
+            }
+        }
+
+        // --- Parallel LSD Radix Sort ---
+        /** Runs inside the cell's pool. One histogram per chunk, so the counting and scatter phases never share counters. */
+        static void radixSort(int[] a, int[] buf, int[][] histograms) {
+            int n = a.length, chunks = histograms.length, chunk = (n + chunks - 1) / chunks;
+            if (n < 2) return;
+            int[] src = a, dst = buf;
+            for (int shift = 0; shift < 32; shift += 8) {
+                final int sh = shift; final int[] from = src, to = dst;
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < chunks; t++) {
+                    final int[] hist = histograms[t]; final int lo = Math.min(n, t * chunk), hi = Math.min(n, lo + chunk);
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        Arrays.fill(hist, 0);
+                        // Flipping the sign bit makes negative keys order before positive ones
+                        for (int i = lo; i < hi; i++) hist[((from[i] ^ Integer.MIN_VALUE) >>> sh) & 0xFF]++;
+                    }));
+                }
+                ForkJoinTask.invokeAll(tasks);
+
+                // Exclusive prefix sums, digit-major then chunk-major, turn counts into each chunk's write cursor
+                int sum = 0; boolean constant = false;
+                for (int d = 0; d < 256; d++) {
+                    int digitTotal = 0;
+                    for (int t = 0; t < chunks; t++) { int c = histograms[t][d]; histograms[t][d] = sum; sum += c; digitTotal += c; }
+                    if (digitTotal == n) constant = true;
+                }
+                if (constant) continue; // every key has the same digit here: the pass would be an identity copy
+
+                tasks.clear();
+                for (int t = 0; t < chunks; t++) {
+                    final int[] cursor = histograms[t]; final int lo = Math.min(n, t * chunk), hi = Math.min(n, lo + chunk);
+                    tasks.add(ForkJoinTask.adapt(() -> { for (int i = lo; i < hi; i++) { int v = from[i]; to[cursor[((v ^ Integer.MIN_VALUE) >>> sh) & 0xFF]++] = v; } }));
+                }
+                ForkJoinTask.invokeAll(tasks);
+                src = to; dst = from;
+            }
+            if (src != a) System.arraycopy(src, 0, a, 0, n);
+        }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Adaptive Sampling
+    // =====================================================================================
+    /**
+     * How many timed runs a cell gets. Adaptive policies keep sampling until the 95% confidence interval of the median
+     * is within {@code targetRelError} of the median, the cell's time budget is spent, or {@code maxRuns} is reached.
+     * A fixed policy always takes exactly {@code minRuns} samples.
+     */
+    static final class SamplingPolicy {
+        static final int MIN_RUNS = 10, MAX_RUNS = 100_000;
+        /** Samples taken even when a single run overshoots the budget, so every cell still gets a median and spread. */
+        static final int BUDGET_FLOOR = 3;
+        final int minRuns, maxRuns; final double targetRelError; final long budgetNanos;
+        final WarmupPolicy warmup;
+
+        private SamplingPolicy(int minRuns, int maxRuns, double targetRelError, long budgetNanos, WarmupPolicy warmup) {
+            this.minRuns = minRuns; this.maxRuns = maxRuns; this.targetRelError = targetRelError; this.budgetNanos = budgetNanos; this.warmup = warmup;
+        }
+        static SamplingPolicy fixed(int runs) { return new SamplingPolicy(runs, runs, 0, Long.MAX_VALUE, WarmupPolicy.DEFAULT); }
+        static SamplingPolicy adaptive(double targetRelError, long budgetMillis) { return adaptive(targetRelError, budgetMillis, MAX_RUNS); }
+        static SamplingPolicy adaptive(double targetRelError, long budgetMillis, int maxRuns) {
+            if (targetRelError <= 0 || budgetMillis <= 0 || maxRuns < MIN_RUNS) throw new IllegalArgumentException("Invalid sampling policy");
+            return new SamplingPolicy(MIN_RUNS, maxRuns, targetRelError, budgetMillis * 1_000_000L, WarmupPolicy.DEFAULT);
+        }
+        SamplingPolicy withWarmup(WarmupPolicy w) { return new SamplingPolicy(minRuns, maxRuns, targetRelError, budgetNanos, w); }
+
+        boolean isFixed() { return targetRelError == 0; }
+        String describe() { return (isFixed() ? minRuns + " runs" : String.format(Locale.ROOT, "median CI +/-%.1f%%, %d ms budget", targetRelError * 100, budgetNanos / 1_000_000)) + ", " + warmup.describe(); }
+    }
+
+    /**
+     * Warmup at the cell's real size until it reaches steady state: the median of the latest window of iterations is
+     * within {@link #TOLERANCE} of the window before it, and the JIT compiled nothing in between. Windows grow with the
+     * iteration count (a quarter of it, at least {@link #MIN_WINDOW}) so sub-microsecond kernels still get a stable median.
+     * Nothing counts as steady before a tenth of the budget has passed: a kernel still in the interpreter times just as
+     * consistently, and its compilation is only reported once it finishes. The budget caps cells that never settle.
+     * Compilation time is JVM-wide, so with several workers another cell's compilation also holds a cell back; isolating
+     * heavy cells or one worker gives the cleanest steady-state detection.
+     */
+    static final class WarmupPolicy {
+        static final int MIN_WINDOW = 5, MAX_ITERATIONS = 100_000;
+        static final double TOLERANCE = 0.05;
+        static final WarmupPolicy DEFAULT = new WarmupPolicy(1000);
+        private static final java.lang.management.CompilationMXBean JIT = ManagementFactory.getCompilationMXBean();
+        final long budgetNanos;
+
+        WarmupPolicy(long budgetMillis) {
+            if (budgetMillis < 0) throw new IllegalArgumentException("Invalid warmup budget");
+            budgetNanos = budgetMillis * 1_000_000L;
+        }
+
+        /** Total JIT compilation time so far, or -1 when the JVM does not report it (steady state then rests on timings alone). */
+        static long compilationMillis() { return JIT != null && JIT.isCompilationTimeMonitoringSupported() ? JIT.getTotalCompilationTime() : -1; }
+
+        /** Whether the last {@code window} of {@code n} warmup times has the same median as the window before it. */
+        static boolean isStable(long[] times, int n, int window) {
+            if (n < 2 * window) return false;
+            long[] a = Arrays.copyOfRange(times, n - window, n), b = Arrays.copyOfRange(times, n - 2 * window, n - window);
+            Arrays.sort(a); Arrays.sort(b);
+            long ma = a[window / 2], mb = b[window / 2];
+            return mb > 0 && Math.abs(ma - mb) <= TOLERANCE * mb;
+        }
+
+        String describe() { return budgetNanos == 0 ? "no warmup" : "steady-state warmup up to " + budgetNanos / 1_000_000 + " ms"; }
+    }
+
+    /**
+     * Summary of one cell's timings after MAD outlier rejection: samples whose modified z-score
+     * 0.6745·|x − median| / MAD exceeds {@link #MAD_CUTOFF} are dropped. The median's confidence interval uses the
+     * distribution-free order-statistic ranks n/2 ± z·√n/2, so it needs no normality assumption. Cells with fewer
+     * than {@link #MIN_FOR_REJECTION} samples keep all of them: a MAD over a handful of runs says little. If more than
+     * {@link #MAX_REJECTED_FRACTION} of the samples would go, the distribution is multimodal rather than contaminated,
+     * and nothing is rejected.
+     */
+    static final class SampleStats {
+        static final double Z_95 = 1.959964, MAD_CUTOFF = 3.5;
+        static final int MIN_FOR_REJECTION = 10;
+        static final double MAX_REJECTED_FRACTION = 0.2;
+        final int kept, outliers; final long median, mean, min, max, ciLow, ciHigh; final double cv;
+        private final long[] sorted; private final int lo, hi;
+
+        private SampleStats(long[] s, int lo, int hi, int outliers) {
+            kept = hi - lo; this.outliers = outliers; sorted = s; this.lo = lo; this.hi = hi;
+            median = s[lo + kept / 2]; min = s[lo]; max = s[hi - 1];
+            double sum = 0; for (int i = lo; i < hi; i++) sum += s[i];
+            double m = sum / kept, var = 0; for (int i = lo; i < hi; i++) var += (s[i] - m) * (s[i] - m);
+            mean = Math.round(m); cv = kept > 1 && m > 0 ? Math.sqrt(var / (kept - 1)) / m : 0;
+            double half = Z_95 * Math.sqrt(kept) / 2;
+            ciLow = s[lo + Math.max(0, (int) Math.floor(kept / 2.0 - half) - 1)];
+            ciHigh = s[lo + Math.min(kept - 1, (int) Math.ceil(1 + kept / 2.0 + half) - 1)];
+        }
+
+        static SampleStats of(long[] samples, int n) {
+            long[] s = Arrays.copyOf(samples, n); Arrays.sort(s);
+            long median = s[n / 2];
+            long[] dev = new long[n]; for (int i = 0; i < n; i++) dev[i] = Math.abs(s[i] - median);
+            Arrays.sort(dev);
+            int lo = 0, hi = n;
+            if (n >= MIN_FOR_REJECTION && dev[n / 2] > 0) {
+                // s is sorted, so the rejected samples are a prefix and a suffix
+                double limit = MAD_CUTOFF * dev[n / 2] / 0.6745;
+                while (lo < hi && median - s[lo] > limit) lo++;
+                while (hi > lo && s[hi - 1] - median > limit) hi--;
+                if (n - (hi - lo) > MAX_REJECTED_FRACTION * n) { lo = 0; hi = n; }
+            }
+            return new SampleStats(s, lo, hi, n - (hi - lo));
+        }
+
+        /** Half-width of the median's confidence interval relative to the median. */
+        double relativeError() { return median > 0 ? (ciHigh - ciLow) / 2.0 / median : 0; }
+
+        /** Histogram of the kept samples, so its percentiles never fall outside [min, max]. */
+        LatencyHistogram histogram() { LatencyHistogram h = new LatencyHistogram(); for (int i = lo; i < hi; i++) h.record(sorted[i]); return h; }
+    }
+
+    /**
+     * Log-linear latency histogram in the HdrHistogram style. Values below 2^SUB_BITS are counted exactly, and each
+     * larger power-of-two range is split into 2^SUB_BITS equal buckets, so a bucket is never wider than 1/32 (about 3%)
+     * of the values it holds. Counts grow only up to the highest bucket used, which caps a cell at under 16 KB
+     * however many samples it records.
+     */
+    static final class LatencyHistogram {
+        static final int SUB_BITS = 5, SUB = 1 << SUB_BITS, MAX_BUCKETS = index(Long.MAX_VALUE) + 1;
+        private long[] counts = new long[2 * SUB]; private int used; private long total, min = Long.MAX_VALUE, max;
+
+        static int index(long v) {
+            if (v < SUB) return (int) Math.max(0, v);
+            int e = 63 - Long.numberOfLeadingZeros(v);
+            return (e - SUB_BITS + 1) * SUB + (int) ((v >>> (e - SUB_BITS)) - SUB);
+        }
+        /** Smallest value that lands in bucket {@code i}. */
+        static long lowerBound(int i) { return i < 2 * SUB ? i : (long) (i % SUB + SUB) << (i / SUB - 1); }
+        /** Number of distinct values bucket {@code i} covers. */
+        static long width(int i) { return i < 2 * SUB ? 1 : 1L << (i / SUB - 1); }
+
+        void record(long v) {
+            int i = index(v);
+            if (i >= counts.length) counts = Arrays.copyOf(counts, Math.min(MAX_BUCKETS, Math.max(i + 1, counts.length * 2)));
+            counts[i]++; used = Math.max(used, i + 1); total++;
+            min = Math.min(min, Math.max(0, v)); max = Math.max(max, v);
+        }
+
+        /** Rebuilds a histogram from its non-empty buckets, as written by the history store. */
+        static LatencyHistogram restore(long min, long max, int[] buckets, long[] counts) {
+            LatencyHistogram h = new LatencyHistogram();
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] >= h.counts.length) h.counts = Arrays.copyOf(h.counts, Math.min(MAX_BUCKETS, Math.max(buckets[i] + 1, h.counts.length * 2)));
+                h.counts[buckets[i]] += counts[i]; h.total += counts[i]; h.used = Math.max(h.used, buckets[i] + 1);
+            }
+            h.min = min; h.max = max;
+            return h;
+        }
+
+        long total() { return total; }
+        long min() { return total == 0 ? 0 : min; }
+        long max() { return max; }
+        /** Buckets up to and including the highest non-empty one. */
+        int buckets() { return used; }
+        long count(int i) { return i < used ? counts[i] : 0; }
+
+        /** Value at percentile {@code p} (0-100): the midpoint of the bucket holding that rank, clamped to the recorded range. */
+        long percentile(double p) {
+            if (total == 0) return 0;
+            if (p >= 100) return max;
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * total)), seen = 0;
+            for (int i = 0; i < used; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.max(min(), Math.min(max, lowerBound(i) + (width(i) - 1) / 2));
+            }
+            return max;
+        }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Input Distributions
+    // =====================================================================================
+    /**
+     * Generators behind {@link Model#generateInputData}. Random values come from a SplittableRandom that is split into
+     * one stream per {@link #CHUNK} elements in a fixed order, so the output depends only on the seed. Inputs of
+     * {@link #PARALLEL_THRESHOLD} elements or more fill their chunks on the common fork/join pool.
+     */
+    static final class InputDistributions {
+        static final int CHUNK = 1 << 16, PARALLEL_THRESHOLD = 1 << 20;
+        /** Zipf exponent: s = 1 is the classic word-frequency skew. {@code -Dinput.zipf.exponent=S} overrides. */
+        static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("input.zipf.exponent", "1.0"));
+        /** Distinct values in a Few Unique input. */
+        static final int FEW_UNIQUE = 16;
+        /** Algorithm the Quicksort Killer is built against, and the largest size it is built for (the adversary's cost is the victim's worst case). */
+        static final String KILLER_TARGET = System.getProperty("input.killer.target", "Quick Sort");
+        static final int KILLER_MAX = Integer.getInteger("input.killer.max", 1 << 15);
+
+        /** Rejects a sweep up to {@code maxSize} that {@code order} cannot generate for, before any cell runs. */
+        static void checkMaxSize(String order, int maxSize) {
+            if (order.equals("Quicksort Killer") && maxSize > KILLER_MAX) throw new IllegalArgumentException("Quicksort Killer inputs are limited to " + KILLER_MAX + " elements (-Dinput.killer.max)");
+        }
+
+        /** Fills {@code data} with {@code next(stream)}, one stream per chunk. */
+        static void fill(int[] data, SplittableRandom random, java.util.function.ToIntFunction<SplittableRandom> next) {
+            int chunks = (data.length + CHUNK - 1) / CHUNK;
+            SplittableRandom[] streams = new SplittableRandom[chunks];
+            for (int c = 0; c < chunks; c++) streams[c] = random.split();
+            java.util.stream.IntStream range = java.util.stream.IntStream.range(0, chunks);
+            (data.length >= PARALLEL_THRESHOLD ? range.parallel() : range).forEach(c -> {
+                SplittableRandom r = streams[c];
+                for (int i = c * CHUNK, end = Math.min(data.length, i + CHUNK); i < end; i++) data[i] = next.applyAsInt(r);
+            });
+        }
+
+        static void sort(int[] data) { if (data.length >= PARALLEL_THRESHOLD) Arrays.parallelSort(data); else Arrays.sort(data); }
+
+        static void setAll(int[] data, java.util.function.IntUnaryOperator f) { if (data.length >= PARALLEL_THRESHOLD) Arrays.parallelSetAll(data, f); else Arrays.setAll(data, f); }
+
+        /** Sorts consecutive blocks of {@code run} elements independently. */
+        static void sortRuns(int[] data, int run) {
+            java.util.stream.IntStream blocks = java.util.stream.IntStream.range(0, (data.length + run - 1) / run);
+            (data.length >= PARALLEL_THRESHOLD ? blocks.parallel() : blocks).forEach(b -> Arrays.sort(data, b * run, Math.min(data.length, (b + 1) * run)));
+        }
+
+        /**
+         * Zipf-distributed ranks in [1, n] by rejection-inversion (Hörmann and Derflinger, 1996): O(1) expected time per
+         * sample and no table, so n can be as large as the input.
+         */
+        static final class ZipfSampler {
+            private final double exponent, hIntegralX1, hIntegralN, s; private final int n;
+
+            ZipfSampler(int n, double exponent) {
+                this.n = n; this.exponent = exponent;
+                hIntegralX1 = hIntegral(1.5) - 1; hIntegralN = hIntegral(n + 0.5); s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+            }
+
+            int sample(SplittableRandom random) {
+                while (true) {
+                    double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN), x = hIntegralInverse(u);
+                    int k = (int) Math.max(1, Math.min(n, (long) (x + 0.5)));
+                    if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) return k;
+                }
+            }
+
+            private double h(double x) { return Math.exp(-exponent * Math.log(x)); }
+            private double hIntegral(double x) { double logX = Math.log(x); return helper2((1 - exponent) * logX) * logX; }
+            private double hIntegralInverse(double x) { double t = Math.max(-1, x * (1 - exponent)); return Math.exp(helper1(t) * x); }
+            /** log(1 + x) / x, and (e^x − 1) / x, stable near 0 where exponent ≈ 1. */
+            private static double helper1(double x) { return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x)); }
+            private static double helper2(double x) { return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x)); }
+        }
+
+        /**
+         * McIlroy's adversary ("A Killer Adversary for Quicksort", 1999), run against the instrumented variant of
+         * {@link #KILLER_TARGET}. The target sorts element ids whose values are not fixed yet ("gas"). Whenever two gas
+         * elements are compared, the adversary freezes one of them to the next smallest value: the one it guesses is the
+         * pivot. The values the elements end up with are an input on which that pivot rule does the most work. It is
+         * deterministic, so the seed plays no part.
+         */
+        static final class QuicksortKiller extends OperationCounts {
+            private final int[] value; private final int gas; private int solid, candidate;
+
+            private QuicksortKiller(int n) { value = new int[n]; gas = n - 1; Arrays.fill(value, gas); }
+
+            private int compare(int x, int y) {
+                if (value[x] == gas && value[y] == gas) value[x == candidate ? x : y] = solid++;
+                if (value[x] == gas) candidate = x; else if (value[y] == gas) candidate = y;
+                return Integer.compare(value[x], value[y]);
+            }
+            @Override boolean less(int x, int y) { comparisons++; return compare(x, y) < 0; }
+            @Override boolean equal(int x, int y) { comparisons++; return compare(x, y) == 0; }
+
+            static int[] generate(int size) {
+                BenchAlgorithm target = AlgorithmRegistry.find(KILLER_TARGET);
+                if (target == null || !target.canCount()) throw new IllegalArgumentException("Quicksort Killer target '" + KILLER_TARGET + "' has no instrumented variant");
+                checkMaxSize("Quicksort Killer", size);
+                QuicksortKiller adversary = new QuicksortKiller(size);
+                int[] ids = new int[size]; Arrays.setAll(ids, i -> i);
+                // The adversary drives the victim down its worst case, recursion included, so it gets a deep stack.
+                // A failure there (e.g. StackOverflowError) would leave the values half assigned, so it is rethrown here.
+                Throwable[] failure = {null};
+                Thread thread = new Thread(null, () -> { try { target.countOperations(ids, adversary); } catch (Throwable t) { failure[0] = t; } }, "quicksort-killer", 1L << 30);
+                thread.start();
+                try { thread.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); throw new IllegalStateException("Interrupted while generating a Quicksort Killer input", e); }
+                if (failure[0] != null) throw new IllegalStateException("Could not generate a Quicksort Killer input of " + size + " elements against '" + KILLER_TARGET + "'", failure[0]);
+                return adversary.value;
+            }
+        }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Seeded Input Corpus
+    // =====================================================================================
+    /**
+     * Inputs for a sweep, generated once per (size, order) from the sweep seed and shared by every algorithm and run.
+     * Runs get a bulk copy of the cached array, so generation (and the Arrays.sort behind the ordered inputs) stays out
+     * of the measurement loop and a run can be replayed exactly from its seed. Entries can live on the heap, in direct
+     * (off-heap) buffers, or in a memory-mapped temp file for sweeps whose inputs don't fit comfortably in the heap.
+     */
+    static final class InputCorpus implements AutoCloseable {
+        enum Storage {
+            HEAP("Heap"), OFF_HEAP("Off-heap"), MAPPED("Mapped File");
+            final String label;
+            Storage(String label) { this.label = label; }
+            @Override public String toString() { return label; }
+        }
+
+        private final Model model; private final long seed; private final Storage storage;
+        private final ConcurrentHashMap<String, Object> entries = new ConcurrentHashMap<>();
+        private FileChannel mappedFile; private File mappedPath; private long mappedEnd;
+
+        public InputCorpus(Model model, long seed, Storage storage) { this.model = model; this.seed = seed; this.storage = storage; }
+        public long getSeed() { return seed; }
+        public Storage getStorage() { return storage; }
+
+        /** Fills {@code dst} (length == size) with the cached input for (size, order), generating it on first use. */
+        public void copyInto(int size, String order, int[] dst) throws IOException {
+            Object entry;
+            try { entry = entries.computeIfAbsent(key(size, order), k -> create(size, order)); }
+            catch (UncheckedIOException e) { throw e.getCause(); }
+            if (entry instanceof int[]) System.arraycopy((int[]) entry, 0, dst, 0, size);
+            else ((IntBuffer) entry).get(0, dst, 0, size);
+        }
+
+        private static String key(int size, String order) { return size + "|" + order; }
+
+        private Object create(int size, String order) {
+            // Each (size, order) gets its own stream derived from the sweep seed, independent of generation order
+            int[] data = model.generateInputData(size, order, seed ^ (size * 0x9E3779B97F4A7C15L) ^ ((long) order.hashCode() << 32));
+            Object entry;
+            switch (storage) {
+                case OFF_HEAP:
+                    entry = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer().put(0, data); break;
+                case MAPPED:
+                    try { entry = mapRegion((long) size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer().put(0, data); }
+                    catch (IOException e) { throw new UncheckedIOException(e); }
+                    break;
+                default: entry = data;
+            }
+            return entry;
+        }
+
+        private synchronized MappedByteBuffer mapRegion(long bytes) throws IOException {
+            if (mappedFile == null) {
+                mappedPath = File.createTempFile("algobench-corpus-", ".bin"); mappedPath.deleteOnExit();
+                mappedFile = FileChannel.open(mappedPath.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            MappedByteBuffer region = mappedFile.map(FileChannel.MapMode.READ_WRITE, mappedEnd, bytes);
+            mappedEnd += bytes;
+            return region;
+        }
+
+        @Override public synchronized void close() throws IOException {
+            entries.clear();
+            if (mappedFile != null) { mappedFile.close(); mappedFile = null; if (!mappedPath.delete()) mappedPath.deleteOnExit(); }
+        }
     }
 
-    public static String formatMemory(long bytes) {
-        if (bytes < 1024) return bytes + " B";
-        if (bytes < 1048576) return String.format("%.2f KB", bytes / 1024.0);
-        return String.format("%.2f MB", bytes / 1048576.0);
-    }
+    // =====================================================================================
+    // BENCHMARK ENGINE: Memory & GC Probes
+    // =====================================================================================
+    /**
+     * Allocation is read from the per-thread allocation counter, so it covers exactly the timed region of the
+     * measuring thread even when other workers run in parallel. GC counters are JVM-wide: a cell's GC count and
+     * pause time are only its own when it ran alone (one worker, or an isolated heavy cell).
+     */
+    static final class MemoryProbe {
+        private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+        private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+        // Bytes the counter reports for two back-to-back reads; subtracted from every measurement
+        private static final long READ_OVERHEAD = calibrate();
+
+        private static com.sun.management.ThreadMXBean threadBean() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+            if (!b.isThreadAllocatedMemorySupported()) return null;
+            if (!b.isThreadAllocatedMemoryEnabled()) b.setThreadAllocatedMemoryEnabled(true);
+            return b;
+        }
+
+        private static long calibrate() {
+            if (THREADS == null) return 0;
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < 100; i++) { long a = THREADS.getCurrentThreadAllocatedBytes(); min = Math.min(min, THREADS.getCurrentThreadAllocatedBytes() - a); }
+            return min;
+        }
+
+        static boolean isSupported() { return THREADS != null; }
+        static long threadAllocatedBytes() { return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes(); }
+        static long allocatedSince(long start) { return THREADS == null ? 0 : Math.max(0, THREADS.getCurrentThreadAllocatedBytes() - start - READ_OVERHEAD); }
+
+        static long gcCount() { long c = 0; for (GarbageCollectorMXBean gc : COLLECTORS) c += Math.max(0, gc.getCollectionCount()); return c; }
+        static long gcTimeMs() { long t = 0; for (GarbageCollectorMXBean gc : COLLECTORS) t += Math.max(0, gc.getCollectionTime()); return t; }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Runtime Telemetry
+    // =====================================================================================
+    /**
+     * Background sampler of the platform MXBeans: process and system CPU load, heap, GC, JIT compilation time and live
+     * threads. Snapshots go into a ring buffer so a finished cell can be annotated with what the machine was doing over its
+     * timed region. The sampler is the only reader of the CPU-load counters, which report the load since their previous read.
+     */
+    static final class TelemetrySampler implements AutoCloseable {
+        static final long DEFAULT_PERIOD_MS = Long.getLong("telemetry.period.ms", 200);
+        /** Load from other processes above which a cell is flagged: it competed with them for cores. */
+        static final double BACKGROUND_CPU_LIMIT = 0.25;
+        /** Heap occupancy above which GC pressure from the rest of the JVM distorts the cell. */
+        static final double HEAP_LIMIT = 0.90;
+        /** JIT compilation time, as a share of the timed region, above which the cell was partly measured before steady state. */
+        static final double JIT_LIMIT = 0.05;
+        private static final int CAPACITY = 4096;
+
+        static final class Snapshot {
+            final long nanos; final double processCpu, systemCpu; final long heapUsed, heapMax, gcCount, gcTimeMs, jitMs; final int threads;
+            Snapshot(long nanos, double processCpu, double systemCpu, long heapUsed, long heapMax, long gcCount, long gcTimeMs, long jitMs, int threads) {
+                this.nanos = nanos; this.processCpu = processCpu; this.systemCpu = systemCpu; this.heapUsed = heapUsed; this.heapMax = heapMax;
+                this.gcCount = gcCount; this.gcTimeMs = gcTimeMs; this.jitMs = jitMs; this.threads = threads;
+            }
+            double heapFraction() { return heapMax > 0 ? (double) heapUsed / heapMax : 0; }
+        }
+
+        /** Conditions over one cell's timed region. CPU loads are NaN where the platform does not report them. */
+        static final class Window {
+            final double systemCpu, backgroundCpu, heapFraction; final long jitMs, gcCount; final int threads; final String noise;
+            Window(double systemCpu, double backgroundCpu, double heapFraction, long jitMs, long gcCount, int threads, String noise) {
+                this.systemCpu = systemCpu; this.backgroundCpu = backgroundCpu; this.heapFraction = heapFraction; this.jitMs = jitMs; this.gcCount = gcCount; this.threads = threads; this.noise = noise;
+            }
+            boolean isNoisy() { return noise != null; }
+            @Override public String toString() {
+                return String.format(Locale.ROOT, "sys CPU %s, background %s, heap %.0f%%, JIT %d ms, %d threads", percent(systemCpu), percent(backgroundCpu), heapFraction * 100, jitMs, threads);
+            }
+            private static String percent(double v) { return Double.isNaN(v) ? "n/a" : String.format(Locale.ROOT, "%.0f%%", v * 100); }
+        }
+
+        private static final com.sun.management.OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean
+                ? (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean() : null;
+        private static final java.lang.management.CompilationMXBean JIT = ManagementFactory.getCompilationMXBean();
+        private static final java.lang.management.MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+        private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        private final Snapshot[] ring = new Snapshot[CAPACITY]; private long written;
+        private final ScheduledExecutorService timer;
+        private final java.util.function.Consumer<Snapshot> listener;
+
+        /** Starts sampling every {@code periodMs} on a daemon thread; {@code listener} (may be null) sees each snapshot. */
+        TelemetrySampler(long periodMs, java.util.function.Consumer<Snapshot> listener) {
+            this.listener = listener;
+            timer = Executors.newSingleThreadScheduledExecutor(r -> { Thread t = new Thread(r, "telemetry-sampler"); t.setDaemon(true); return t; });
+            sample();
+            timer.scheduleAtFixedRate(this::sample, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        }
+
+        /** Takes a snapshot now; also used to close a cell's window precisely. */
+        synchronized Snapshot sample() {
+            Snapshot s = read(OS != null ? load(OS.getProcessCpuLoad()) : Double.NaN, OS != null ? load(OS.getCpuLoad()) : Double.NaN);
+            ring[(int) (written++ % CAPACITY)] = s;
+            if (listener != null) listener.accept(s);
+            return s;
+        }
+
+        /**
+         * Reads the cumulative counters now, to open a cell's window precisely. CPU loads are left NaN: reading them here would
+         * reset the interval the sampler's next snapshot reports.
+         */
+        static Snapshot mark() { return read(Double.NaN, Double.NaN); }
+
+        private static Snapshot read(double processCpu, double systemCpu) {
+            java.lang.management.MemoryUsage heap = MEMORY.getHeapMemoryUsage();
+            return new Snapshot(System.nanoTime(), processCpu, systemCpu, heap.getUsed(), heap.getMax() > 0 ? heap.getMax() : heap.getCommitted(),
+                    MemoryProbe.gcCount(), MemoryProbe.gcTimeMs(), JIT != null && JIT.isCompilationTimeMonitoringSupported() ? JIT.getTotalCompilationTime() : 0, THREADS.getThreadCount());
+        }
+        private static double load(double v) { return v < 0 ? Double.NaN : v; }
+
+        synchronized Snapshot latest() { return written == 0 ? null : ring[(int) ((written - 1) % CAPACITY)]; }
+
+        /**
+         * Summarises the snapshots from {@code base} (a {@link #mark}) to {@code to} (a {@link System#nanoTime} value). JIT and
+         * GC deltas start at {@code base} itself, so nothing that ran before it (cold run, warmup, the pre-run GC) is counted.
+         */
+        synchronized Window window(Snapshot base, long to) {
+            if (latest().nanos < to) sample();
+            List<Snapshot> in = new ArrayList<>();
+            for (long i = Math.max(0, written - CAPACITY); i < written; i++) {
+                Snapshot s = ring[(int) (i % CAPACITY)];
+                if (s.nanos <= base.nanos) continue;
+                in.add(s);
+                if (s.nanos >= to) break;
+            }
+            Snapshot last = in.get(in.size() - 1);
+            double sys = 0, proc = 0, heap = 0; int loads = 0, threads = 0;
+            for (Snapshot s : in) {
+                if (!Double.isNaN(s.systemCpu) && !Double.isNaN(s.processCpu)) { sys += s.systemCpu; proc += s.processCpu; loads++; }
+                heap = Math.max(heap, s.heapFraction()); threads = Math.max(threads, s.threads);
+            }
+            double systemCpu = loads > 0 ? sys / loads : Double.NaN, backgroundCpu = loads > 0 ? Math.max(0, (sys - proc) / loads) : Double.NaN;
+            long jitMs = last.jitMs - base.jitMs, gcCount = last.gcCount - base.gcCount;
+            List<String> noise = new ArrayList<>();
+            if (backgroundCpu > BACKGROUND_CPU_LIMIT) noise.add(String.format(Locale.ROOT, "background CPU %.0f%%", backgroundCpu * 100));
+            if (heap > HEAP_LIMIT) noise.add(String.format(Locale.ROOT, "heap %.0f%% full", heap * 100));
+            if (jitMs > 10 && jitMs > JIT_LIMIT * (to - base.nanos) / 1e6) noise.add("JIT compiled for " + jitMs + " ms");
+            return new Window(systemCpu, backgroundCpu, heap, jitMs, gcCount, threads, noise.isEmpty() ? null : String.join("; ", noise));
+        }
+
+        /** Attaches the conditions over the result's timed region to it. */
+        void annotate(BenchmarkResult r) { if (r.measuredBase != null) r.telemetry = window(r.measuredBase, r.measuredTo); }
+
+        @Override public void close() { timer.shutdownNow(); }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Operation Counting
+    // =====================================================================================
+    /**
+     * Machine-independent cost model for one run. Instrumented twins of the algorithms (see Model's instrumented
+     * variants) count element comparisons, swaps, array reads and writes, calls, recursion depth and auxiliary arrays
+     * through these probes. The twin runs once per cell on the cell's seeded input, after the timed runs, so the timed
+     * kernels stay uninstrumented and the counts are the same on every machine.
+     */
+    static class OperationCounts {
+        /** Sweep sizes for the Encyclopedia cross-check, by declared average-case class. */
+        private static final int[] EXPONENTIAL_SIZES = {10, 12, 14, 16, 18, 20, 22, 24}, QUADRATIC_SIZES = {128, 256, 512, 1024, 2048, 4096},
+                                   DEFAULT_SIZES = {1024, 2048, 4096, 8192, 16384, 32768, 65536};
+
+        long comparisons, swaps, reads, writes, calls, allocations, allocatedElements; int maxDepth; private int depth;
+
+        // --- Probes ---
+        int read(int[] a, int i) { reads++; return a[i]; }
+        void write(int[] a, int i, int v) { writes++; a[i] = v; }
+        boolean less(int x, int y) { comparisons++; return x < y; }
+        boolean equal(int x, int y) { comparisons++; return x == y; }
+        /** A swap is two reads and two writes as well. */
+        void swap(int[] a, int i, int j) { swaps++; reads += 2; writes += 2; int t = a[i]; a[i] = a[j]; a[j] = t; }
+        int[] allocate(int n) { allocations++; allocatedElements += n; return new int[n]; }
+        int[] copyOfRange(int[] a, int from, int to) { int[] copy = allocate(to - from); reads += to - from; writes += to - from; System.arraycopy(a, from, copy, 0, to - from); return copy; }
+        void arraycopy(int[] src, int srcPos, int[] dst, int dstPos, int n) { reads += n; writes += n; System.arraycopy(src, srcPos, dst, dstPos, n); }
+        void enter() { calls++; if (++depth > maxDepth) maxDepth = depth; }
+        void exit() { depth--; }
+
+        /** The cost the cross-check fits: comparisons, array accesses and calls. */
+        long total() { return comparisons + reads + writes + calls; }
+
+        String describe() { return String.format("%,d comparisons, %,d swaps, %,d reads, %,d writes, %,d calls (depth %d), %,d aux elements", comparisons, swaps, reads, writes, calls, maxDepth, allocatedElements); }
+
+        /** Counts {@code algorithm} on a copy of {@code data}; null if it has no instrumented variant. */
+        static OperationCounts of(BenchAlgorithm algorithm, int[] data) {
+            if (algorithm == null || !algorithm.canCount()) return null;
+            OperationCounts counts = new OperationCounts(); algorithm.countOperations(data.clone(), counts); return counts;
+        }
+
+        /** Attaches the counts of the cell's corpus input to {@code result}. Runs after, never inside, the timed region. */
+        static BenchmarkResult annotate(BenchmarkResult result, String order, InputCorpus corpus) throws IOException {
+            BenchAlgorithm algorithm = AlgorithmRegistry.find(result.algorithm);
+            if (algorithm == null || !algorithm.canCount()) return result;
+            int[] data = new int[result.size]; corpus.copyInto(result.size, order, data);
+            result.ops = of(algorithm, data);
+            return result;
+        }
+
+        /**
+         * Counts {@code algorithm} on seeded random input at doubling sizes chosen from its declared average case,
+         * for checking that class against the empirical one. Returns one count-only result per size.
+         */
+        static List<BenchmarkResult> sweep(BenchAlgorithm algorithm, Model model) {
+            ComplexityClass declared = ComplexityClass.parse(algorithm.info().averageTime);
+            int[] sizes = declared == ComplexityClass.EXPONENTIAL ? EXPONENTIAL_SIZES : declared == ComplexityClass.QUADRATIC ? QUADRATIC_SIZES : DEFAULT_SIZES;
+            List<BenchmarkResult> out = new ArrayList<>();
+            for (int n : sizes) {
+                if (n > algorithm.maxSize()) break;
+                BenchmarkResult r = new BenchmarkResult(algorithm.name(), n, 0, 0, 0, 0, 0);
+                r.ops = of(algorithm, model.generateInputData(n, "Random", n));
+                out.add(r);
+            }
+            return out;
+        }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Flight Recorder Profiling
+    // =====================================================================================
+    /**
+     * Optional per-cell JDK Flight Recorder recording. Each cell gets its own {@code .jfr} file covering warmup and timed
+     * runs. The summary attached to the result is read back from that file and restricted to the timed region. Recordings
+     * are JVM-wide, so profiled sweeps run on a single worker: overlapping cells would show up in each other's samples.
+     */
+    static final class FlightRecorderProbe {
+        static final java.time.Duration SAMPLE_PERIOD = java.time.Duration.ofMillis(10);
+        static final int TOP = 10;
+        private final Path directory;
+
+        FlightRecorderProbe(Path directory) throws IOException { this.directory = Files.createDirectories(directory); }
+
+        /** False on JVMs built without the jdk.jfr module or with Flight Recorder disabled. */
+        static boolean isAvailable() {
+            try { return jdk.jfr.FlightRecorder.isAvailable(); } catch (LinkageError e) { return false; }
+        }
+        Path getDirectory() { return directory; }
+
+        /** Runs {@code task} for {@code cell} inside a recording, keeps the file and attaches its summary to the result. */
+        BenchmarkResult record(BenchmarkScheduler.Cell cell, BenchmarkScheduler.CellTask task) throws Exception {
+            Path file = directory.resolve(fileName(cell));
+            try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+                recording.setName("AlgoBench " + cell.algorithm + " @ " + cell.size);
+                recording.enable("jdk.ExecutionSample").withPeriod(SAMPLE_PERIOD).withStackTrace();
+                recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s").withStackTrace();
+                recording.enable("jdk.GarbageCollection"); recording.enable("jdk.SafepointBegin"); recording.enable("jdk.ExecuteVMOperation");
+                java.time.Instant wall = java.time.Instant.now(); long nanos = System.nanoTime();
+                recording.start();
+                BenchmarkResult result;
+                try { result = task.measure(cell); } finally { recording.stop(); }
+                recording.dump(file);
+                result.jfrFile = file;
+                result.profile = result.measuredTo > 0 ? Summary.parse(file, wall.plusNanos(result.measuredFrom - nanos), wall.plusNanos(result.measuredTo - nanos)) : Summary.parse(file, null, null);
+                return result;
+            }
+        }
+
+        static String fileName(BenchmarkScheduler.Cell cell) {
+            return (cell.algorithm + "_" + cell.size + (cell.threads > 0 ? "_" + cell.threads + "T" : "")).replaceAll("[^A-Za-z0-9._-]+", "-") + ".jfr";
+        }
+
+        /** What the recording saw over the timed region: hot methods, allocation by class, GC pauses and safepoints. */
+        static final class Summary {
+            final double seconds; final int samples; final long allocatedBytes;
+            final List<Map.Entry<String, Integer>> hotMethods; final List<Map.Entry<String, Long>> allocations;
+            final int gcCount, safepoints; final double gcPauseMs, gcLongestMs, timeToSafepointMs, safepointOpMs;
+
+            private Summary(double seconds, int samples, long allocatedBytes, List<Map.Entry<String, Integer>> hotMethods, List<Map.Entry<String, Long>> allocations,
+                            int gcCount, double gcPauseMs, double gcLongestMs, int safepoints, double timeToSafepointMs, double safepointOpMs) {
+                this.seconds = seconds; this.samples = samples; this.allocatedBytes = allocatedBytes; this.hotMethods = hotMethods; this.allocations = allocations;
+                this.gcCount = gcCount; this.gcPauseMs = gcPauseMs; this.gcLongestMs = gcLongestMs; this.safepoints = safepoints; this.timeToSafepointMs = timeToSafepointMs; this.safepointOpMs = safepointOpMs;
+            }
+
+            /** Reads {@code file}; events starting outside [{@code from}, {@code to}] are skipped (null bounds keep everything). */
+            static Summary parse(Path file, java.time.Instant from, java.time.Instant to) throws IOException {
+                Map<String, Integer> methods = new HashMap<>(); Map<String, Long> classes = new HashMap<>();
+                int samples = 0, gcCount = 0, safepoints = 0; long allocated = 0; double gcPause = 0, gcLongest = 0, ttsp = 0, vmOps = 0;
+                java.time.Instant first = null, last = null;
+                for (jdk.jfr.consumer.RecordedEvent e : jdk.jfr.consumer.RecordingFile.readAllEvents(file)) {
+                    java.time.Instant t = e.getStartTime();
+                    if ((from != null && t.isBefore(from)) || (to != null && t.isAfter(to))) continue;
+                    if (first == null || t.isBefore(first)) first = t;
+                    if (last == null || t.isAfter(last)) last = t;
+                    switch (e.getEventType().getName()) {
+                        case "jdk.ExecutionSample": {
+                            jdk.jfr.consumer.RecordedStackTrace stack = e.getStackTrace();
+                            if (stack == null || stack.getFrames().isEmpty()) break;
+                            jdk.jfr.consumer.RecordedMethod m = stack.getFrames().get(0).getMethod();
+                            methods.merge(shortName(m.getType().getName()) + "." + m.getName(), 1, Integer::sum); samples++;
+                            break;
+                        }
+                        case "jdk.ObjectAllocationSample": {
+                            long weight = e.getLong("weight"); jdk.jfr.consumer.RecordedClass type = e.getClass("objectClass");
+                            classes.merge(type != null ? shortName(type.getName()) : "?", weight, Long::sum); allocated += weight;
+                            break;
+                        }
+                        case "jdk.GarbageCollection": {
+                            double pause = e.getDuration("sumOfPauses").toNanos() / 1e6;
+                            gcCount++; gcPause += pause; gcLongest = Math.max(gcLongest, e.getDuration("longestPause").toNanos() / 1e6);
+                            break;
+                        }
+                        case "jdk.SafepointBegin": safepoints++; ttsp += e.getDuration().toNanos() / 1e6; break;
+                        case "jdk.ExecuteVMOperation": if (e.getBoolean("safepoint")) vmOps += e.getDuration().toNanos() / 1e6; break;
+                        default: break;
+                    }
+                }
+                double seconds = from != null && to != null ? java.time.Duration.between(from, to).toNanos() / 1e9 : first != null ? java.time.Duration.between(first, last).toNanos() / 1e9 : 0;
+                return new Summary(seconds, samples, allocated, top(methods), top(classes), gcCount, gcPause, gcLongest, safepoints, ttsp, vmOps);
+            }
+
+            private static <V extends Comparable<V>> List<Map.Entry<String, V>> top(Map<String, V> counts) {
+                List<Map.Entry<String, V>> entries = new ArrayList<>(counts.entrySet());
+                entries.sort(Map.Entry.<String, V>comparingByValue().reversed());
+                return new ArrayList<>(entries.subList(0, Math.min(TOP, entries.size())));
+            }
+            private static String shortName(String className) { return className.startsWith("AlgorithmPerformanceVisualizer$") ? className.substring("AlgorithmPerformanceVisualizer$".length()) : className; }
+
+            double allocationRate() { return seconds > 0 ? allocatedBytes / seconds : 0; }
+
+            /** One line for the CLI log. */
+            String describe() {
+                String hot = hotMethods.isEmpty() ? "no samples" : String.format(Locale.ROOT, "hot %s %.0f%%", hotMethods.get(0).getKey(), 100.0 * hotMethods.get(0).getValue() / samples);
+                return String.format(Locale.ROOT, "%s, alloc %s/s, GC %d (%.1f ms), safepoints %d (%.1f ms)", hot, Units.formatMemory((long) allocationRate()), gcCount, gcPauseMs, safepoints, safepointOpMs);
+            }
+
+            String toHtml() {
+                StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "<p><b>Timed region:</b> %.2f s, %d execution samples every %d ms</p>", seconds, samples, SAMPLE_PERIOD.toMillis()));
+                sb.append("<h4>Top Sampled Methods</h4><table width='100%' cellpadding='4'>");
+                for (Map.Entry<String, Integer> m : hotMethods) sb.append(String.format(Locale.ROOT, "<tr><td>%s</td><td align='right'>%d</td><td align='right'>%.1f%%</td></tr>", escape(m.getKey()), m.getValue(), 100.0 * m.getValue() / samples));
+                sb.append(String.format(Locale.ROOT, "</table><h4>Allocation by Class</h4><p>%s sampled, %s/s</p><table width='100%%' cellpadding='4'>", Units.formatMemory(allocatedBytes), Units.formatMemory((long) allocationRate())));
+                for (Map.Entry<String, Long> c : allocations) sb.append(String.format(Locale.ROOT, "<tr><td>%s</td><td align='right'>%s</td><td align='right'>%s/s</td></tr>", escape(c.getKey()), Units.formatMemory(c.getValue()), Units.formatMemory((long) (seconds > 0 ? c.getValue() / seconds : 0))));
+                sb.append(String.format(Locale.ROOT, "</table><h4>GC and Safepoints</h4><p>%d collections, %.2f ms paused in total, longest pause %.2f ms</p><p>%d safepoints, %.2f ms to reach them, %.2f ms in VM operations at safepoints</p>",
+                        gcCount, gcPauseMs, gcLongestMs, safepoints, timeToSafepointMs, safepointOpMs));
+                return sb.toString();
+            }
+            private static String escape(String s) { return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;"); }
+        }
+    }
+
+    // =====================================================================================
+    // BENCHMARK ENGINE: Parallel Cell Scheduler
+    // =====================================================================================
+    /**
+     * Spreads independent (algorithm, size) cells over a fixed pool of workers. Results are handed to the
+     * listener strictly in plan order, whatever order the workers finish in, so tables and charts stay deterministic.
+     * In isolation mode at most one heavy cell (large working set) runs at a time so they don't fight over memory bandwidth.
+     */
+    static class BenchmarkScheduler {
+        /** Cells whose input array is at least this large are considered memory-bound ("heavy"). */
+        public static final long HEAVY_CELL_BYTES = 1L << 20;
+
+        static final class Cell {
+            final int index; final String algorithm; final int size, threads; final boolean heavy, exclusive;
+            Cell(int index, String algorithm, int size, int threads, boolean exclusive) {
+                this.index = index; this.algorithm = algorithm; this.size = size; this.threads = threads; this.exclusive = exclusive;
+                this.heavy = (long) size * Integer.BYTES >= HEAVY_CELL_BYTES;
+            }
+        }
+        interface CellTask { BenchmarkResult measure(Cell cell) throws Exception; }
+        interface ResultListener { void onResult(int index, BenchmarkResult result); }
+
+        private final int workers; private final boolean isolateHeavy;
+        private final Semaphore heavyPermits = new Semaphore(1, true);
+        // Parallel-algorithm cells take the write lock so nothing else competes for their cores
+        private final ReentrantReadWriteLock exclusiveLock = new ReentrantReadWriteLock(true);
+        private final AtomicLongArray workerBusyNanos; private final AtomicIntegerArray workerCells;
+        private volatile long wallNanos;
+
+        public BenchmarkScheduler(int workers, boolean isolateHeavy) {
+            this.workers = Math.max(1, workers); this.isolateHeavy = isolateHeavy;
+            workerBusyNanos = new AtomicLongArray(this.workers); workerCells = new AtomicIntegerArray(this.workers);
+        }
+        public int getWorkers() { return workers; }
+        public boolean isIsolateHeavy() { return isolateHeavy; }
+
+        public static List<Cell> plan(List<String> algos, int min, int max, int step) {
+            return plan(algos, min, max, step, new int[]{Runtime.getRuntime().availableProcessors()});
+        }
+
+        /**
+         * Expands a sweep into cells in the order results should be reported: algorithm-major, then thread count
+         * (parallel algorithms only), then size.
+         */
+        public static List<Cell> plan(List<String> algos, int min, int max, int step, int[] threadCounts) {
+            List<Cell> cells = new ArrayList<>();
+            for (String algo : algos) {
+                BenchAlgorithm a = AlgorithmRegistry.get(algo);
+                int currentMax = Math.min(max, a.maxSize());
+                for (int threads : a.isParallel() ? threadCounts : new int[]{0})
+                    for (int size = min; size <= currentMax; size += step) cells.add(new Cell(cells.size(), algo, size, threads, a.isParallel()));
+            }
+            return cells;
+        }
+
+        /** Parses "1,2,4,8" into sorted distinct positive thread counts. */
+        public static int[] parseThreadCounts(String spec) {
+            TreeSet<Integer> counts = new TreeSet<>();
+            for (String part : spec.split(",")) {
+                if (part.trim().isEmpty()) continue;
+                int t = Integer.parseInt(part.trim());
+                if (t <= 0) throw new NumberFormatException("Thread counts must be positive");
+                counts.add(t);
+            }
+            if (counts.isEmpty()) throw new NumberFormatException("No thread counts given");
+            return counts.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /** 1, 2, 4, ... up to the core count, plus the core count itself. */
+        public static String defaultThreadCounts() {
+            int cores = Runtime.getRuntime().availableProcessors(); StringBuilder sb = new StringBuilder();
+            for (int t = 1; t < cores; t *= 2) sb.append(t).append(',');
+            return sb.append(cores).toString();
+        }
+
+        /** Runs every cell and blocks until all are reported. The listener is always called from the calling thread. */
+        public void run(List<Cell> cells, CellTask task, ResultListener listener) throws Exception {
+            AtomicInteger created = new AtomicInteger(); ThreadLocal<Integer> workerId = new ThreadLocal<>();
+            ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+                int id = created.getAndIncrement();
+                Thread t = new Thread(() -> { workerId.set(id); r.run(); }, "bench-worker-" + id); t.setDaemon(true); return t;
+            });
+            CompletionService<Integer> done = new ExecutorCompletionService<>(pool);
+            BenchmarkResult[] slots = new BenchmarkResult[cells.size()];
+            long wallStart = System.nanoTime();
+            try {
+                for (Cell cell : cells) done.submit(() -> {
+                    int id = workerId.get();
+                    Lock lock = cell.exclusive ? exclusiveLock.writeLock() : exclusiveLock.readLock();
+                    lock.lockInterruptibly();
+                    boolean gated = isolateHeavy && cell.heavy;
+                    try {
+                        if (gated) heavyPermits.acquire();
+                        long start = System.nanoTime();
+                        try { slots[cell.index] = task.measure(cell); }
+                        finally {
+                            workerBusyNanos.addAndGet(id, System.nanoTime() - start); workerCells.incrementAndGet(id);
+                            if (gated) heavyPermits.release();
+                        }
+                    } finally { lock.unlock(); }
+                    return cell.index;
+                });
+                // Reorder buffer: only emit the contiguous prefix of finished cells
+                int next = 0;
+                for (int i = 0; i < cells.size(); i++) {
+                    done.take().get();
+                    while (next < slots.length && slots[next] != null) { listener.onResult(next, slots[next]); next++; }
+                }
+            } finally {
+                pool.shutdownNow();
+                wallNanos = System.nanoTime() - wallStart;
+            }
+        }
+
+        public long getWallNanos() { return wallNanos; }
+        public long getWorkerBusyNanos(int worker) { return workerBusyNanos.get(worker); }
+
+        /** Busy time summed over workers divided by wall time, i.e. how many cells were in flight on average. */
+        public double getParallelism() {
+            long busy = 0; for (int i = 0; i < workers; i++) busy += workerBusyNanos.get(i);
+            return wallNanos > 0 ? (double) busy / wallNanos : 0;
+        }
+
+        public String describeScaling() {
+            return String.format("Wall %s on %d workers | parallelism %.2fx, efficiency %.0f%%",
+                    Units.formatTime(wallNanos), workers, getParallelism(), 100 * getParallelism() / workers);
+        }
+
+        public String describeWorkers() {
+            StringBuilder sb = new StringBuilder("<html>");
+            for (int i = 0; i < workers; i++) sb.append(String.format("Worker %d: %s busy, %d cells<br>", i, Units.formatTime(workerBusyNanos.get(i)), workerCells.get(i)));
+            return sb.append("</html>").toString();
+        }
+    }
+
+    // =====================================================================================
+    // PERSISTENCE: Run History Store
+    // =====================================================================================
+    /**
+     * Append-only on-disk log of benchmark runs, one {@code [int bodyLength][int crc32][body]} record per run. A body
+     * opens with a small summary (time, seed, labels, JVM/hardware fingerprint, algorithm names and measured sizes)
+     * followed by a length-prefixed block of varint-encoded results, latency histograms included. Opening the store maps
+     * the file read-only and decodes just the labels at the head of each record, jumping over everything else. The
+     * algorithm/size/order/fingerprint indexes (bitsets over run ordinals) are built from the summaries on the first
+     * query and kept current by appends. Results are decoded, and their checksum verified, when a run is selected. A
+     * torn record left at the tail by a crash mid-append ends the scan and is truncated by the next append. Appends take
+     * a file lock, so two instances can share a file. The header's format version applies to every record in the file:
+     * version 2 adds the cold time, warmup runs, steady-state flag and queries per run to each result, and a version 1
+     * file keeps being appended to in version 1 layout.
+     */
+    static final class HistoryStore implements AutoCloseable {
+        static final int MAGIC = 0x41504248, VERSION = 2, HEADER_BYTES = 8, RECORD_HEADER = 8;
+
+        private final Path file; private final FileChannel channel; private MappedByteBuffer map; private long validEnd; private int version = VERSION;
+        private final List<RunHistory> runs = new ArrayList<>(); private final Map<String, String> labels = new HashMap<>();
+        private final Map<String, BitSet> byAlgorithm = new HashMap<>(), byOrder = new HashMap<>(), byFingerprint = new HashMap<>();
+        private final TreeMap<Integer, BitSet> bySize = new TreeMap<>(); private boolean indexed;
+
+        private HistoryStore(Path file, FileChannel channel) { this.file = file; this.channel = channel; }
+
+        /** {@code -Dhistory.file}, defaulting to {@code ~/.algobench/history.bin}. */
+        static Path defaultPath() {
+            String configured = System.getProperty("history.file");
+            return configured != null ? Paths.get(configured) : Paths.get(System.getProperty("user.home"), ".algobench", "history.bin");
+        }
+
+        /** Identifies the JVM and machine a run was measured on; runs are only directly comparable within one fingerprint. */
+        static String fingerprint() {
+            Runtime rt = Runtime.getRuntime();
+            return String.format(Locale.ROOT, "%s %s | %s %s | %d cores | %d MB heap", System.getProperty("java.vm.name"), System.getProperty("java.version"),
+                    System.getProperty("os.name"), System.getProperty("os.arch"), rt.availableProcessors(), rt.maxMemory() >> 20);
+        }
+
+        static HistoryStore open(Path file) throws IOException {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            try { HistoryStore store = new HistoryStore(file, channel); store.scan(); return store; }
+            catch (IOException | RuntimeException e) { channel.close(); throw e; }
+        }
+
+        public Path getFile() { return file; }
+        /** Every stored run in append order (oldest first). */
+        public synchronized List<RunHistory> runs() { return new ArrayList<>(runs); }
+
+        private void scan() throws IOException {
+            long size = channel.size();
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION); header.flip();
+                while (header.hasRemaining()) channel.write(header, header.position());
+                validEnd = HEADER_BYTES; return;
+            }
+            ensureMapped(size);
+            if (size < HEADER_BYTES || map.getInt(0) != MAGIC) throw new IOException("Not a run history file: " + file);
+            version = map.getInt(4);
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported run history version " + version + " in " + file);
+            long pos = HEADER_BYTES;
+            while (pos + RECORD_HEADER <= size) {
+                int len = map.getInt((int) pos);
+                if (len <= 0 || pos + RECORD_HEADER + len > size) break;
+                try { runs.add(readHead(body(pos, len), pos)); }
+                catch (RuntimeException e) { break; } // half-written record: everything before it is intact
+                pos += RECORD_HEADER + len;
+            }
+            validEnd = pos;
+        }
+
+        private void ensureMapped(long end) throws IOException {
+            if (map != null && map.capacity() >= end) return;
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Run history exceeds 2 GB; move " + file + " aside to start a new one");
+            if (size < end) throw new IOException("Run history record beyond end of file");
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        private ByteBuffer body(long pos, int len) {
+            ByteBuffer body = map.duplicate(); body.limit((int) (pos + RECORD_HEADER + len)).position((int) (pos + RECORD_HEADER));
+            return body;
+        }
+
+        /** Appends the run, records its offset on it and indexes it. */
+        public synchronized void append(RunHistory run) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            Set<String> names = new LinkedHashSet<>(); TreeSet<Integer> sizes = new TreeSet<>();
+            for (List<BenchmarkResult> series : run.data.values()) for (BenchmarkResult r : series) { names.add(r.algorithm); sizes.add(r.size); }
+            putLong(out, run.createdAt); putLong(out, run.seed);
+            putString(out, run.algorithms); putString(out, run.config); putString(out, run.order); putString(out, run.fingerprint);
+            putVar(out, names.size()); for (String name : names) putString(out, name);
+            putVar(out, sizes.size()); int prev = 0; for (int s : sizes) { putVar(out, s - prev); prev = s; }
+            byte[] results = encodeResults(run.data, new ArrayList<>(names), version);
+            putVar(out, results.length); out.write(results, 0, results.length);
+
+            byte[] body = out.toByteArray(); CRC32 crc = new CRC32(); crc.update(body, 0, body.length);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + body.length).putInt(body.length).putInt((int) crc.getValue()).put(body); record.flip();
+            java.nio.channels.FileLock lock = channel.lock();
+            try {
+                long end = channel.size();
+                if (end > validEnd && isTorn(validEnd, end)) { channel.truncate(validEnd); end = validEnd; }
+                while (record.hasRemaining()) channel.write(record, end + record.position());
+                channel.force(false);
+                run.storeOffset = end; validEnd = end + record.capacity();
+            } finally { lock.release(); }
+            runs.add(run);
+            if (indexed) index(runs.size() - 1, run, names, sizes);
+        }
+
+        private boolean isTorn(long pos, long size) throws IOException {
+            if (size - pos < RECORD_HEADER) return true;
+            ByteBuffer len = ByteBuffer.allocate(4); while (len.hasRemaining() && channel.read(len, pos + len.position()) >= 0) {}
+            int n = len.getInt(0); return n <= 0 || pos + RECORD_HEADER + n > size;
+        }
+
+        /** Reads a stored run's results, verifying the record checksum first. */
+        public synchronized Map<String, List<BenchmarkResult>> load(RunHistory run) throws IOException {
+            if (run.storeOffset < 0) throw new IOException("Run was never stored");
+            ensureMapped(run.storeOffset + RECORD_HEADER);
+            int len = map.getInt((int) run.storeOffset), expected = map.getInt((int) run.storeOffset + 4);
+            ensureMapped(run.storeOffset + RECORD_HEADER + len);
+            ByteBuffer body = body(run.storeOffset, len);
+            CRC32 crc = new CRC32(); crc.update(body.duplicate());
+            if ((int) crc.getValue() != expected) throw new IOException("Run history record at offset " + run.storeOffset + " is corrupt");
+            try {
+                readHead(body, run.storeOffset); String[] names = readNames(body); readSizes(body);
+                getVar(body); // results block length
+                return decodeResults(body, names, version);
+            } catch (RuntimeException e) { throw new IOException("Malformed run history record at offset " + run.storeOffset, e); }
+        }
+
+        /**
+         * Runs matching every non-null criterion, in append order. The size criterion matches runs that measured at
+         * least one size in [minSize, maxSize].
+         */
+        public synchronized List<RunHistory> query(String algorithm, Integer minSize, Integer maxSize, String order, String fingerprint) throws IOException {
+            if (!indexed) buildIndex();
+            BitSet match = new BitSet(); match.set(0, runs.size());
+            if (algorithm != null) match.and(byAlgorithm.getOrDefault(algorithm, new BitSet()));
+            if (order != null) match.and(byOrder.getOrDefault(order, new BitSet()));
+            if (fingerprint != null) match.and(byFingerprint.getOrDefault(fingerprint, new BitSet()));
+            if (minSize != null || maxSize != null) {
+                BitSet sized = new BitSet();
+                for (BitSet b : bySize.subMap(minSize == null ? 0 : minSize, true, maxSize == null ? Integer.MAX_VALUE : maxSize, true).values()) sized.or(b);
+                match.and(sized);
+            }
+            List<RunHistory> out = new ArrayList<>(match.cardinality());
+            for (int i = match.nextSetBit(0); i >= 0; i = match.nextSetBit(i + 1)) out.add(runs.get(i));
+            return out;
+        }
+
+        private void buildIndex() throws IOException {
+            ensureMapped(validEnd);
+            for (int i = 0; i < runs.size(); i++) {
+                RunHistory run = runs.get(i); ByteBuffer body = body(run.storeOffset, map.getInt((int) run.storeOffset));
+                readHead(body, run.storeOffset); String[] names = readNames(body);
+                index(i, run, Arrays.asList(names), readSizes(body));
+            }
+            indexed = true;
+        }
+
+        private void index(int ordinal, RunHistory run, Collection<String> names, Collection<Integer> sizes) {
+            for (String name : names) byAlgorithm.computeIfAbsent(name, k -> new BitSet()).set(ordinal);
+            for (int size : sizes) bySize.computeIfAbsent(size, k -> new BitSet()).set(ordinal);
+            byOrder.computeIfAbsent(run.order, k -> new BitSet()).set(ordinal);
+            byFingerprint.computeIfAbsent(run.fingerprint, k -> new BitSet()).set(ordinal);
+        }
+
+        /** Decodes the labels at the start of a body; repeated labels (order, fingerprint) share one String. */
+        private RunHistory readHead(ByteBuffer body, long pos) {
+            long createdAt = body.getLong(), seed = body.getLong();
+            String algorithms = getString(body), config = getString(body), order = getString(body), fingerprint = getString(body);
+            RunHistory run = new RunHistory(createdAt, algorithms, config, labels.computeIfAbsent(order, k -> k), labels.computeIfAbsent(fingerprint, k -> k), seed);
+            run.storeOffset = pos;
+            return run;
+        }
+        private static String[] readNames(ByteBuffer body) { String[] names = new String[(int) getVar(body)]; for (int i = 0; i < names.length; i++) names[i] = getString(body); return names; }
+        private static List<Integer> readSizes(ByteBuffer body) {
+            List<Integer> sizes = new ArrayList<>(); int size = 0;
+            for (int i = (int) getVar(body); i > 0; i--) { size += (int) getVar(body); sizes.add(size); }
+            return sizes;
+        }
+
+        private static byte[] encodeResults(Map<String, List<BenchmarkResult>> data, List<String> names, int version) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            putVar(out, data.size());
+            for (Map.Entry<String, List<BenchmarkResult>> series : data.entrySet()) {
+                putString(out, series.getKey()); putVar(out, series.getValue().size());
+                for (BenchmarkResult r : series.getValue()) {
+                    putVar(out, names.indexOf(r.algorithm)); putVar(out, r.size); putVar(out, r.threads);
+                    for (long v : new long[]{r.avgTime, r.medianTime, r.minTime, r.maxTime, r.memoryBytes, r.maxAllocBytes, r.gcCount, r.gcTimeMs, r.ciLow, r.ciHigh, r.samples, r.outliers, r.p50, r.p90, r.p99, r.p999}) putVar(out, v);
+                    putLong(out, Double.doubleToLongBits(r.cv));
+                    if (version >= 2) { putVar(out, r.coldTime); putVar(out, r.warmupRuns); putVar(out, r.steadyState ? 1 : 0); putVar(out, r.queriesPerRun); }
+                    LatencyHistogram h = r.histogram;
+                    if (h == null) { putVar(out, 0); continue; }
+                    int nonEmpty = 0; for (int i = 0; i < h.buckets(); i++) if (h.count(i) > 0) nonEmpty++;
+                    putVar(out, nonEmpty + 1); putVar(out, h.min()); putVar(out, h.max());
+                    for (int i = 0, last = 0; i < h.buckets(); i++) if (h.count(i) > 0) { putVar(out, i - last); putVar(out, h.count(i)); last = i; }
+                }
+            }
+            return out.toByteArray();
+        }
+
+        private static Map<String, List<BenchmarkResult>> decodeResults(ByteBuffer in, String[] names, int version) {
+            Map<String, List<BenchmarkResult>> data = new LinkedHashMap<>();
+            for (int s = (int) getVar(in); s > 0; s--) {
+                String key = getString(in); int count = (int) getVar(in); List<BenchmarkResult> series = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String algorithm = names[(int) getVar(in)]; int size = (int) getVar(in), threads = (int) getVar(in);
+                    long avg = getVar(in), median = getVar(in), min = getVar(in), max = getVar(in), memory = getVar(in);
+                    BenchmarkResult r = new BenchmarkResult(algorithm, size, avg, median, min, max, memory); r.threads = threads;
+                    r.maxAllocBytes = getVar(in); r.gcCount = getVar(in); r.gcTimeMs = getVar(in); r.ciLow = getVar(in); r.ciHigh = getVar(in);
+                    r.samples = (int) getVar(in); r.outliers = (int) getVar(in);
+                    r.p50 = getVar(in); r.p90 = getVar(in); r.p99 = getVar(in); r.p999 = getVar(in);
+                    r.cv = Double.longBitsToDouble(in.getLong());
+                    if (version >= 2) { r.coldTime = getVar(in); r.warmupRuns = (int) getVar(in); r.steadyState = getVar(in) != 0; r.queriesPerRun = (int) getVar(in); }
+                    int buckets = (int) getVar(in) - 1;
+                    if (buckets >= 0) {
+                        long hMin = getVar(in), hMax = getVar(in); int[] index = new int[buckets]; long[] counts = new long[buckets];
+                        for (int b = 0, last = 0; b < buckets; b++) { last += (int) getVar(in); index[b] = last; counts[b] = getVar(in); }
+                        r.histogram = LatencyHistogram.restore(hMin, hMax, index, counts);
+                    }
+                    series.add(r);
+                }
+                data.put(key, series);
+            }
+            return data;
+        }
+
+        // Zigzag varints: small magnitudes of either sign take one or two bytes
+        private static void putVar(ByteArrayOutputStream out, long v) {
+            v = (v << 1) ^ (v >> 63);
+            while ((v & ~0x7FL) != 0) { out.write((int) ((v & 0x7F) | 0x80)); v >>>= 7; }
+            out.write((int) v);
+        }
+        private static long getVar(ByteBuffer in) {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.get(); v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return (v >>> 1) ^ -(v & 1);
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+        private static void putLong(ByteArrayOutputStream out, long v) { for (int i = 56; i >= 0; i -= 8) out.write((int) (v >>> i)); }
+        private static void putString(ByteArrayOutputStream out, String s) { byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8); putVar(out, b.length); out.write(b, 0, b.length); }
+        private static String getString(ByteBuffer in) { byte[] b = new byte[(int) getVar(in)]; in.get(b); return new String(b, StandardCharsets.UTF_8); }
+
+        @Override public synchronized void close() throws IOException { map = null; channel.close(); }
+    }
+
+    // =====================================================================================
+    // REGRESSION GATE: Baseline Comparison
+    // =====================================================================================
+    /**
+     * Aligns results cell by cell, keyed on (series, size), with a baseline CSV in the export format, for example one
+     * exported before a JVM upgrade. Each pair gets Welch's t-test on the cell means (the mean and CV are taken over the
+     * samples kept after outlier rejection, so the summary columns are enough). A cell is a regression when its median
+     * moved by more than {@code threshold} and the difference is significant at {@code alpha}. Cells without sample
+     * statistics on either side (JMH imports, single runs) cannot be tested and are judged on the threshold alone.
+     */
+    static final class RegressionGate {
+        enum Verdict { REGRESSION, IMPROVEMENT, UNCHANGED, NEW }
+
+        /** One aligned cell. {@code pValue} is NaN when the cell could not be tested. */
+        static final class Comparison {
+            final BenchmarkResult baseline, current; final double change, pValue; final Verdict verdict;
+            Comparison(BenchmarkResult baseline, BenchmarkResult current, double change, double pValue, Verdict verdict) {
+                this.baseline = baseline; this.current = current; this.change = change; this.pValue = pValue; this.verdict = verdict;
+            }
+            @Override public String toString() {
+                if (verdict == Verdict.NEW) return "new";
+                String p = Double.isNaN(pValue) ? "untested" : pValue < 0.001 ? "p<0.001" : String.format(Locale.ROOT, "p=%.3f", pValue);
+                return String.format(Locale.ROOT, "%+.1f%% (%s)%s", change * 100, p, verdict == Verdict.REGRESSION ? " slower" : verdict == Verdict.IMPROVEMENT ? " faster" : "");
+            }
+        }
+
+        static final double DEFAULT_THRESHOLD = 0.05, DEFAULT_ALPHA = 0.05;
+        final Map<String, BenchmarkResult> baseline; final double threshold, alpha; final String source;
+
+        RegressionGate(List<BenchmarkResult> baseline, double threshold, double alpha, String source) {
+            if (threshold < 0 || alpha <= 0 || alpha >= 1) throw new IllegalArgumentException("Invalid regression threshold or significance level");
+            this.baseline = new LinkedHashMap<>(); for (BenchmarkResult r : baseline) this.baseline.put(key(r), r);
+            this.threshold = threshold; this.alpha = alpha; this.source = source;
+        }
+
+        static String key(BenchmarkResult r) { return r.seriesName() + "@" + r.size; }
+
+        /** Reads a CSV written by the exporter or the CLI. Columns are matched by header name, so older exports with fewer columns load too. */
+        static List<BenchmarkResult> readBaseline(File f) throws IOException {
+            List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) throw new IOException("Empty baseline file");
+            List<String> header = JmhSupport.splitCsv(lines.get(0));
+            int algo = header.indexOf("Algorithm"), size = header.indexOf("Size"), median = header.indexOf("MedianTime_ns");
+            if (algo < 0 || size < 0 || median < 0) throw new IOException("Not a benchmark CSV export (needs Algorithm, Size and MedianTime_ns)");
+            List<BenchmarkResult> results = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.trim().isEmpty()) continue;
+                List<String> row = JmhSupport.splitCsv(line);
+                try {
+                    long med = column(row, header, "MedianTime_ns");
+                    BenchmarkResult r = new BenchmarkResult(row.get(algo), (int) column(row, header, "Size"), column(row, header, "AvgTime_ns"), med,
+                            column(row, header, "MinTime_ns"), column(row, header, "MaxTime_ns"), column(row, header, "Memory_Bytes"));
+                    r.maxAllocBytes = header.contains("MaxAlloc_Bytes") ? column(row, header, "MaxAlloc_Bytes") : column(row, header, "PeakAux_Bytes"); r.gcCount = column(row, header, "GC_Count"); r.gcTimeMs = column(row, header, "GC_Time_ms");
+                    r.threads = (int) column(row, header, "Threads"); r.ciLow = column(row, header, "MedianCI_Low_ns"); r.ciHigh = column(row, header, "MedianCI_High_ns");
+                    r.samples = (int) column(row, header, "Samples"); r.outliers = (int) column(row, header, "Outliers");
+                    int cv = header.indexOf("CV"); r.cv = cv >= 0 && cv < row.size() && !row.get(cv).isEmpty() ? Double.parseDouble(row.get(cv)) : 0;
+                    r.p50 = column(row, header, "P50_ns"); r.p90 = column(row, header, "P90_ns"); r.p99 = column(row, header, "P99_ns"); r.p999 = column(row, header, "P99_9_ns");
+                    r.coldTime = column(row, header, "ColdTime_ns"); r.warmupRuns = (int) column(row, header, "WarmupRuns"); r.queriesPerRun = (int) column(row, header, "QueriesPerRun");
+                    int steady = header.indexOf("SteadyState"); r.steadyState = steady >= 0 && steady < row.size() && Boolean.parseBoolean(row.get(steady));
+                    results.add(r);
+                } catch (NumberFormatException e) { throw new IOException("Malformed baseline row: " + line); }
+            }
+            return results;
+        }
+
+        private static long column(List<String> row, List<String> header, String name) {
+            int i = header.indexOf(name);
+            return i < 0 || i >= row.size() || row.get(i).isEmpty() ? 0 : Math.round(Double.parseDouble(row.get(i)));
+        }
+
+        /** Compares one current cell with its baseline counterpart; NEW when the baseline has no such cell. */
+        Comparison compare(BenchmarkResult current) {
+            BenchmarkResult base = baseline.get(key(current));
+            if (base == null || base.medianTime <= 0) return new Comparison(null, current, Double.NaN, Double.NaN, Verdict.NEW);
+            double change = (double) (current.medianTime - base.medianTime) / base.medianTime;
+            double p = base.samples > 1 && current.samples > 1
+                    ? welchPValue(base.avgTime, base.cv * base.avgTime, base.samples, current.avgTime, current.cv * current.avgTime, current.samples) : Double.NaN;
+            boolean significant = Double.isNaN(p) || p < alpha;
+            Verdict verdict = significant && change > threshold ? Verdict.REGRESSION : significant && change < -threshold ? Verdict.IMPROVEMENT : Verdict.UNCHANGED;
+            return new Comparison(base, current, change, p, verdict);
+        }
+
+        List<Comparison> compareAll(Collection<List<BenchmarkResult>> current) {
+            List<Comparison> out = new ArrayList<>();
+            for (List<BenchmarkResult> series : current) for (BenchmarkResult r : series) out.add(compare(r));
+            return out;
+        }
+
+        RegressionGate withThreshold(double threshold) { return new RegressionGate(new ArrayList<>(baseline.values()), threshold, alpha, source); }
+
+        /** Baseline cells of one series, by ascending size, for drawing next to the current series. */
+        List<BenchmarkResult> series(String name) {
+            List<BenchmarkResult> out = new ArrayList<>();
+            for (BenchmarkResult r : baseline.values()) if (r.seriesName().equals(name)) out.add(r);
+            out.sort(Comparator.comparingInt(r -> r.size));
+            return out;
+        }
+
+        String describe() { return String.format(Locale.ROOT, "%s (%d cells, threshold %.1f%%, alpha %.3g)", source, baseline.size(), threshold * 100, alpha); }
+
+        /** Two-sided p-value of Welch's unequal-variance t-test from summary statistics. */
+        static double welchPValue(double mean1, double sd1, int n1, double mean2, double sd2, int n2) {
+            double v1 = sd1 * sd1 / n1, v2 = sd2 * sd2 / n2, se = Math.sqrt(v1 + v2);
+            if (se == 0) return mean1 == mean2 ? 1 : 0;
+            double t = (mean1 - mean2) / se, df = (v1 + v2) * (v1 + v2) / (v1 * v1 / (n1 - 1) + v2 * v2 / (n2 - 1));
+            return regularizedBeta(df / (df + t * t), df / 2, 0.5);
+        }
+
+        /** I_x(a, b) by Lentz's continued fraction (Numerical Recipes 6.4). */
+        static double regularizedBeta(double x, double a, double b) {
+            if (x <= 0) return 0;
+            if (x >= 1) return 1;
+            double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+            if (x > (a + 1) / (a + b + 2)) return 1 - front * betaFraction(1 - x, b, a) / b;
+            return front * betaFraction(x, a, b) / a;
+        }
+
+        private static double betaFraction(double x, double a, double b) {
+            final double tiny = 1e-300; double c = 1, d = 1 - (a + b) * x / (a + 1);
+            d = 1 / (Math.abs(d) < tiny ? tiny : d); double h = d;
+            for (int m = 1; m <= 300; m++) {
+                int m2 = 2 * m;
+                double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+                d = 1 + aa * d; d = 1 / (Math.abs(d) < tiny ? tiny : d); c = 1 + aa / c; if (Math.abs(c) < tiny) c = tiny; h *= d * c;
+                aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+                d = 1 + aa * d; d = 1 / (Math.abs(d) < tiny ? tiny : d); c = 1 + aa / c; if (Math.abs(c) < tiny) c = tiny;
+                double delta = d * c; h *= delta;
+                if (Math.abs(delta - 1) < 1e-12) break;
+            }
+            return h;
+        }
+
+        /** Lanczos approximation (g = 7, n = 9). */
+        static double logGamma(double x) {
+            final double[] c = {0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313, -176.61502916214059,
+                    12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7};
+            if (x < 0.5) return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+            x -= 1; double sum = c[0], t = x + 7.5;
+            for (int i = 1; i < c.length; i++) sum += c[i] / (x + i);
+            return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+        }
+    }
+
+    // =====================================================================================
+    // JMH INTEGRATION: Harness Generator & Result Import
+    // =====================================================================================
+    /**
+     * Generates a JMH benchmark class with one parameterised benchmark per entry in Model.ALGORITHMS, and reads
+     * JMH's CSV result format ({@code -rf csv}) back into BenchmarkResults so both harnesses can share a chart.
+     * JMH refuses benchmarks in the default package, so the generated class goes into {@link #PACKAGE}. From there it
+     * cannot name this class, and reaches the registry and the input corpus through {@link #prepare} and {@link #input},
+     * looked up once as method handles. Building it needs jmh-core and JMH's annotation processor (jmh-generator-annprocess).
+     */
+    public static class JmhSupport {
+        public static final String PACKAGE = "algobench.jmh", CLASS_NAME = "AlgoBenchJmh";
+
+        /** "Fibonacci DP" -> "fibonacciDp": the @Benchmark method name used for an algorithm. */
+        public static String methodName(String algo) {
+            StringBuilder sb = new StringBuilder();
+            for (String word : algo.split("[^A-Za-z0-9]+")) {
+                if (word.isEmpty()) continue;
+                String w = word.toLowerCase();
+                sb.append(sb.length() == 0 ? w : Character.toUpperCase(w.charAt(0)) + w.substring(1));
+            }
+            return sb.toString();
+        }
+
+        /** Harness entry point: the cell's kernel, as measureCell would prepare it. {@code threads} is ignored for sequential algorithms. */
+        public static Kernel prepare(String algo, int size, int threads) {
+            BenchAlgorithm algorithm = AlgorithmRegistry.get(algo);
+            return algorithm.isParallel() ? algorithm.prepare(size, threads) : algorithm.prepare(size);
+        }
+
+        /** Harness entry point: the same input an in-app sweep with {@code seed} measures for (size, order). */
+        public static int[] input(int size, String order, long seed) throws IOException {
+            try (InputCorpus corpus = new InputCorpus(new Model(), seed, InputCorpus.Storage.HEAP)) { int[] data = new int[size]; corpus.copyInto(size, order, data); return data; }
+        }
+
+        /** Source of {@code PACKAGE.CLASS_NAME}: sizes from the sweep, every data order, inputs from {@code seed}. */
+        public static String generate(int min, int max, int step, long seed) {
+            StringBuilder src = new StringBuilder();
+            src.append("package ").append(PACKAGE).append(";\n\n")
+               .append("import java.lang.invoke.MethodHandle;\nimport java.lang.invoke.MethodHandles;\nimport java.lang.invoke.MethodType;\n")
+               .append("import java.util.concurrent.TimeUnit;\n")
+               .append("import org.openjdk.jmh.annotations.*;\nimport org.openjdk.jmh.infra.Blackhole;\n\n")
+               .append("/**\n * Generated by AlgorithmPerformanceVisualizer$Cli --emit-jmh from Model.ALGORITHMS; regenerate instead of editing.\n")
+               .append(" * AlgorithmPerformanceVisualizer lives in the default package, which a named package cannot import, so kernels and\n")
+               .append(" * inputs come through method handles on its JmhSupport. Each trial builds its input once from SEED, the same input\n")
+               .append(" * an in-app sweep with that seed uses; every invocation gets a fresh copy of it (Level.Invocation), so\n")
+               .append(" * sub-microsecond cells carry JMH's per-invocation overhead.\n */\n")
+               .append("@BenchmarkMode(Mode.AverageTime)\n@OutputTimeUnit(TimeUnit.NANOSECONDS)\n")
+               .append("@Warmup(iterations = 5, time = 1)\n@Measurement(iterations = 10, time = 1)\n@Fork(1)\n")
+               .append("public class ").append(CLASS_NAME).append(" {\n")
+               .append("    static final long SEED = ").append(seed).append("L;\n")
+               .append("    static final MethodHandle PREPARE, INPUT, SETUP, RUN, CLOSE;\n")
+               .append("    static {\n")
+               .append("        try {\n")
+               .append("            MethodHandles.Lookup lookup = MethodHandles.publicLookup();\n")
+               .append("            Class<?> support = Class.forName(\"AlgorithmPerformanceVisualizer$JmhSupport\"), kernel = Class.forName(\"AlgorithmPerformanceVisualizer$Kernel\");\n")
+               .append("            PREPARE = lookup.findStatic(support, \"prepare\", MethodType.methodType(kernel, String.class, int.class, int.class)).asType(MethodType.methodType(Object.class, String.class, int.class, int.class));\n")
+               .append("            INPUT = lookup.findStatic(support, \"input\", MethodType.methodType(int[].class, int.class, String.class, long.class));\n")
+               .append("            SETUP = lookup.findVirtual(kernel, \"setup\", MethodType.methodType(void.class, int[].class)).asType(MethodType.methodType(void.class, Object.class, int[].class));\n")
+               .append("            RUN = lookup.findVirtual(kernel, \"run\", MethodType.methodType(long.class, int[].class)).asType(MethodType.methodType(long.class, Object.class, int[].class));\n")
+               .append("            CLOSE = lookup.findVirtual(kernel, \"close\", MethodType.methodType(void.class)).asType(MethodType.methodType(void.class, Object.class));\n")
+               .append("        } catch (ReflectiveOperationException e) { throw new ExceptionInInitializerError(e); }\n")
+               .append("    }\n\n")
+               .append("    /** One cell's kernel and input; subclasses add the @Param axes and open the cell in their trial setup. */\n")
+               .append("    public abstract static class Input {\n")
+               .append("        Object kernel; int[] source, data;\n")
+               .append("        void open(String algo, int size, String order, int threads) throws Throwable {\n")
+               .append("            kernel = (Object) PREPARE.invokeExact(algo, size, threads); source = (int[]) INPUT.invokeExact(size, order, SEED); data = new int[size];\n")
+               .append("        }\n")
+               .append("        @TearDown(Level.Trial) public void close() throws Throwable { CLOSE.invokeExact(kernel); }\n")
+               .append("        @Setup(Level.Invocation) public void setup() throws Throwable { System.arraycopy(source, 0, data, 0, data.length); SETUP.invokeExact(kernel, data); }\n")
+               .append("        long run() throws Throwable { return (long) RUN.invokeExact(kernel, data); }\n")
+               .append("    }\n");
+            String orders = quoteAll(Arrays.asList(Model.ORDERS));
+            for (String algo : Model.ALGORITHMS) {
+                List<String> algoSizes = new ArrayList<>();
+                for (BenchmarkScheduler.Cell c : BenchmarkScheduler.plan(Collections.singletonList(algo), min, max, step)) algoSizes.add(String.valueOf(c.size));
+                if (algoSizes.isEmpty()) algoSizes.add(String.valueOf(Math.min(min, 40)));
+                String m = methodName(algo), state = Character.toUpperCase(m.charAt(0)) + m.substring(1) + "Input";
+                boolean parallel = AlgorithmRegistry.get(algo).isParallel();
+                src.append("\n    @State(Scope.Thread)\n    public static class ").append(state).append(" extends Input {\n")
+                   .append("        @Param({").append(quoteAll(algoSizes)).append("}) public int size;\n")
+                   .append("        @Param({").append(orders).append("}) public String order;\n");
+                if (parallel) src.append("        @Param({\"").append(String.join("\", \"", BenchmarkScheduler.defaultThreadCounts().split(","))).append("\"}) public int threads;\n");
+                src.append("        @Setup(Level.Trial) public void prepare() throws Throwable { open(\"").append(algo).append("\", size, order, ").append(parallel ? "threads" : "0").append("); }\n")
+                   .append("    }\n")
+                   .append("    @Benchmark public void ").append(m).append("(").append(state).append(" in, Blackhole bh) throws Throwable {\n")
+                   .append("        bh.consume(in.run()); bh.consume(in.data);\n")
+                   .append("    }\n");
+            }
+            return src.append("}\n").toString();
+        }
+
+        private static String quoteAll(List<String> values) {
+            StringBuilder sb = new StringBuilder();
+            for (String v : values) sb.append(sb.length() == 0 ? "" : ", ").append('"').append(v).append('"');
+            return sb.toString();
+        }
+
+        /** Parses a JMH {@code -rf csv} file. Scores are converted to ns/op; the error bound becomes min/max. */
+        public static List<BenchmarkResult> parseResults(File f) throws IOException {
+            List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) throw new IOException("Empty JMH result file");
+            List<String> header = splitCsv(lines.get(0));
+            int bench = header.indexOf("Benchmark"), score = header.indexOf("Score"), error = header.indexOf("Score Error (99.9%)"),
+                unit = header.indexOf("Unit"), size = header.indexOf("Param: size"), order = header.indexOf("Param: order"), threads = header.indexOf("Param: threads");
+            if (bench < 0 || score < 0 || unit < 0 || size < 0) throw new IOException("Not a JMH CSV result file (needs Benchmark, Score, Unit and Param: size)");
+
+            Map<String, String> algoByMethod = new HashMap<>();
+            for (String algo : Model.ALGORITHMS) algoByMethod.put(methodName(algo), algo);
+            Set<String> orders = new HashSet<>();
+            List<List<String>> rows = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.trim().isEmpty()) continue;
+                List<String> row = splitCsv(line); rows.add(row);
+                if (order >= 0) orders.add(row.get(order));
+            }
+
+            List<BenchmarkResult> results = new ArrayList<>();
+            for (List<String> row : rows) {
+                String name = row.get(bench), method = name.substring(name.lastIndexOf('.') + 1);
+                String algo = algoByMethod.getOrDefault(method, method);
+                String label = algo + (orders.size() > 1 ? " (JMH, " + row.get(order) + ")" : " (JMH)");
+                double value = parseDouble(row.get(score)), err = error >= 0 ? parseDouble(row.get(error)) : 0;
+                double ns = toNanosPerOp(value, row.get(unit)), nsErr = value > 0 && !Double.isNaN(err) ? ns * err / value : 0;
+                long t = Math.round(ns);
+                BenchmarkResult r = new BenchmarkResult(label, (int) parseDouble(row.get(size)), t, t, Math.max(0, Math.round(ns - nsErr)), Math.round(ns + nsErr), 0);
+                if (threads >= 0 && !row.get(threads).isEmpty()) r.threads = (int) parseDouble(row.get(threads));
+                results.add(r);
+            }
+            results.sort(Comparator.comparing(BenchmarkResult::seriesName).thenComparingInt(r -> r.size));
+            return results;
+        }
+
+        static double toNanosPerOp(double score, String unit) {
+            switch (unit) {
+                case "ns/op": return score;
+                case "us/op": return score * 1e3;
+                case "ms/op": return score * 1e6;
+                case "s/op": return score * 1e9;
+                case "ops/ns": return 1 / score;
+                case "ops/us": return 1e3 / score;
+                case "ops/ms": return 1e6 / score;
+                case "ops/s": return 1e9 / score;
+                default: throw new IllegalArgumentException("Unsupported JMH unit: " + unit);
+            }
+        }
+
+        private static double parseDouble(String v) {
+            try { return Double.parseDouble(v.replace(',', '.')); } catch (NumberFormatException e) { return Double.NaN; }
+        }
+
+        /** Splits one CSV line, honouring double-quoted fields (JMH quotes every header and string cell). */
+        static List<String> splitCsv(String line) {
+            List<String> out = new ArrayList<>(); StringBuilder cur = new StringBuilder(); boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (ch == '"') { if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; } else quoted = !quoted; }
+                else if (ch == ',' && !quoted) { out.add(cur.toString()); cur.setLength(0); }
+                else cur.append(ch);
+            }
+            out.add(cur.toString());
+            return out;
+        }
+    }
+
+    // =====================================================================================
+    // HEADLESS CLI / BATCH MODE
+    // =====================================================================================
+    /**
+     * Command-line entry point that drives the Model and BenchmarkScheduler without Swing.
+     * Launch it as {@code java -cp <classes> 'AlgorithmPerformanceVisualizer$Cli' ...}: the outer class is a JFrame,
+     * so starting through it would initialise AWT. Nothing reachable from here may touch the outer class's statics.
+     */
+    static class Cli {
+        static final String USAGE = String.join("\n",
+                "Usage: java -cp <classes> 'AlgorithmPerformanceVisualizer$Cli' [options]",
+                "  --algos <a,b,...|all>   Algorithms to run (default: Merge Sort,Quick Sort)",
+                "  --min <n> --max <n> --step <n>   Input size sweep (default: 1000..20000 step 1000)",
+                "  --order <name>          One of: " + String.join(", ", Model.ORDERS) + " (default: Random)",
+                "  --runs <n>              Fixed number of timed runs per cell instead of adaptive sampling",
+                "  --target-error <pct>    Stop a cell once the median's 95% CI is within ±pct of it (default: 2)",
+                "  --budget-ms <ms>        Per-cell sampling time budget (default: 2000)",
+                "  --max-runs <n>          Upper bound on adaptive samples per cell (default: " + SamplingPolicy.MAX_RUNS + ")",
+                "  --warmup-ms <ms>        Warmup budget per cell; warmup ends earlier at steady state, 0 times cold runs only (default: " + WarmupPolicy.DEFAULT.budgetNanos / 1_000_000 + ")",
+                "  --workers <n>           Parallel benchmark workers (default: available cores)",
+                "  --isolate               Run at most one heavy cell at a time",
+                "  --threads <1,2,4,...>   Thread counts swept for parallel algorithms (default: " + BenchmarkScheduler.defaultThreadCounts() + ")",
+                "  --seed <n>              Input corpus seed; reuse a printed seed to replay a run (default: random)",
+                "  --corpus <heap|offheap|mapped>   Where the cached inputs live (default: heap)",
+                "  --format <csv|json>     Output format, JSON is one object per line (default: csv)",
+                "  --out <file>            Write results to a file instead of stdout",
+                "  --emit-jmh <file>       Write a JMH benchmark class (package algobench.jmh) for every algorithm over the size sweep, with inputs from --seed, and exit",
+                "  --jfr <dir>             Record every cell with Flight Recorder into <dir> and log a profile summary (forces one worker)",
+                "  --count-ops             Also count comparisons, swaps, array accesses, depth and allocations with one instrumented run per cell",
+                "  --baseline <csv>        Compare every cell with a previous CSV export; exits with 3 if any cell regressed",
+                "  --regression-threshold <pct>   Median slowdown that counts as a regression (default: 5)",
+                "  --alpha <p>             Significance level of the per-cell Welch t-test (default: 0.05)");
+
+        public static void main(String[] args) {
+            try { System.exit(run(args)); }
+            catch (IllegalArgumentException e) { System.err.println("Error: " + e.getMessage()); System.err.println(USAGE); System.exit(2); }
+        }
+
+        static int run(String[] args) {
+            List<String> algos = new ArrayList<>(Arrays.asList("Merge Sort", "Quick Sort"));
+            int min = 1000, max = 20000, step = 1000, runs = 0, maxRuns = SamplingPolicy.MAX_RUNS, budgetMs = 2000, workers = Runtime.getRuntime().availableProcessors();
+            long warmupMs = WarmupPolicy.DEFAULT.budgetNanos / 1_000_000;
+            double targetError = 2;
+            double regressionThreshold = RegressionGate.DEFAULT_THRESHOLD * 100, alpha = RegressionGate.DEFAULT_ALPHA;
+            String order = "Random", format = "csv", out = null, emitJmh = null, baseline = null, jfr = null; boolean isolate = false, countOps = false;
+            long seed = new Random().nextLong(); InputCorpus.Storage storage = InputCorpus.Storage.HEAP;
+            int[] threadCounts = BenchmarkScheduler.parseThreadCounts(BenchmarkScheduler.defaultThreadCounts());
+
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--algos": {
+                        String v = value(args, ++i, arg);
+                        algos = v.equalsIgnoreCase("all") ? new ArrayList<>(Arrays.asList(Model.ALGORITHMS)) : new ArrayList<>();
+                        if (!v.equalsIgnoreCase("all")) for (String a : v.split(",")) algos.add(a.trim());
+                        break;
+                    }
+                    case "--min": min = intValue(args, ++i, arg); break;
+                    case "--max": max = intValue(args, ++i, arg); break;
+                    case "--step": step = intValue(args, ++i, arg); break;
+                    case "--runs": runs = intValue(args, ++i, arg); break;
+                    case "--max-runs": maxRuns = intValue(args, ++i, arg); break;
+                    case "--budget-ms": budgetMs = intValue(args, ++i, arg); break;
+                    case "--warmup-ms": warmupMs = intValue(args, ++i, arg); break;
+                    case "--target-error": targetError = doubleValue(args, ++i, arg); break;
+                    case "--baseline": baseline = value(args, ++i, arg); break;
+                    case "--regression-threshold": regressionThreshold = doubleValue(args, ++i, arg); break;
+                    case "--alpha": alpha = doubleValue(args, ++i, arg); break;
+                    case "--workers": workers = intValue(args, ++i, arg); break;
+                    case "--order": order = value(args, ++i, arg); break;
+                    case "--format": format = value(args, ++i, arg).toLowerCase(); break;
+                    case "--out": out = value(args, ++i, arg); break;
+                    case "--emit-jmh": emitJmh = value(args, ++i, arg); break;
+                    case "--jfr": jfr = value(args, ++i, arg); break;
+                    case "--isolate": isolate = true; break;
+                    case "--count-ops": countOps = true; break;
+                    case "--threads": {
+                        String v = value(args, ++i, arg);
+                        try { threadCounts = BenchmarkScheduler.parseThreadCounts(v); } catch (NumberFormatException e) { throw new IllegalArgumentException("Invalid thread counts '" + v + "'"); }
+                        break;
+                    }
+                    case "--seed": {
+                        String v = value(args, ++i, arg);
+                        try { seed = Long.parseLong(v.trim()); } catch (NumberFormatException e) { throw new IllegalArgumentException("Expected a number for " + arg); }
+                        break;
+                    }
+                    case "--corpus": {
+                        String v = value(args, ++i, arg).toLowerCase();
+                        if (v.equals("heap")) storage = InputCorpus.Storage.HEAP;
+                        else if (v.equals("offheap")) storage = InputCorpus.Storage.OFF_HEAP;
+                        else if (v.equals("mapped")) storage = InputCorpus.Storage.MAPPED;
+                        else throw new IllegalArgumentException("Unknown corpus storage '" + v + "'");
+                        break;
+                    }
+                    case "--help": case "-h": System.out.println(USAGE); return 0;
+                    default: throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            for (String a : algos) if (!Arrays.asList(Model.ALGORITHMS).contains(a)) throw new IllegalArgumentException("Unknown algorithm '" + a + "'");
+            if (!Arrays.asList(Model.ORDERS).contains(order)) throw new IllegalArgumentException("Unknown order '" + order + "'");
+            InputDistributions.checkMaxSize(order, max);
+            if (!format.equals("csv") && !format.equals("json")) throw new IllegalArgumentException("Unknown format '" + format + "'");
+            if (min <= 0 || max < min || step <= 0 || runs < 0 || workers <= 0) throw new IllegalArgumentException("Invalid input ranges");
+            SamplingPolicy policy = (runs > 0 ? SamplingPolicy.fixed(runs) : SamplingPolicy.adaptive(targetError / 100, budgetMs, maxRuns)).withWarmup(new WarmupPolicy(warmupMs));
+
+            if (emitJmh != null) {
+                try {
+                    Path target = Paths.get(emitJmh);
+                    if (target.getParent() != null) Files.createDirectories(target.getParent());
+                    Files.write(target, JmhSupport.generate(min, max, step, seed).getBytes(StandardCharsets.UTF_8));
+                }
+                catch (IOException e) { System.err.println("Could not write " + emitJmh + ": " + e.getMessage()); return 1; }
+                System.err.println("Wrote " + JmhSupport.PACKAGE + "." + JmhSupport.CLASS_NAME + " (input seed " + seed + ") to " + emitJmh);
+                return 0;
+            }
+            RegressionGate gate = null;
+            if (baseline != null) {
+                try { gate = new RegressionGate(RegressionGate.readBaseline(new File(baseline)), regressionThreshold / 100, alpha, baseline); }
+                catch (IOException e) { System.err.println("Could not read baseline " + baseline + ": " + e.getMessage()); return 1; }
+            }
+
+            FlightRecorderProbe profiler = null;
+            if (jfr != null) {
+                if (!FlightRecorderProbe.isAvailable()) { System.err.println("Flight Recorder is not available in this JVM"); return 1; }
+                try { profiler = new FlightRecorderProbe(Paths.get(jfr)); } catch (IOException e) { System.err.println("Could not create " + jfr + ": " + e.getMessage()); return 1; }
+                if (workers > 1) System.err.println("Flight Recorder profiling runs on one worker");
+                workers = 1;
+            }
+
+            Model model = new Model();
+            BenchmarkScheduler scheduler = new BenchmarkScheduler(workers, isolate);
+            final String fOrder = order; final boolean json = format.equals("json"); final FlightRecorderProbe fProfiler = profiler;
+            System.err.println("Input seed: " + seed + ", sampling: " + policy.describe());
+            if (algos.stream().anyMatch(a -> AlgorithmRegistry.get(a).info().category.equals("Data-Parallel") || a.endsWith("(SIMD)"))) System.err.println(VectorKernels.describe());
+            int[] noisy = {0};
+            try (PrintWriter pw = out == null ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) : new PrintWriter(out, "UTF-8");
+                 InputCorpus corpus = new InputCorpus(model, seed, storage); TelemetrySampler telemetry = new TelemetrySampler(TelemetrySampler.DEFAULT_PERIOD_MS, null)) {
+                if (!json) pw.println(BenchmarkResult.CSV_HEADER);
+                pw.flush();
+                BenchmarkScheduler.CellTask timed = cell -> model.measureCell(cell.algorithm, cell.size, cell.threads, fOrder, policy, corpus);
+                BenchmarkScheduler.CellTask task = countOps ? cell -> OperationCounts.annotate(timed.measure(cell), fOrder, corpus) : timed;
+                scheduler.run(BenchmarkScheduler.plan(algos, min, max, step, threadCounts), fProfiler == null ? task : cell -> fProfiler.record(cell, task), (index, r) -> {
+                    telemetry.annotate(r);
+                    if (r.profile != null) System.err.println("JFR " + r.seriesName() + " @ " + r.size + ": " + r.profile.describe() + " -> " + r.jfrFile);
+                    if (r.telemetry != null && r.telemetry.isNoisy()) { noisy[0]++; System.err.println("Noisy cell " + r.seriesName() + " @ " + r.size + ": " + r.telemetry.noise); }
+                    model.addResult(r.seriesName(), r);
+                    pw.println(json ? r.toJson() : r.toCsv()); pw.flush();
+                });
+            } catch (Exception e) {
+                System.err.println("Benchmark failed: " + e); return 1;
+            }
+            System.err.printf("Finished in %.2f s on %d workers (parallelism %.2fx), %d noisy cell(s)%n", scheduler.getWallNanos() / 1e9, scheduler.getWorkers(), scheduler.getParallelism(), noisy[0]);
+            return gate == null ? 0 : reportRegressions(gate, model);
+        }
 
-    static class BenchmarkResult {
-        String algorithm; int size;
-        long avgTime, medianTime, minTime, maxTime, memoryBytes;
-        public BenchmarkResult(String a, int s, long avg, long med, long min, long max, long mem) {
-            algorithm=a; size=s; avgTime=avg; medianTime=med; minTime=min; maxTime=max; memoryBytes=mem;
+        /** Prints every cell that moved against the baseline to stderr; returns 3 if any regressed, for CI pipelines. */
+        static int reportRegressions(RegressionGate gate, Model model) {
+            System.err.println("Baseline: " + gate.describe());
+            int regressions = 0, improvements = 0, unmatched = 0;
+            for (RegressionGate.Comparison c : gate.compareAll(model.getResults().values())) {
+                switch (c.verdict) {
+                    case REGRESSION: regressions++; break;
+                    case IMPROVEMENT: improvements++; break;
+                    case NEW: unmatched++; continue;
+                    default: continue;
+                }
+                System.err.printf("  %-11s %s @ %d: %s -> %s  %s%n", c.verdict, c.current.seriesName(), c.current.size,
+                        Units.formatTime(c.baseline.medianTime), Units.formatTime(c.current.medianTime), c);
+            }
+            System.err.printf("%d regression(s), %d improvement(s), %d cell(s) not in baseline%n", regressions, improvements, unmatched);
+            return regressions > 0 ? 3 : 0;
         }
-    }
 
-    static class RunHistory {
-        String timestamp, algorithms, config;
-        Map<String, List<BenchmarkResult>> data;
-        public RunHistory(String algos, String conf, Map<String, List<BenchmarkResult>> d) {
-            timestamp = new SimpleDateFormat("HH:mm:ss dd/MM").format(new Date());
-            algorithms = algos; config = conf; data = new LinkedHashMap<>(d);
+        private static String value(String[] args, int i, String opt) {
+            if (i >= args.length) throw new IllegalArgumentException("Missing value for " + opt);
+            return args[i];
+        }
+        private static int intValue(String[] args, int i, String opt) {
+            try { return Integer.parseInt(value(args, i, opt).trim()); }
+            catch (NumberFormatException e) { throw new IllegalArgumentException("Expected a number for " + opt); }
+        }
+        private static double doubleValue(String[] args, int i, String opt) {
+            try { return Double.parseDouble(value(args, i, opt).trim()); }
+            catch (NumberFormatException e) { throw new IllegalArgumentException("Expected a number for " + opt); }
         }
     }
 
     // =====================================================================================
-    // MVC: MODEL
+    // VISUALISATION: Operation Trace Recording
     // =====================================================================================
-    static class Model {
-        public static final String[] ALGORITHMS = {
-                "Linear Search", "Binary Search", "Bubble Sort", "Selection Sort",
-                "Insertion Sort", "Merge Sort", "Quick Sort", "Heap Sort", 
-                "Counting Sort", "Radix Sort", "Fibonacci Recursive", "Fibonacci DP"
-        };
-        public static final String[] ORDERS = {"Random", "Ascending", "Descending", "Almost Sorted"};
-        public static final int MEASURE_RUNS = 50;
+    /**
+     * Compare, swap and write operations of one visualised sort, recorded at full speed so playback is decoupled from
+     * the algorithm. Each operation is two ints: the kind in the top two bits over the first index, then the second
+     * index (compare, swap) or the old value XOR the new one (write). Every operation is therefore its own inverse,
+     * and seeking backwards replays the same operations in reverse order with no snapshots.
+     */
+    static final class OperationTrace {
+        static final int COMPARE = 0, SWAP = 1, WRITE = 2;
+        /** Longest trace kept, in operations (8 bytes each); longer sorts stop here and are marked truncated. */
+        static final int MAX_OPS = Math.max(1 << 16, Integer.getInteger("vis.trace.max", 1 << 23));
+        private static final int INDEX_MASK = (1 << 30) - 1;
 
-        private final Map<String, List<BenchmarkResult>> results = new LinkedHashMap<>();
-        public final List<RunHistory> history = new ArrayList<>();
+        final String algorithm; final int[] initial; int[] finalState;
+        private int[] ops, args; private int length;
+        long compares, swaps, writes, recordNanos; boolean truncated;
 
-        public void clearResults() { results.clear(); }
-        public void addResult(String algo, BenchmarkResult res) { results.computeIfAbsent(algo, k -> new ArrayList<>()).add(res); }
-        public Map<String, List<BenchmarkResult>> getResults() { return results; }
-        public void saveToHistory(String algos, String conf) { history.add(0, new RunHistory(algos, conf, results)); }
+        private OperationTrace(String algorithm, int[] initial) {
+            this.algorithm = algorithm; this.initial = initial.clone();
+            ops = new int[Math.min(MAX_OPS, Math.max(1024, initial.length * 4))]; args = new int[ops.length];
+        }
 
-        public int[] generateInputData(int size, String order) {
-            int[] data = new int[size]; Random random = new Random();
-            for (int i = 0; i < size; i++) data[i] = random.nextInt(Math.max(10, size * 10));
-            switch (order) {
-                case "Ascending": Arrays.sort(data); break;
-                case "Descending":
-                    Arrays.sort(data); for (int i = 0; i < size / 2; i++) { int t = data[i]; data[i] = data[size - 1 - i]; data[size - 1 - i] = t; } break;
-                case "Almost Sorted":
-                    Arrays.sort(data); for (int i = 0; i < Math.max(1, size / 20); i++) { int idx1 = random.nextInt(size), idx2 = random.nextInt(size); int t = data[idx1]; data[idx1] = data[idx2]; data[idx2] = t; } break;
-            } return data;
+        /** Runs {@code algorithm}'s visualisation on a copy of {@code input}; interrupting the calling thread aborts it. */
+        static OperationTrace record(BenchAlgorithm algorithm, int[] input) throws InterruptedException {
+            if (input.length > INDEX_MASK) throw new IllegalArgumentException("Arrays over " + INDEX_MASK + " elements cannot be traced");
+            OperationTrace trace = new OperationTrace(algorithm.name(), input);
+            Recorder recorder = trace.new Recorder(input.clone());
+            long start = System.nanoTime();
+            try { algorithm.visualize(recorder.live, recorder); }
+            catch (TraceFull e) { trace.truncated = true; }
+            recorder.reconcileAll();
+            trace.recordNanos = System.nanoTime() - start;
+            trace.finalState = recorder.shadow;
+            return trace;
         }
 
-        public void runAlgoPrepared(String algorithm, int[] data, int target, int size) {
-            switch (algorithm) {
-                case "Linear Search": linearSearch(data, target); break;
-                case "Binary Search": binarySearch(data, target); break;
-                case "Bubble Sort": bubbleSort(data); break;
-                case "Selection Sort": selectionSort(data); break;
-                case "Insertion Sort": insertionSort(data); break;
-                case "Merge Sort": mergeSort(data); break;
-                case "Quick Sort": quickSort(data, 0, data.length - 1); break;
-                case "Heap Sort": heapSort(data); break;
-                case "Counting Sort": countingSort(data); break;
-                case "Radix Sort": radixSort(data); break;
-                case "Fibonacci Recursive": fibonacciRecursive(size); break;
-                case "Fibonacci DP": fibonacciDP(size); break;
+        int length() { return length; }
+        int kind(int op) { return ops[op] >>> 30; }
+        int first(int op) { return ops[op] & INDEX_MASK; }
+        /** Second index of a compare or swap (-1 if the probe gave none); -1 for writes. */
+        int second(int op) { return kind(op) == WRITE ? -1 : args[op]; }
+
+        /** Applies operation {@code op} to {@code a}; applying it again undoes it. Returns false for compares. */
+        boolean apply(int[] a, int op) {
+            int i = ops[op] & INDEX_MASK;
+            switch (ops[op] >>> 30) {
+                case SWAP: { int j = args[op], t = a[i]; a[i] = a[j]; a[j] = t; return true; }
+                case WRITE: a[i] ^= args[op]; return true;
+                default: return false;
+            }
+        }
+
+        /** Operation counts per (time bin, index bin), time-major: where in the array the sort worked, and when. */
+        int[] accessMap(int timeBins, int indexBins) {
+            int[] counts = new int[timeBins * indexBins]; int n = Math.max(1, initial.length);
+            for (int op = 0; op < length; op++) {
+                int row = (int) ((long) op * timeBins / length) * indexBins;
+                counts[row + (int) ((long) first(op) * indexBins / n)]++;
+                int j = second(op); if (j >= 0) counts[row + (int) ((long) j * indexBins / n)]++;
+            }
+            return counts;
+        }
+
+        String describe() {
+            return String.format("%s: %,d ops (%,d compares, %,d swaps, %,d writes) on %,d elements, recorded in %s%s", algorithm, length, compares, swaps, writes,
+                    initial.length, Units.formatTime(recordNanos), truncated ? " | truncated at the " + String.format("%,d", MAX_OPS) + "-op limit" : "");
+        }
+
+        private void append(int kind, int i, int arg) throws TraceFull { if (length >= MAX_OPS) throw new TraceFull(); push(kind, i, arg); }
+
+        /** Unbounded append; only the final catch-up writes of a truncated trace go past MAX_OPS. */
+        private void push(int kind, int i, int arg) {
+            if (length == ops.length) { int cap = length < MAX_OPS ? (int) Math.min(MAX_OPS, 2L * length) : length + 1024; ops = Arrays.copyOf(ops, cap); args = Arrays.copyOf(args, cap); }
+            ops[length] = kind << 30 | i; args[length++] = arg;
+        }
+
+        /** Thrown through the sort to stop it once the trace is full; what was recorded so far stays playable. */
+        private static final class TraceFull extends InterruptedException {}
+
+        /**
+         * The probe handed to the sort. {@code shadow} is the array as the trace describes it; sorts that write the
+         * array directly instead of through {@link VisProbe#write} are caught up whenever they touch an index again.
+         */
+        private final class Recorder implements VisProbe {
+            final int[] live, shadow;
+            Recorder(int[] live) { this.live = live; this.shadow = live.clone(); }
+
+            private void checkInterrupt() throws InterruptedException { if ((length & 0xFFFF) == 0 && Thread.currentThread().isInterrupted()) throw new InterruptedException(); }
+            private void reconcile(int i) throws TraceFull { if (i >= 0 && live[i] != shadow[i]) { append(WRITE, i, live[i] ^ shadow[i]); shadow[i] = live[i]; writes++; } }
+            void reconcileAll() { for (int i = 0; i < live.length; i++) if (live[i] != shadow[i]) { push(WRITE, i, live[i] ^ shadow[i]); shadow[i] = live[i]; writes++; } }
+
+            @Override public void tick(int current, int comparing) throws InterruptedException { compare(current, comparing); }
+            @Override public void compare(int i, int j) throws InterruptedException { checkInterrupt(); reconcile(i); reconcile(j); append(COMPARE, i, j); compares++; }
+            @Override public void swap(int[] a, int i, int j) throws InterruptedException {
+                checkInterrupt(); reconcile(i); reconcile(j); append(SWAP, i, j); swaps++;
+                int t = a[i]; a[i] = a[j]; a[j] = t; shadow[i] = a[i]; shadow[j] = a[j];
+            }
+            @Override public void write(int[] a, int i, int value) throws InterruptedException {
+                checkInterrupt(); append(WRITE, i, shadow[i] ^ value); writes++; a[i] = value; shadow[i] = value;
             }
         }
-        
-        // --- Core Algorithms ---
-        private int linearSearch(int[] arr, int t) { for (int i=0; i<arr.length; i++) if (arr[i]==t) return i; return -1; }
-        private int binarySearch(int[] arr, int t) { int l = 0, r = arr.length - 1; while (l <= r) { int m = l + (r - l) / 2; if (arr[m] == t) return m; if (arr[m] < t) l = m + 1; else r = m - 1; } return -1; }
-        private void bubbleSort(int[] arr) { for (int i = 0; i < arr.length - 1; i++) { boolean swapped = false; for (int j = 0; j < arr.length - i - 1; j++) if (arr[j] > arr[j + 1]) { int t = arr[j]; arr[j] = arr[j + 1]; arr[j + 1] = t; swapped = true; } if (!swapped) break; } }
-        private void selectionSort(int[] arr) { for (int i = 0; i < arr.length - 1; i++) { int min = i; for (int j = i + 1; j < arr.length; j++) if (arr[j] < arr[min]) min = j; int t = arr[min]; arr[min] = arr[i]; arr[i] = t; } }
-        private void insertionSort(int[] arr) { for (int i = 1; i < arr.length; ++i) { int key = arr[i], j = i - 1; while (j >= 0 && arr[j] > key) { arr[j + 1] = arr[j]; j--; } arr[j + 1] = key; } }
-        private void mergeSort(int[] arr) { if (arr.length > 1) { int mid = arr.length / 2; int[] l = Arrays.copyOfRange(arr, 0, mid), r = Arrays.copyOfRange(arr, mid, arr.length); mergeSort(l); mergeSort(r); int i = 0, j = 0, k = 0; while (i < l.length && j < r.length) arr[k++] = (l[i] < r[j]) ? l[i++] : r[j++]; while (i < l.length) arr[k++] = l[i++]; while (j < r.length) arr[k++] = r[j++]; } }
-        private void quickSort(int[] arr, int low, int high) { if (low < high) { int pivot = arr[high], i = low - 1; for (int j = low; j < high; j++) if (arr[j] < pivot) { i++; int t = arr[i]; arr[i] = arr[j]; arr[j] = t; } int t = arr[i + 1]; arr[i + 1] = arr[high]; arr[high] = t; quickSort(arr, low, i); quickSort(arr, i + 2, high); } }
-        private void heapSort(int[] arr) { int n = arr.length; for (int i = n / 2 - 1; i >= 0; i--) heapify(arr, n, i); for (int i = n - 1; i > 0; i--) { int t = arr[0]; arr[0] = arr[i]; arr[i] = t; heapify(arr, i, 0); } }
-        private void heapify(int[] arr, int n, int i) { int max = i, l = 2 * i + 1, r = 2 * i + 2; if (l < n && arr[l] > arr[max]) max = l; if (r < n && arr[r] > arr[max]) max = r; if (max != i) { int t = arr[i]; arr[i] = arr[max]; arr[max] = t; heapify(arr, n, max); } }
-        private void countingSort(int[] arr) { if(arr.length == 0) return; int max = arr[0]; for (int i = 1; i < arr.length; i++) if (arr[i] > max) max = arr[i]; int[] count = new int[max + 1], output = new int[arr.length]; for (int i=0; i<arr.length; i++) count[arr[i]]++; for (int i=1; i<=max; i++) count[i] += count[i - 1]; for (int i = arr.length - 1; i >= 0; i--) { output[count[arr[i]] - 1] = arr[i]; count[arr[i]]--; } System.arraycopy(output, 0, arr, 0, arr.length); }
-        private void radixSort(int[] arr) { if(arr.length == 0) return; int max = arr[0]; for (int i = 1; i < arr.length; i++) if (arr[i] > max) max = arr[i]; for (int exp = 1; max / exp > 0; exp *= 10) { int[] output = new int[arr.length], count = new int[10]; for (int i = 0; i < arr.length; i++) count[(arr[i] / exp) % 10]++; for (int i = 1; i < 10; i++) count[i] += count[i - 1]; for (int i = arr.length - 1; i >= 0; i--) { output[count[(arr[i] / exp) % 10] - 1] = arr[i]; count[(arr[i] / exp) % 10]--; } System.arraycopy(output, 0, arr, 0, arr.length); } }
-        private int fibonacciRecursive(int n) { if (n <= 1) return n; return fibonacciRecursive(n - 1) + fibonacciRecursive(n - 2); }
-        private int fibonacciDP(int n) { if (n <= 1) return n; int a = 0, b = 1, c = 0; for(int i = 2; i <= n; i++) { c = a + b; a = b; b = c; } return c; }
     }
 
     // =====================================================================================
@@ -175,23 +3773,26 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
         
         // Dashboard Components
         Map<String, JCheckBox> algoChecks = new LinkedHashMap<>();
-        JComboBox<String> orderCombo, statCombo;
-        JTextField minSizeField, maxSizeField, stepField;
-        JButton analyzeBtn, reportBtn, selectAllBtn;
-        JProgressBar progressBar;
-        JCheckBox showTheoryCheck;
+        JComboBox<String> orderCombo, statCombo, xAxisCombo;
+        JTextField minSizeField, maxSizeField, stepField, workersField, seedField, threadsField, targetErrorField, budgetField, warmupField, regressionThresholdField;
+        JComboBox<InputCorpus.Storage> corpusCombo;
+        JButton analyzeBtn, reportBtn, importJmhBtn, baselineBtn, selectAllBtn;
+        JProgressBar progressBar; JLabel scalingLabel;
+        JCheckBox showTheoryCheck, isolateHeavyCheck, recordJfrCheck, countOpsCheck;
         InteractiveChartPanel chartPanel;
         JTable resultsTable; DefaultTableModel tableModel;
-        JLabel statMedian, statAvg, statMem;
+        JLabel statMedian, statAvg, statMem, statSamples;
+        JLabel telemetryCpu, telemetryHeap, telemetryGc, telemetryJit, telemetryThreads;
 
         // Visualizer Components
         SortingVisualizerPanel visualizerPanel;
         JComboBox<String> visAlgoCombo;
-        JButton btnPlay, btnPause, btnStep, btnReset;
-        JSlider speedSlider;
+        JButton btnPlay, btnPause, btnStep, btnStepBack, btnReset;
+        JSlider speedSlider; JTextField visSizeField, visSeekField; JLabel visTraceLabel; TraceTimeline traceTimeline;
 
         // History Components
         JList<String> historyList; DefaultListModel<String> historyModel;
+        JComboBox<String> historyAlgoFilter, historyOrderFilter; JTextField historyMinSizeFilter, historyMaxSizeFilter; JCheckBox historyMachineFilter; JLabel historyStatus;
         
         // Encyclopedia Components
         JEditorPane encyContent; JList<String> encyList;
@@ -280,7 +3881,7 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
                     new EmptyBorder(12, 12, 12, 12) // Inner padding
                 )
             ));
-            hwPanel.setMaximumSize(new Dimension(200, 180));
+            hwPanel.setMaximumSize(new Dimension(200, 300));
 
             JLabel title = new JLabel("System Telemetry");
             title.setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -304,17 +3905,34 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             hwPanel.add(Box.createRigidArea(new Dimension(0, 6)));
             hwPanel.add(createHwRow("\u25B6", "Java " + jvm)); // Arrow for Java
 
+            // Live rows, refreshed by the controller's telemetry sampler
+            hwPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+            JLabel live = new JLabel("Live"); live.setFont(new Font("Segoe UI", Font.BOLD, 11)); live.setForeground(ACCENT); live.setAlignmentX(Component.LEFT_ALIGNMENT);
+            hwPanel.add(live);
+            for (JLabel l : new JLabel[]{telemetryCpu = new JLabel("CPU --"), telemetryHeap = new JLabel("Heap --"), telemetryGc = new JLabel("GC --"), telemetryJit = new JLabel("JIT --"), telemetryThreads = new JLabel("Threads --")}) {
+                hwPanel.add(Box.createRigidArea(new Dimension(0, 6))); hwPanel.add(createHwRow("\u2022", l));
+            }
+
             return hwPanel;
         }
 
-        private JPanel createHwRow(String icon, String text) {
+        void showTelemetry(TelemetrySampler.Snapshot s) {
+            telemetryCpu.setText(Double.isNaN(s.processCpu) ? "CPU n/a" : String.format("CPU %.0f%% proc / %.0f%% sys", s.processCpu * 100, s.systemCpu * 100));
+            telemetryHeap.setText(String.format("Heap %s / %s", formatMemory(s.heapUsed), formatMemory(s.heapMax)));
+            telemetryGc.setText(String.format("GC %d (%d ms)", s.gcCount, s.gcTimeMs));
+            telemetryJit.setText(String.format("JIT %d ms compiling", s.jitMs));
+            telemetryThreads.setText(s.threads + " live threads");
+        }
+
+        private JPanel createHwRow(String icon, String text) { return createHwRow(icon, new JLabel(text)); }
+
+        private JPanel createHwRow(String icon, JLabel textLbl) {
             JPanel row = new JPanel(new BorderLayout(8, 0));
             row.setBackground(BG_DARK);
             row.setAlignmentX(Component.LEFT_ALIGNMENT);
             
             JLabel iconLbl = new JLabel(icon);
             iconLbl.setForeground(ACCENT);
-            JLabel textLbl = new JLabel(text);
             textLbl.setFont(new Font("Segoe UI", Font.PLAIN, 11));
             textLbl.setForeground(TEXT_MUTED);
             
@@ -346,16 +3964,34 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             gbc.gridy=4; gbc.gridx=0; controls.add(new JLabel("Max Size:"), gbc); gbc.gridx=1; controls.add(maxSizeField = new JTextField("20000"), gbc);
             gbc.gridy=5; gbc.gridx=0; controls.add(new JLabel("Step Size:"), gbc); gbc.gridx=1; controls.add(stepField = new JTextField("1000"), gbc);
             gbc.gridy=6; gbc.gridx=0; controls.add(new JLabel("Data Order:"), gbc); gbc.gridx=1; controls.add(orderCombo = new JComboBox<>(Model.ORDERS), gbc);
-            
-            showTheoryCheck = new JCheckBox("Show Theoretical O(n) Curves (On Hover)"); showTheoryCheck.setSelected(true);
-            gbc.gridy=7; gbc.gridx=0; gbc.gridwidth=2; controls.add(showTheoryCheck, gbc);
+            gbc.gridy=7; gbc.gridx=0; controls.add(new JLabel("Workers:"), gbc); gbc.gridx=1; controls.add(workersField = new JTextField(String.valueOf(Runtime.getRuntime().availableProcessors())), gbc);
+            gbc.gridy=8; gbc.gridx=0; controls.add(new JLabel("Seed (blank = random):"), gbc); gbc.gridx=1; controls.add(seedField = new JTextField(""), gbc);
+            gbc.gridy=9; gbc.gridx=0; controls.add(new JLabel("Input Corpus:"), gbc); gbc.gridx=1; controls.add(corpusCombo = new JComboBox<>(InputCorpus.Storage.values()), gbc);
+            gbc.gridy=10; gbc.gridx=0; controls.add(new JLabel("Parallel Threads:"), gbc); gbc.gridx=1; controls.add(threadsField = new JTextField(BenchmarkScheduler.defaultThreadCounts()), gbc);
+            gbc.gridy=11; gbc.gridx=0; controls.add(new JLabel("Target Median CI (±%):"), gbc); gbc.gridx=1; controls.add(targetErrorField = new JTextField("2"), gbc);
+            gbc.gridy=12; gbc.gridx=0; controls.add(new JLabel("Cell Budget (ms):"), gbc); gbc.gridx=1; controls.add(budgetField = new JTextField("2000"), gbc);
+            gbc.gridy=13; gbc.gridx=0; controls.add(new JLabel("Warmup Budget (ms):"), gbc); gbc.gridx=1; controls.add(warmupField = new JTextField(String.valueOf(WarmupPolicy.DEFAULT.budgetNanos / 1_000_000)), gbc);
+            gbc.gridy=14; gbc.gridx=0; controls.add(new JLabel("Regression Threshold (%):"), gbc); gbc.gridx=1; controls.add(regressionThresholdField = new JTextField(String.valueOf(RegressionGate.DEFAULT_THRESHOLD * 100)), gbc);
+
+            isolateHeavyCheck = new JCheckBox("Isolate Heavy Cells (One At A Time)");
+            gbc.gridy=15; gbc.gridx=0; gbc.gridwidth=2; controls.add(isolateHeavyCheck, gbc);
+            recordJfrCheck = new JCheckBox("Record JFR Per Cell (One Worker)"); recordJfrCheck.setEnabled(FlightRecorderProbe.isAvailable());
+            gbc.gridy=16; controls.add(recordJfrCheck, gbc);
+            countOpsCheck = new JCheckBox("Count Operations (Deterministic)"); countOpsCheck.setToolTipText("After each cell's timed runs, run an instrumented copy once to count comparisons, swaps, array accesses, recursion depth and allocations");
+            gbc.gridy=17; controls.add(countOpsCheck, gbc);
+            showTheoryCheck = new JCheckBox("Show Fitted Complexity Curves"); showTheoryCheck.setSelected(true);
+            gbc.gridy=18; controls.add(showTheoryCheck, gbc);
 
             analyzeBtn = createStyledButton("Run Analytics", ACCENT); analyzeBtn.setForeground(BG_DARK);
             reportBtn = createStyledButton("Export Report (HTML/CSV)", BG_DARK);
-            gbc.gridy=8; controls.add(analyzeBtn, gbc); gbc.gridy=9; controls.add(reportBtn, gbc);
+            importJmhBtn = createStyledButton("Import JMH Results (CSV)", BG_DARK);
+            baselineBtn = createStyledButton("Compare to Baseline (CSV)", BG_DARK);
+            gbc.gridy=19; controls.add(analyzeBtn, gbc); gbc.gridy=20; controls.add(reportBtn, gbc); gbc.gridy=21; controls.add(importJmhBtn, gbc); gbc.gridy=22; controls.add(baselineBtn, gbc);
 
             progressBar = new JProgressBar(); progressBar.setVisible(false); progressBar.setForeground(ACCENT);
-            gbc.gridy=10; controls.add(progressBar, gbc);
+            gbc.gridy=23; controls.add(progressBar, gbc);
+            scalingLabel = new JLabel(" "); scalingLabel.setForeground(TEXT_MUTED); scalingLabel.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            gbc.gridy=24; controls.add(scalingLabel, gbc);
             
             // Main Dashboard Area (Center)
             JPanel center = new JPanel(new BorderLayout(10, 10)); center.setBackground(BG_DARK);
@@ -364,15 +4000,18 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             JPanel stats = new JPanel(new GridLayout(1, 4, 15, 0)); stats.setBackground(BG_DARK);
             statMedian = createStatCard(stats, "Aggregate Median", "--");
             statAvg = createStatCard(stats, "Aggregate Average", "--");
-            statMem = createStatCard(stats, "Peak Memory Used", "--");
-            createStatCard(stats, "Sample Iterations", String.valueOf(Model.MEASURE_RUNS));
+            statMem = createStatCard(stats, "Max Allocated / Run", "--");
+            statSamples = createStatCard(stats, "Samples (Last Cell)", "--");
             center.add(stats, BorderLayout.NORTH);
 
             // Interactive Chart Wrapper with Statistic Selector
             JPanel chartControlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
             chartControlPanel.setBackground(BG_DARK);
             JLabel statLbl = new JLabel("Plot Statistic: "); statLbl.setForeground(TEXT_MAIN);
-            statCombo = new JComboBox<>(new String[]{"Median Time", "Avg Time", "Min Time", "Max Time"});
+            statCombo = new JComboBox<>(new String[]{"Median Time", "Avg Time", "Min Time", "Max Time", "Cold Start Time", "p50 Time", "p90 Time", "p99 Time", "p99.9 Time", "Allocated Memory", "Max Allocated / Run", "Comparisons", "Swaps", "Array Reads", "Array Writes", "Recursion Depth", "Aux Elements Allocated", "ns / Query", "Queries / Second"});
+            JLabel xAxisLbl = new JLabel("X Axis: "); xAxisLbl.setForeground(TEXT_MAIN);
+            xAxisCombo = new JComboBox<>(new String[]{"Input Size", "Threads: Speedup", "Threads: Efficiency"});
+            chartControlPanel.add(xAxisLbl); chartControlPanel.add(xAxisCombo);
             chartControlPanel.add(statLbl); chartControlPanel.add(statCombo);
             
             JPanel chartWrapper = new JPanel(new BorderLayout());
@@ -381,20 +4020,46 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             chartWrapper.add(chartControlPanel, BorderLayout.NORTH);
             chartWrapper.add(chartPanel, BorderLayout.CENTER);
             
-            String[] cols = {"Algorithm", "Input Size", "Median Time", "Avg Time", "Min Time", "Max Time", "Memory"};
+            String[] cols = {"Algorithm", "Input Size", "Threads", "Median Time", "Avg Time", "Min Time", "Max Time", "Cold Start (warmup)", "Throughput", "Alloc/Run", "Max Alloc/Run", "GC (count / ms)", "Median 95% CI", "Samples", "CV", "Conditions", "vs Baseline"};
             tableModel = new DefaultTableModel(cols, 0) { @Override public boolean isCellEditable(int r, int c) { return false; } };
             resultsTable = new JTable(tableModel); resultsTable.setRowHeight(25); resultsTable.setGridColor(BORDER_COLOR);
-            DefaultTableCellRenderer rr = new DefaultTableCellRenderer(); rr.setHorizontalAlignment(JLabel.RIGHT);
-            for(int i=1; i<7; i++) resultsTable.getColumnModel().getColumn(i).setCellRenderer(rr);
+            resultsTable.setToolTipText("Double-click a row for the cell's latency distribution and Flight Recorder profile");
+            resultsTable.getColumnModel().getColumn(0).setCellRenderer(new ResultCellRenderer(JLabel.LEFT));
+            for(int i=1; i<cols.length; i++) resultsTable.getColumnModel().getColumn(i).setCellRenderer(new ResultCellRenderer(JLabel.RIGHT));
             
             JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, chartWrapper, new JScrollPane(resultsTable));
             split.setResizeWeight(0.7); split.setBorder(null); split.setDividerSize(5);
 
             center.add(split, BorderLayout.CENTER);
-            p.add(controls, BorderLayout.WEST); p.add(center, BorderLayout.CENTER);
+            // The control column outgrows short screens, so it scrolls instead of squeezing the algorithm grid
+            JScrollPane controlScroll = new JScrollPane(controls, ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+            controlScroll.setBorder(null); controlScroll.getViewport().setBackground(BG_DARK); controlScroll.getVerticalScrollBar().setUnitIncrement(16);
+            p.add(controlScroll, BorderLayout.WEST); p.add(center, BorderLayout.CENTER);
             return p;
         }
 
+        /** Tints a whole row by the baseline verdict held in its last column, and marks cells measured under noisy conditions. */
+        static class ResultCellRenderer extends DefaultTableCellRenderer {
+            static final Color REGRESSION = new Color(243, 139, 168, 70), IMPROVEMENT = new Color(166, 227, 161, 70), NOISY = new Color(230, 150, 30);
+            ResultCellRenderer(int alignment) { setHorizontalAlignment(alignment); }
+            @Override public Component getTableCellRendererComponent(JTable table, Object value, boolean selected, boolean focus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, selected, focus, row, column);
+                setToolTipText(value != null ? value.toString() : null);
+                if (!selected) setForeground(value instanceof String && ((String) value).startsWith(NOISY_MARK) ? NOISY : table.getForeground());
+                if (selected) return this;
+                Object verdict = table.getValueAt(row, table.getColumnCount() - 1);
+                RegressionGate.Verdict v = verdict instanceof RegressionGate.Comparison ? ((RegressionGate.Comparison) verdict).verdict : null;
+                setBackground(v == RegressionGate.Verdict.REGRESSION ? blend(table.getBackground(), REGRESSION) : v == RegressionGate.Verdict.IMPROVEMENT ? blend(table.getBackground(), IMPROVEMENT) : table.getBackground());
+                return this;
+            }
+            private static Color blend(Color base, Color tint) {
+                float a = tint.getAlpha() / 255f;
+                return new Color(Math.round(base.getRed() * (1 - a) + tint.getRed() * a), Math.round(base.getGreen() * (1 - a) + tint.getGreen() * a), Math.round(base.getBlue() * (1 - a) + tint.getBlue() * a));
+            }
+        }
+
+        static final String NOISY_MARK = "\u26A0 ";
+
         private JButton createStyledButton(String text, Color bg) {
             JButton b = new JButton(text); b.setFont(new Font("Segoe UI", Font.BOLD, 12));
             b.setBackground(bg); b.setForeground(TEXT_MAIN); b.setFocusPainted(false);
@@ -415,16 +4080,27 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             JPanel top = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10)); top.setBackground(BG_PANEL);
             top.setBorder(new LineBorder(BORDER_COLOR, 1, true));
 
-            visAlgoCombo = new JComboBox<>(new String[]{"Bubble Sort", "Selection Sort", "Insertion Sort", "Merge Sort", "Quick Sort", "Heap Sort"});
+            visAlgoCombo = new JComboBox<>();
+            for (BenchAlgorithm a : AlgorithmRegistry.all()) if (a.canVisualize()) visAlgoCombo.addItem(a.name());
             btnPlay = createStyledButton("Play", ACCENT); btnPlay.setForeground(BG_DARK);
-            btnPause = createStyledButton("Pause", BG_DARK); btnStep = createStyledButton("Step", BG_DARK); btnReset = createStyledButton("Reset", BG_DARK);
+            btnPause = createStyledButton("Pause", BG_DARK); btnStep = createStyledButton("Step", BG_DARK); btnStepBack = createStyledButton("Step Back", BG_DARK); btnReset = createStyledButton("Reset", BG_DARK);
             speedSlider = new JSlider(1, 100, 50); speedSlider.setBackground(BG_PANEL);
+            visSizeField = new JTextField(String.valueOf(SortingVisualizerPanel.DEFAULT_SIZE), 7); visSizeField.setToolTipText("Elements to sort, up to " + SortingVisualizerPanel.MAX_SIZE + "; press Enter to apply");
             
-            top.add(new JLabel("Algorithm:")); top.add(visAlgoCombo); top.add(btnReset); top.add(btnPlay); top.add(btnPause); top.add(btnStep);
+            top.add(new JLabel("Algorithm:")); top.add(visAlgoCombo); top.add(new JLabel("Size:")); top.add(visSizeField); top.add(btnReset); top.add(btnPlay); top.add(btnPause); top.add(btnStepBack); top.add(btnStep);
             top.add(new JLabel("Speed:")); top.add(speedSlider);
-            
+
+            JPanel bottom = new JPanel(new BorderLayout(10, 6)); bottom.setBackground(BG_DARK);
+            traceTimeline = new TraceTimeline();
+            JPanel seekRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0)); seekRow.setBackground(BG_DARK);
+            visSeekField = new JTextField(10); visSeekField.setToolTipText("Operation index to jump to; press Enter to seek");
+            visTraceLabel = new JLabel(" "); visTraceLabel.setForeground(TEXT_MUTED);
+            JLabel seekLabel = new JLabel("Seek to op:"); seekLabel.setForeground(TEXT_MAIN);
+            seekRow.add(seekLabel); seekRow.add(visSeekField); seekRow.add(visTraceLabel);
+            bottom.add(traceTimeline, BorderLayout.CENTER); bottom.add(seekRow, BorderLayout.SOUTH);
+
             visualizerPanel = new SortingVisualizerPanel(this);
-            p.add(top, BorderLayout.NORTH); p.add(visualizerPanel, BorderLayout.CENTER);
+            p.add(top, BorderLayout.NORTH); p.add(visualizerPanel, BorderLayout.CENTER); p.add(bottom, BorderLayout.SOUTH);
             return p;
         }
 
@@ -446,8 +4122,23 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             JPanel p = new JPanel(new BorderLayout(10,10)); p.setBackground(BG_DARK); p.setBorder(new EmptyBorder(20,20,20,20));
             historyModel = new DefaultListModel<>();
             historyList = new JList<>(historyModel); historyList.setBackground(BG_PANEL); historyList.setForeground(TEXT_MAIN);
-            historyList.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            historyList.setFont(new Font("Segoe UI", Font.PLAIN, 14)); historyList.setFixedCellHeight(28);
+            historyList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+            // Filters map onto the store's indexes: algorithm, measured size range, data order and machine fingerprint
+            JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT)); filters.setBackground(BG_DARK);
+            String[] algoChoices = new String[Model.ALGORITHMS.length + 1]; algoChoices[0] = "All Algorithms"; System.arraycopy(Model.ALGORITHMS, 0, algoChoices, 1, Model.ALGORITHMS.length);
+            String[] orderChoices = new String[Model.ORDERS.length + 1]; orderChoices[0] = "All Orders"; System.arraycopy(Model.ORDERS, 0, orderChoices, 1, Model.ORDERS.length);
+            filters.add(new JLabel("Algorithm:")); filters.add(historyAlgoFilter = new JComboBox<>(algoChoices));
+            filters.add(new JLabel("Size from:")); filters.add(historyMinSizeFilter = new JTextField(7));
+            filters.add(new JLabel("to:")); filters.add(historyMaxSizeFilter = new JTextField(7));
+            filters.add(new JLabel("Order:")); filters.add(historyOrderFilter = new JComboBox<>(orderChoices));
+            historyMachineFilter = new JCheckBox("This JVM & Machine Only"); historyMachineFilter.setBackground(BG_DARK); filters.add(historyMachineFilter);
+            historyStatus = new JLabel(" "); historyStatus.setForeground(TEXT_MUTED); historyStatus.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+
+            p.add(filters, BorderLayout.NORTH);
             p.add(new JScrollPane(historyList), BorderLayout.CENTER);
+            p.add(historyStatus, BorderLayout.SOUTH);
             return p;
         }
     }
@@ -458,29 +4149,58 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
     static class Controller {
         private final Model model; private final View view; private final JFrame frame;
         private BenchmarkWorker currentWorker;
+        private final TelemetrySampler telemetry;
 
         public Controller(Model model, View view, JFrame frame) {
             this.model = model; this.view = view; this.frame = frame;
+            telemetry = new TelemetrySampler(TelemetrySampler.DEFAULT_PERIOD_MS, s -> SwingUtilities.invokeLater(() -> view.showTelemetry(s)));
             
             view.analyzeBtn.addActionListener(e -> startBenchmark());
             view.reportBtn.addActionListener(e -> exportReport());
+            view.importJmhBtn.addActionListener(e -> importJmhResults());
+            view.baselineBtn.addActionListener(e -> compareToBaseline());
+            view.regressionThresholdField.addActionListener(e -> applyRegressionThreshold());
             view.selectAllBtn.addActionListener(e -> {
                 boolean allSelected = view.algoChecks.values().stream().allMatch(JCheckBox::isSelected);
                 view.algoChecks.values().forEach(cb -> cb.setSelected(!allSelected));
             });
             view.showTheoryCheck.addActionListener(e -> view.chartPanel.setShowTheory(view.showTheoryCheck.isSelected()));
             view.statCombo.addActionListener(e -> view.chartPanel.setStatistic((String)view.statCombo.getSelectedItem()));
+            view.xAxisCombo.addActionListener(e -> view.chartPanel.setXAxis((String)view.xAxisCombo.getSelectedItem()));
+            view.chartPanel.setPointListener(this::showCellDetails);
+            view.resultsTable.addMouseListener(new MouseAdapter() {
+                @Override public void mouseClicked(MouseEvent e) {
+                    int row = view.resultsTable.rowAtPoint(e.getPoint());
+                    if (e.getClickCount() == 2 && row >= 0 && row < tableResults.size()) showCellDetails(tableResults.get(row));
+                }
+            });
 
             // Visualizer Listeners
             view.btnPlay.addActionListener(e -> view.visualizerPanel.play());
             view.btnPause.addActionListener(e -> view.visualizerPanel.pause());
             view.btnStep.addActionListener(e -> view.visualizerPanel.step());
+            view.btnStepBack.addActionListener(e -> view.visualizerPanel.stepBack());
+            view.visSizeField.addActionListener(e -> view.visualizerPanel.reset((String)view.visAlgoCombo.getSelectedItem()));
+            view.traceTimeline.setSeekListener(op -> { view.visualizerPanel.pause(); view.visualizerPanel.seek(op); });
+            view.visSeekField.addActionListener(e -> {
+                try { view.visualizerPanel.pause(); view.visualizerPanel.seek(Integer.parseInt(view.visSeekField.getText().trim().replace(",", ""))); }
+                catch (NumberFormatException ex) { JOptionPane.showMessageDialog(frame, "Enter an operation index."); }
+            });
             view.btnReset.addActionListener(e -> view.visualizerPanel.reset((String)view.visAlgoCombo.getSelectedItem()));
             view.visAlgoCombo.addActionListener(e -> view.visualizerPanel.reset((String)view.visAlgoCombo.getSelectedItem()));
 
             // Encyc Listeners
             view.encyList.addListSelectionListener(e -> updateEncyclopedia());
             view.encyList.setSelectedIndex(0);
+
+            // History Listeners
+            view.historyAlgoFilter.addActionListener(e -> refreshHistory());
+            view.historyOrderFilter.addActionListener(e -> refreshHistory());
+            view.historyMachineFilter.addActionListener(e -> refreshHistory());
+            view.historyMinSizeFilter.addActionListener(e -> refreshHistory());
+            view.historyMaxSizeFilter.addActionListener(e -> refreshHistory());
+            view.historyList.addListSelectionListener(e -> { if (!e.getValueIsAdjusting()) showHistoryRun(); });
+            refreshHistory();
         }
 
         private void startBenchmark() {
@@ -491,65 +4211,182 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
 
             try {
                 int min = Integer.parseInt(view.minSizeField.getText()), max = Integer.parseInt(view.maxSizeField.getText()), step = Integer.parseInt(view.stepField.getText());
-                if (min <= 0 || max <= min || step <= 0) throw new NumberFormatException();
+                int workers = view.recordJfrCheck.isSelected() ? 1 : Integer.parseInt(view.workersField.getText().trim());
+                int[] threadCounts = BenchmarkScheduler.parseThreadCounts(view.threadsField.getText());
+                SamplingPolicy policy = SamplingPolicy.adaptive(Double.parseDouble(view.targetErrorField.getText().trim()) / 100, Long.parseLong(view.budgetField.getText().trim()))
+                        .withWarmup(new WarmupPolicy(Long.parseLong(view.warmupField.getText().trim())));
+                long seed = view.seedField.getText().trim().isEmpty() ? new Random().nextLong() : Long.parseLong(view.seedField.getText().trim());
+                if (min <= 0 || max <= min || step <= 0 || workers <= 0) throw new NumberFormatException();
+                String order = (String) view.orderCombo.getSelectedItem();
+                try { InputDistributions.checkMaxSize(order, max); } catch (IllegalArgumentException e) { JOptionPane.showMessageDialog(frame, e.getMessage()); return; }
                 
-                boolean hasSlow = selected.stream().anyMatch(a -> a.contains("Bubble") || a.contains("Selection") || a.contains("Insertion"));
+                boolean hasSlow = selected.stream().anyMatch(a -> AlgorithmRegistry.get(a).info().averageTime.equals("O(n²)"));
                 if (hasSlow && max > 20000 && JOptionPane.showConfirmDialog(frame, "O(n²) algorithms selected with size > 20,000. Continue?", "Warning", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
 
+                FlightRecorderProbe profiler = null;
+                if (view.recordJfrCheck.isSelected()) {
+                    try { profiler = new FlightRecorderProbe(Files.createTempDirectory("algobench-jfr")); }
+                    catch (IOException e) { JOptionPane.showMessageDialog(frame, "Could not create a directory for Flight Recorder files: " + e.getMessage()); return; }
+                }
+
                 view.analyzeBtn.setEnabled(false); view.progressBar.setVisible(true);
-                view.tableModel.setRowCount(0); model.clearResults(); view.chartPanel.clearData();
+                clearTable(); model.clearResults(); view.chartPanel.clearData();
 
-                currentWorker = new BenchmarkWorker(selected, min, max, step, (String) view.orderCombo.getSelectedItem());
+                BenchmarkScheduler scheduler = new BenchmarkScheduler(workers, view.isolateHeavyCheck.isSelected());
+                InputCorpus corpus = new InputCorpus(model, seed, (InputCorpus.Storage) view.corpusCombo.getSelectedItem());
+                currentWorker = new BenchmarkWorker(selected, min, max, step, threadCounts, order, policy, scheduler, corpus, profiler, view.countOpsCheck.isSelected());
                 currentWorker.execute();
             } catch (Exception e) { JOptionPane.showMessageDialog(frame, "Invalid input ranges."); }
         }
 
         class BenchmarkWorker extends SwingWorker<Void, Object[]> {
-            List<String> algos; int min, max, step; String order; long totalOps, currentOp = 0; BenchmarkResult lastResult;
-            public BenchmarkWorker(List<String> a, int min, int max, int step, String order) {
-                this.algos = a; this.min = min; this.max = max; this.step = step; this.order = order;
-                totalOps = algos.size() * (((max - min) / step) + 1);
+            List<String> algos; int min, max, step; int[] threadCounts; String order; long totalOps, currentOp = 0; BenchmarkResult lastResult;
+            final SamplingPolicy policy; final BenchmarkScheduler scheduler; final InputCorpus corpus; final FlightRecorderProbe profiler; final boolean countOps;
+            public BenchmarkWorker(List<String> a, int min, int max, int step, int[] threadCounts, String order, SamplingPolicy policy, BenchmarkScheduler scheduler, InputCorpus corpus, FlightRecorderProbe profiler, boolean countOps) {
+                this.algos = a; this.min = min; this.max = max; this.step = step; this.threadCounts = threadCounts; this.order = order; this.policy = policy; this.scheduler = scheduler; this.corpus = corpus; this.profiler = profiler; this.countOps = countOps;
             }
             @Override protected Void doInBackground() throws Exception {
-                for (String algo : algos) {
-                    int currentMax = algo.equals("Fibonacci Recursive") ? Math.min(max, 40) : max;
-                    for (int size = min; size <= currentMax; size += step) {
-                        long[] times = new long[Model.MEASURE_RUNS];
-                        for (int i = 0; i < 2; i++) { int[] data = model.generateInputData(Math.min(size, 500), order); model.runAlgoPrepared(algo, data, data.length>0?data[0]:0, Math.min(size, 500)); }
-                        System.gc(); Thread.sleep(5);
-                        long memBefore = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-
-                        for (int i = 0; i < Model.MEASURE_RUNS; i++) {
-                            int[] data = model.generateInputData(size, order); int target = data.length>0 ? data[data.length - 1] : 0;
-                            if (algo.equals("Binary Search")) Arrays.sort(data);
-                            long start = System.nanoTime(); model.runAlgoPrepared(algo, data, target, size); long end = System.nanoTime();
-                            times[i] = end - start;
-                        }
-                        long memAfter = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-                        Arrays.sort(times); long minT = times[0], maxT = times[Model.MEASURE_RUNS-1], median = times[Model.MEASURE_RUNS/2], sum=0;
-                        for(long t:times) sum+=t;
-                        lastResult = new BenchmarkResult(algo, size, sum/Model.MEASURE_RUNS, median, minT, maxT, Math.max(0, memAfter - memBefore));
-                        model.addResult(algo, lastResult); publish(new Object[]{lastResult});
+                List<BenchmarkScheduler.Cell> cells = BenchmarkScheduler.plan(algos, min, max, step, threadCounts);
+                totalOps = cells.size();
+                try {
+                    BenchmarkScheduler.CellTask timed = cell -> model.measureCell(cell.algorithm, cell.size, cell.threads, order, policy, corpus);
+                    BenchmarkScheduler.CellTask task = countOps ? cell -> OperationCounts.annotate(timed.measure(cell), order, corpus) : timed;
+                    scheduler.run(cells, profiler == null ? task : cell -> profiler.record(cell, task), (index, result) -> {
+                        lastResult = result; telemetry.annotate(result);
+                        model.addResult(result.seriesName(), result); publish(new Object[]{result});
                         currentOp++; setProgress((int) ((currentOp * 100) / totalOps));
-                    }
-                } return null;
+                    });
+                } finally { corpus.close(); }
+                return null;
             }
             @Override protected void process(List<Object[]> chunks) {
                 for (Object[] row : chunks) {
                     BenchmarkResult r = (BenchmarkResult) row[0];
-                    view.tableModel.addRow(new Object[]{ r.algorithm, r.size, formatTime(r.medianTime), formatTime(r.avgTime), formatTime(r.minTime), formatTime(r.maxTime), formatMemory(r.memoryBytes) });
+                    addTableRow(r);
                 }
                 view.chartPanel.updateData(model.getResults()); view.progressBar.setValue(getProgress());
-                if (lastResult != null) { view.statMedian.setText(formatTime(lastResult.medianTime)); view.statAvg.setText(formatTime(lastResult.avgTime)); view.statMem.setText(formatMemory(lastResult.memoryBytes)); }
+                if (lastResult != null) { view.statMedian.setText(formatTime(lastResult.medianTime)); view.statAvg.setText(formatTime(lastResult.avgTime)); view.statMem.setText(formatMemory(lastResult.maxAllocBytes)); view.statSamples.setText(String.valueOf(lastResult.samples)); }
             }
             @Override protected void done() {
                 view.analyzeBtn.setEnabled(true); view.progressBar.setVisible(false);
-                String conf = String.format("Size: %d-%d, Order: %s", min, max, order);
-                model.saveToHistory(String.join(", ", algos), conf);
-                view.historyModel.add(0, model.history.get(0).timestamp + " | " + conf + " | Algos: " + String.join(", ", algos));
+                view.scalingLabel.setText(scheduler.describeScaling()); view.scalingLabel.setToolTipText(scheduler.describeWorkers());
+                String conf = String.format("Size: %d-%d, Order: %s, Workers: %d%s, Sampling: %s, Seed: %d", min, max, order, scheduler.getWorkers(), scheduler.isIsolateHeavy() ? " (isolated)" : "", policy.describe(), corpus.getSeed());
+                model.saveToHistory(String.join(", ", algos), conf, order, corpus.getSeed());
+                refreshHistory();
             }
         }
         
+        private Object[] tableRow(BenchmarkResult r) {
+            return new Object[]{ r.algorithm, r.size, r.threads > 0 ? String.valueOf(r.threads) : "-", formatTime(r.medianTime), formatTime(r.avgTime), formatTime(r.minTime), formatTime(r.maxTime),
+                    r.coldTime > 0 ? formatTime(r.coldTime) + " (" + r.warmupRuns + (r.steadyState ? " runs)" : " runs, not steady)") : "-", throughput(r), formatMemory(r.memoryBytes), formatMemory(r.maxAllocBytes), r.gcCount + " / " + r.gcTimeMs,
+                    r.ciHigh > 0 ? formatTime(r.ciLow) + " – " + formatTime(r.ciHigh) : "-", r.samples > 0 ? r.samples + (r.outliers > 0 ? " (−" + r.outliers + ")" : "") : "-",
+                    r.samples > 0 ? String.format("%.1f%%", r.cv * 100) : "-", r.telemetry == null ? "-" : r.telemetry.isNoisy() ? View.NOISY_MARK + r.telemetry.noise : "clean",
+                    model.getBaseline() != null ? model.getBaseline().compare(r) : "-" };
+        }
+
+        private static String throughput(BenchmarkResult r) {
+            return r.queriesPerRun > 0 && r.medianTime > 0 ? formatCount(r.queriesPerSecond()) + " q/s (" + formatTime(r.nsPerQuery()) + "/q)" : "-";
+        }
+
+        // Results behind the table rows, in row order, for the drill-down on double-click
+        private final List<BenchmarkResult> tableResults = new ArrayList<>();
+
+        private void addTableRow(BenchmarkResult r) { tableResults.add(r); view.tableModel.addRow(tableRow(r)); }
+        private void clearTable() { tableResults.clear(); view.tableModel.setRowCount(0); }
+
+        private void reloadTable() {
+            clearTable();
+            for (List<BenchmarkResult> series : model.getResults().values()) for (BenchmarkResult r : series) addTableRow(r);
+        }
+
+        // --- Run History: filtered through the store's indexes, selection reloads the run ---
+        private final List<RunHistory> shownHistory = new ArrayList<>();
+
+        private void refreshHistory() {
+            HistoryStore store = model.getHistoryStore();
+            String algo = view.historyAlgoFilter.getSelectedIndex() > 0 ? (String) view.historyAlgoFilter.getSelectedItem() : null;
+            String order = view.historyOrderFilter.getSelectedIndex() > 0 ? (String) view.historyOrderFilter.getSelectedItem() : null;
+            Integer minSize = parseSizeFilter(view.historyMinSizeFilter), maxSize = parseSizeFilter(view.historyMaxSizeFilter);
+            String fingerprint = view.historyMachineFilter.isSelected() ? HistoryStore.fingerprint() : null;
+            Set<RunHistory> matches = null;
+            if (store != null && (algo != null || order != null || minSize != null || maxSize != null || fingerprint != null)) {
+                try { matches = Collections.newSetFromMap(new IdentityHashMap<>()); matches.addAll(store.query(algo, minSize, maxSize, order, fingerprint)); }
+                catch (IOException e) { matches = null; System.err.println("Run history index unavailable: " + e.getMessage()); }
+            }
+            shownHistory.clear(); List<String> labels = new ArrayList<>();
+            for (RunHistory r : model.history) {
+                if (matches != null && !matches.contains(r)) continue;
+                shownHistory.add(r); labels.add(r.timestamp() + " | " + r.config + " | Algos: " + r.algorithms);
+            }
+            // One bulk model swap instead of an event per row keeps tens of thousands of runs instant
+            DefaultListModel<String> listModel = new DefaultListModel<>(); listModel.addAll(labels);
+            view.historyModel = listModel; view.historyList.setModel(listModel);
+            view.historyStatus.setText(String.format("%d of %d runs | %s", shownHistory.size(), model.history.size(), store != null ? "Stored in " + store.getFile() : "Not persisted (history store unavailable)"));
+        }
+
+        private Integer parseSizeFilter(JTextField field) {
+            try { return field.getText().trim().isEmpty() ? null : Integer.valueOf(field.getText().trim()); }
+            catch (NumberFormatException e) { return null; }
+        }
+
+        private void showHistoryRun() {
+            int i = view.historyList.getSelectedIndex();
+            if (i < 0 || i >= shownHistory.size()) return;
+            if (currentWorker != null && !currentWorker.isDone()) { JOptionPane.showMessageDialog(frame, "Wait for the running benchmark to finish before loading a past run."); return; }
+            try {
+                model.loadResults(model.historyData(shownHistory.get(i)));
+                reloadTable(); view.chartPanel.updateData(model.getResults());
+            } catch (IOException e) { JOptionPane.showMessageDialog(frame, "Could not load run: " + e.getMessage()); }
+        }
+
+        // --- JMH Import: adds JMH series next to the in-app measurements ---
+        private void importJmhResults() {
+            JFileChooser fc = new JFileChooser(); fc.setDialogTitle("Import JMH Results (-rf csv)");
+            if (fc.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                List<BenchmarkResult> imported = JmhSupport.parseResults(fc.getSelectedFile());
+                for (BenchmarkResult r : imported) {
+                    model.addResult(r.seriesName(), r);
+                    addTableRow(r);
+                }
+                view.chartPanel.updateData(model.getResults());
+                JOptionPane.showMessageDialog(frame, "Imported " + imported.size() + " JMH results.");
+            } catch (Exception e) { JOptionPane.showMessageDialog(frame, "Import failed: " + e.getMessage()); }
+        }
+
+        // --- Regression Gate: aligns a baseline CSV export with the current results ---
+        private void compareToBaseline() {
+            JFileChooser fc = new JFileChooser(); fc.setDialogTitle("Compare to Baseline (CSV export)");
+            if (fc.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                RegressionGate gate = new RegressionGate(RegressionGate.readBaseline(fc.getSelectedFile()), parseRegressionThreshold(), RegressionGate.DEFAULT_ALPHA, fc.getSelectedFile().getName());
+                setBaseline(gate);
+                JOptionPane.showMessageDialog(frame, summarizeBaseline(gate));
+            } catch (IOException | IllegalArgumentException e) { JOptionPane.showMessageDialog(frame, "Could not load baseline: " + e.getMessage()); }
+        }
+
+        private void applyRegressionThreshold() {
+            if (model.getBaseline() == null) return;
+            try { setBaseline(model.getBaseline().withThreshold(parseRegressionThreshold())); }
+            catch (IllegalArgumentException e) { JOptionPane.showMessageDialog(frame, "Invalid regression threshold."); }
+        }
+
+        private double parseRegressionThreshold() { return Double.parseDouble(view.regressionThresholdField.getText().trim()) / 100; }
+
+        private void setBaseline(RegressionGate gate) {
+            model.setBaseline(gate); view.chartPanel.setBaseline(gate);
+            if (currentWorker == null || currentWorker.isDone()) reloadTable();
+        }
+
+        private String summarizeBaseline(RegressionGate gate) {
+            int regressions = 0, improvements = 0, matched = 0;
+            for (RegressionGate.Comparison c : gate.compareAll(model.getResults().values())) {
+                if (c.verdict != RegressionGate.Verdict.NEW) matched++;
+                if (c.verdict == RegressionGate.Verdict.REGRESSION) regressions++; else if (c.verdict == RegressionGate.Verdict.IMPROVEMENT) improvements++;
+            }
+            return String.format("Baseline %s\n%d cells matched: %d regression(s), %d improvement(s).", gate.describe(), matched, regressions, improvements);
+        }
+
         // --- Export Engine (HTML/CSV) ---
         private void exportReport() {
             if (model.getResults().isEmpty()) { JOptionPane.showMessageDialog(frame, "No data to export."); return; }
@@ -557,98 +4394,122 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
             fc.setSelectedFile(new File("AlgoBench_Report.html"));
             if (fc.showSaveDialog(frame) == JFileChooser.APPROVE_OPTION) {
                 File f = fc.getSelectedFile();
-                try (PrintWriter pw = new PrintWriter(f)) {
+                try (PrintWriter pw = new PrintWriter(f, "UTF-8")) {
+                    Map<BenchmarkResult, String> recordings = copyRecordings(f);
                     if(f.getName().endsWith(".csv")) {
-                        pw.println("Algorithm,Size,MedianTime_ns,AvgTime_ns,MinTime_ns,MaxTime_ns,Memory_Bytes");
-                        for(List<BenchmarkResult> list : model.getResults().values()) for(BenchmarkResult r : list) pw.printf("%s,%d,%d,%d,%d,%d,%d\n", r.algorithm, r.size, r.medianTime, r.avgTime, r.minTime, r.maxTime, r.memoryBytes);
+                        pw.println(BenchmarkResult.CSV_HEADER);
+                        for(List<BenchmarkResult> list : model.getResults().values()) for(BenchmarkResult r : list) pw.println(r.toCsv());
                     } else {
-                        pw.println("<html><head><style>body{font-family: Arial, sans-serif; padding: 20px;} table{width:100%; border-collapse: collapse; margin-top:20px;} th, td{border: 1px solid #ddd; padding: 8px; text-align: left;} th{background-color: #f2f2f2;} h1, h2{color: #2c3e50;}</style></head><body>");
+                        pw.println("<html><head><meta charset=\"utf-8\"><style>body{font-family: Arial, sans-serif; padding: 20px;} table{width:100%; border-collapse: collapse; margin-top:20px;} th, td{border: 1px solid #ddd; padding: 8px; text-align: left;} th{background-color: #f2f2f2;} h1, h2{color: #2c3e50;}</style></head><body>");
                         pw.println("<h1>Algorithm Benchmark Professional Report</h1><p>Generated by Algorithm Performance Visualizer on " + new Date().toString() + "</p>");
-                        pw.println("<h2>System Environment</h2><p>OS: " + System.getProperty("os.name") + " | Cores: " + Runtime.getRuntime().availableProcessors() + "</p>");
-                        pw.println("<h2>Executive Summary</h2><table><tr><th>Algorithm</th><th>Max Size Tested</th><th>Median Time at Max</th><th>Time Complexity Class</th></tr>");
+                        pw.println("<h2>System Environment</h2><p>OS: " + System.getProperty("os.name") + " | Cores: " + Runtime.getRuntime().availableProcessors() + " | " + VectorKernels.describe() + "</p>");
+                        pw.println("<h2>Executive Summary</h2><p>Empirical class: least-squares fit of median time against c·f(n) for each candidate class on a log scale; c is in ns.</p>");
+                        pw.println("<table><tr><th>Algorithm</th><th>Max Size Tested</th><th>Median Time at Max</th><th>Declared Average Case</th><th>Empirical Class</th><th>Fitted Constant c</th><th>R²</th><th>Log-Log Slope</th></tr>");
                         for (Map.Entry<String, List<BenchmarkResult>> entry : model.getResults().entrySet()) {
                             BenchmarkResult last = entry.getValue().get(entry.getValue().size()-1);
-                            pw.printf("<tr><td>%s</td><td>%d</td><td>%s</td><td>%s</td></tr>", last.algorithm, last.size, formatTime(last.medianTime), getOClass(last.algorithm));
+                            ComplexityFit fit = ComplexityFit.fit(entry.getValue(), r -> r.medianTime);
+                            pw.printf("<tr><td>%s</td><td>%d</td><td>%s</td><td>%s</td>", last.seriesName(), last.size, formatTime(last.medianTime), getOClass(last.algorithm));
+                            if (fit == null) pw.print("<td colspan=\"4\">Needs at least " + ComplexityFit.MIN_POINTS + " sizes</td></tr>");
+                            else pw.printf("<td>%s</td><td>%.3g</td><td>%.3f</td><td>%.2f</td></tr>", fit.best.label, fit.constant, fit.rSquared, fit.exponent);
                         }
-                        pw.println("</table><h2>Detailed Raw Data Matrix</h2><table><tr><th>Algorithm</th><th>Input Size</th><th>Median Time</th><th>Avg Time</th><th>Memory Allocation</th></tr>");
-                        for(List<BenchmarkResult> list : model.getResults().values()) for(BenchmarkResult r : list) pw.printf("<tr><td>%s</td><td>%d</td><td>%s</td><td>%s</td><td>%s</td></tr>", r.algorithm, r.size, formatTime(r.medianTime), formatTime(r.avgTime), formatMemory(r.memoryBytes));
-                        pw.println("</table></body></html>");
+                        pw.println("</table><h2>Detailed Raw Data Matrix</h2><table><tr><th>Algorithm</th><th>Input Size</th><th>Threads</th><th>Median Time</th><th>Avg Time</th><th>Cold Start</th><th>Throughput</th><th>Allocated / Run</th><th>Max Allocated / Run</th><th>GC (count / ms)</th><th>Median 95% CI</th><th>Samples (outliers)</th><th>CV</th></tr>");
+                        for(List<BenchmarkResult> list : model.getResults().values()) for(BenchmarkResult r : list) pw.printf("<tr><td>%s</td><td>%d</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%d / %d</td><td>%s – %s</td><td>%d (%d)</td><td>%.1f%%</td></tr>", r.algorithm, r.size, r.threads > 0 ? String.valueOf(r.threads) : "-", formatTime(r.medianTime), formatTime(r.avgTime), r.coldTime > 0 ? formatTime(r.coldTime) : "-", throughput(r), formatMemory(r.memoryBytes), formatMemory(r.maxAllocBytes), r.gcCount, r.gcTimeMs, formatTime(r.ciLow), formatTime(r.ciHigh), r.samples, r.outliers, r.cv * 100);
+                        pw.println("</table>");
+                        if (model.getResults().values().stream().flatMap(List::stream).anyMatch(r -> r.ops != null)) {
+                            pw.println("<h2>Operation Counts</h2><p>One instrumented run per cell on the same seeded input as the timed runs; identical on any machine.</p>");
+                            pw.println("<table><tr><th>Algorithm</th><th>Input Size</th><th>Comparisons</th><th>Swaps</th><th>Array Reads</th><th>Array Writes</th><th>Calls</th><th>Max Depth</th><th>Aux Allocations</th><th>Aux Elements</th></tr>");
+                            for (List<BenchmarkResult> list : model.getResults().values()) for (BenchmarkResult r : list) if (r.ops != null)
+                                pw.printf("<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td></tr>", r.seriesName(), r.size, r.ops.comparisons, r.ops.swaps, r.ops.reads, r.ops.writes, r.ops.calls, r.ops.maxDepth, r.ops.allocations, r.ops.allocatedElements);
+                            pw.println("</table>");
+                        }
+                        if (!recordings.isEmpty()) {
+                            pw.println("<h2>Flight Recordings</h2><p>One recording per profiled cell, summarised over its timed region only. Open the .jfr files in JDK Mission Control for full stacks.</p>");
+                            for (Map.Entry<BenchmarkResult, String> e : recordings.entrySet()) {
+                                BenchmarkResult r = e.getKey();
+                                pw.printf("<h3>%s @ %d &mdash; <a href=\"%s\">%s</a></h3>%n", r.seriesName(), r.size, e.getValue(), e.getValue());
+                                if (r.profile != null) pw.println(r.profile.toHtml());
+                            }
+                        }
+                        pw.println("</body></html>");
                     }
                     JOptionPane.showMessageDialog(frame, "Report saved! Open the HTML file in any browser to view or print to PDF.");
                 } catch (Exception e) { JOptionPane.showMessageDialog(frame, "Export failed: " + e.getMessage()); }
             }
         }
         
+        /** Copies every cell's .jfr file into a {@code <report>_jfr} directory beside the report; returns the relative link per cell. */
+        private Map<BenchmarkResult, String> copyRecordings(File report) throws IOException {
+            Map<BenchmarkResult, String> links = new LinkedHashMap<>();
+            String base = report.getName().replaceFirst("\\.[^.]+$", "") + "_jfr";
+            Path dir = report.toPath().toAbsolutePath().resolveSibling(base);
+            for (List<BenchmarkResult> list : model.getResults().values()) for (BenchmarkResult r : list) {
+                if (r.jfrFile == null || !Files.exists(r.jfrFile)) continue;
+                Files.createDirectories(dir);
+                Files.copy(r.jfrFile, dir.resolve(r.jfrFile.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                links.put(r, base + "/" + r.jfrFile.getFileName());
+            }
+            return links;
+        }
+
         private String getOClass(String algo) {
-            if(algo.contains("Bubble")||algo.contains("Selection")||algo.contains("Insertion")) return "O(n²)";
-            if(algo.contains("Merge")||algo.contains("Quick")||algo.contains("Heap")) return "O(n log n)";
-            if(algo.contains("Binary")) return "O(log n)";
-            return "O(n)";
+            BenchAlgorithm a = AlgorithmRegistry.find(algo);
+            return a == null ? "N/A" : a.info().averageTime;
         }
 
         // --- Encyclopedia Update ---
+        /** Opens the latency distribution and, for profiled cells, the Flight Recorder summary behind a chart point or table row. */
+        private void showCellDetails(BenchmarkResult r) {
+            boolean hasHistogram = r.histogram != null && r.histogram.total() > 0;
+            if (!hasHistogram && r.profile == null) { JOptionPane.showMessageDialog(frame, "No sample distribution was recorded for this cell (imported results keep only their summary)."); return; }
+            JTabbedPane tabs = new JTabbedPane();
+            if (hasHistogram) tabs.addTab("Latency Distribution", new DistributionPanel(r));
+            if (r.profile != null) {
+                JEditorPane profile = new JEditorPane("text/html", "<html><body style='font-family:Segoe UI, sans-serif; padding:10px; color:#cdd6f4;'>" + r.profile.toHtml()
+                        + "<p style='color:#a6adc8;'>Recording: " + r.jfrFile + "</p></body></html>");
+                profile.setEditable(false); profile.setBackground(BG_PANEL); profile.setCaretPosition(0);
+                JScrollPane scroll = new JScrollPane(profile); scroll.setPreferredSize(new Dimension(760, 420));
+                tabs.addTab("Flight Recording", scroll);
+            }
+            JDialog dialog = new JDialog(frame, "Cell Details: " + r.seriesName() + " @ " + r.size, false);
+            dialog.getContentPane().setBackground(BG_DARK); dialog.add(tabs);
+            dialog.pack(); dialog.setLocationRelativeTo(frame); dialog.setVisible(true);
+        }
+
         private void updateEncyclopedia() {
             String algo = view.encyList.getSelectedValue(); if(algo == null) return;
-            String b="O(1)", a="O(n)", w="O(n)", s="O(1)", st="N/A", ip="N/A", desc="Description missing.";
-            
-            switch (algo) {
-                case "Linear Search": 
-                    b="O(1)"; a="O(n)"; w="O(n)"; s="O(1)"; st="Yes"; ip="Yes"; 
-                    desc="Checks each element sequentially until the target is found. Simple but slow for large datasets."; 
-                    break;
-                case "Binary Search": 
-                    b="O(1)"; a="O(log n)"; w="O(log n)"; s="O(1)"; st="N/A"; ip="Yes"; 
-                    desc="Efficiently finds an item from a sorted list by repeatedly halving the search space."; 
-                    break;
-                case "Bubble Sort": 
-                    b="O(n)"; a="O(n²)"; w="O(n²)"; s="O(1)"; st="Yes"; ip="Yes"; 
-                    desc="Simplest sorting algorithm that repeatedly swaps adjacent elements if they are in the wrong order."; 
-                    break;
-                case "Selection Sort": 
-                    b="O(n²)"; a="O(n²)"; w="O(n²)"; s="O(1)"; st="No"; ip="Yes"; 
-                    desc="Sorts an array by repeatedly finding the minimum element from the unsorted part and moving it to the beginning."; 
-                    break;
-                case "Insertion Sort": 
-                    b="O(n)"; a="O(n²)"; w="O(n²)"; s="O(1)"; st="Yes"; ip="Yes"; 
-                    desc="Builds the final sorted array one item at a time. Highly efficient for small or mostly sorted data."; 
-                    break;
-                case "Merge Sort": 
-                    b="O(n log n)"; a="O(n log n)"; w="O(n log n)"; s="O(n)"; st="Yes"; ip="No"; 
-                    desc="Divide and conquer algorithm that splits the array in halves, sorts them recursively, and merges them back."; 
-                    break;
-                case "Quick Sort": 
-                    b="O(n log n)"; a="O(n log n)"; w="O(n²)"; s="O(log n)"; st="No"; ip="Yes"; 
-                    desc="Partitions the array around a pivot element. Often the fastest general-purpose sort in practice due to cache efficiency."; 
-                    break;
-                case "Heap Sort": 
-                    b="O(n log n)"; a="O(n log n)"; w="O(n log n)"; s="O(1)"; st="No"; ip="Yes"; 
-                    desc="Uses a binary heap data structure to sort elements in-place with guaranteed O(n log n) performance."; 
-                    break;
-                case "Counting Sort": 
-                    b="O(n + k)"; a="O(n + k)"; w="O(n + k)"; s="O(n + k)"; st="Yes"; ip="No"; 
-                    desc="Non-comparison integer sort that operates by counting the number of objects having distinct key values."; 
-                    break;
-                case "Radix Sort": 
-                    b="O(d(n + k))"; a="O(d(n + k))"; w="O(d(n + k))"; s="O(n + k)"; st="Yes"; ip="No"; 
-                    desc="Avoids comparison by distributing elements into buckets according to their individual digits or radix."; 
-                    break;
-                case "Fibonacci Recursive": 
-                    b="O(1)"; a="O(2ⁿ)"; w="O(2ⁿ)"; s="O(n)"; st="N/A"; ip="N/A"; 
-                    desc="Calculates the nth Fibonacci number by recursively calling itself. Demonstrates extreme exponential time overhead."; 
-                    break;
-                case "Fibonacci DP": 
-                    b="O(n)"; a="O(n)"; w="O(n)"; s="O(1)"; st="N/A"; ip="N/A"; 
-                    desc="Calculates the nth Fibonacci number using a bottom-up dynamic programming approach, reducing exponential time to linear time."; 
-                    break;
-            }
-            
+            AlgoInfo info = AlgorithmRegistry.get(algo).info();
+            String b=info.bestTime, a=info.averageTime, w=info.worstTime, s=info.space, st=info.stable, ip=info.inPlace, desc=info.description;
+
             view.encyContent.setText(String.format("<html><body style='font-family:Segoe UI, sans-serif; padding:15px; color:#cdd6f4;'><h2>%s</h2><hr color='#313244'>" +
                 "<p><b>Description:</b> %s</p><br>" +
                 "<table width='100%%' style='border:1px solid #313244; border-collapse:collapse;' cellpadding='8'>" +
                 "<tr style='background-color:#181825;'><td><b>Best Time</b></td><td>%s</td><td><b>Stable</b></td><td>%s</td></tr>" +
                 "<tr><td><b>Avg Time</b></td><td>%s</td><td><b>In-Place</b></td><td>%s</td></tr>" +
                 "<tr style='background-color:#181825;'><td><b>Worst Time</b></td><td>%s</td><td><b>Space</b></td><td>%s</td></tr>" +
-                "</table></body></html>", algo, desc, b, st, a, ip, w, s));
+                "</table>%s</body></html>", algo, desc, b, st, a, ip, w, s, operationCrossCheck(AlgorithmRegistry.get(algo))));
+        }
+
+        // Count sweeps are deterministic, so each algorithm is swept once per session
+        private final Map<String, List<BenchmarkResult>> countSweeps = new HashMap<>();
+
+        /** Encyclopedia section comparing the declared average case with the class fitted to instrumented operation counts. */
+        private String operationCrossCheck(BenchAlgorithm algorithm) {
+            StringBuilder sb = new StringBuilder("<br><h3>Operation Count Cross-Check</h3>");
+            if (!algorithm.canCount()) return sb.append("<p style='color:#a6adc8;'>No instrumented variant is registered for this algorithm.</p>").toString();
+            List<BenchmarkResult> sweep = countSweeps.computeIfAbsent(algorithm.name(), k -> OperationCounts.sweep(algorithm, model));
+            ComplexityFit fit = ComplexityFit.fit(sweep, r -> r.ops.total());
+            ComplexityClass declared = ComplexityClass.parse(algorithm.info().averageTime);
+            if (fit != null) {
+                boolean agrees = fit.best == declared;
+                sb.append(String.format("<p>Comparisons + array reads/writes + calls on seeded random input grow as <b>%s</b> (R² %.3f, log-log slope %.2f). Declared average case %s: <b style='color:%s;'>%s</b>.</p>",
+                        fit.best.label, fit.rSquared, fit.exponent, algorithm.info().averageTime, agrees ? "#a6e3a1" : "#f38ba8", agrees ? "consistent" : "differs"));
+            }
+            sb.append("<table width='100%' style='border:1px solid #313244; border-collapse:collapse;' cellpadding='6'><tr style='background-color:#181825;'><td><b>n</b></td><td><b>Comparisons</b></td><td><b>Swaps</b></td><td><b>Reads</b></td><td><b>Writes</b></td><td><b>Calls</b></td><td><b>Depth</b></td><td><b>Aux Elements</b></td></tr>");
+            for (BenchmarkResult r : sweep) {
+                OperationCounts o = r.ops;
+                sb.append(String.format("<tr><td>%,d</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%d</td><td>%s</td></tr>", r.size, formatCount(o.comparisons), formatCount(o.swaps), formatCount(o.reads), formatCount(o.writes), formatCount(o.calls), o.maxDepth, formatCount(o.allocatedElements)));
+            }
+            return sb.append("</table>").toString();
         }
     }
 
@@ -656,88 +4517,279 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
     // CUSTOM COMPONENTS: Interactive Chart & Visualizer
     // =====================================================================================
     static class InteractiveChartPanel extends JPanel implements MouseMotionListener, MouseListener {
+        private static final Color[] PALETTE = {new Color(137,180,250), new Color(243,139,168), new Color(166,227,161), new Color(249,226,175), new Color(203,166,247), Color.CYAN};
+        private static final Color[] FADED = Arrays.stream(PALETTE).map(c -> new Color(c.getRed(), c.getGreen(), c.getBlue(), 100)).toArray(Color[]::new);
+        private static final Color TOOLTIP_BG = new Color(24, 24, 36, 220);
+        private static final Set<String> COUNT_STATS = new HashSet<>(Arrays.asList("Comparisons", "Swaps", "Array Reads", "Array Writes", "Recursion Depth", "Aux Elements Allocated"));
+        private static final Font AXIS_FONT = new Font("Segoe UI", Font.PLAIN, 11), FIT_FONT = new Font("Segoe UI", Font.PLAIN, 10), NOTE_FONT = new Font("Segoe UI", Font.PLAIN, 12), TOOLTIP_FONT = new Font("Segoe UI", Font.BOLD, 12);
+        private static final BasicStroke AXIS_STROKE = new BasicStroke(2f), SERIES_STROKE = new BasicStroke(2.5f), THIN_STROKE = new BasicStroke(1f),
+                DASHED_STROKE = new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, new float[]{5.0f}, 0.0f);
+
         private Map<String, List<BenchmarkResult>> dataMap = new LinkedHashMap<>();
-        private final Color[] PALETTE = {new Color(137,180,250), new Color(243,139,168), new Color(166,227,161), new Color(249,226,175), new Color(203,166,247), Color.CYAN};
-        private int mouseX = -1, mouseY = -1; private boolean showTheory = true;
+        private boolean showTheory = true;
         
         // Interactive Features
-        private String selectedStat = "Median Time";
+        private String selectedStat = "Median Time", xAxis = "Input Size";
         private Set<String> hiddenAlgos = new HashSet<>();
         private Map<String, Rectangle> legendBounds = new HashMap<>();
 
+        // Grid, axes, series and legend are rendered once into this layer; hovering only blits it and draws the tooltip
+        private BufferedImage layer; private double layerScale;
+        private final HoverIndex hoverIndex = new HoverIndex(); private HoverIndex.Hit hovered;
+        // Fits depend only on the data and statistic, so resizes and legend toggles reuse them
+        private final Map<String, Optional<ComplexityFit>> fitCache = new HashMap<>();
+        private java.util.function.Consumer<BenchmarkResult> pointListener;
+        private RegressionGate baseline;
+        private static final Color REGRESSION_RING = new Color(243, 80, 110), IMPROVEMENT_RING = new Color(120, 225, 120), NOISY_MARKER = new Color(230, 150, 30);
+
         public InteractiveChartPanel() { 
-            setBorder(BorderFactory.createTitledBorder(new LineBorder(BORDER_COLOR), "Interactive Performance Graph (Hover for Details, Click Legend to Toggle)", TitledBorder.LEFT, TitledBorder.TOP, null, ACCENT));
+            setBorder(BorderFactory.createTitledBorder(new LineBorder(BORDER_COLOR), "Interactive Performance Graph (Hover: Details, Click Point: Distribution, Click Legend: Toggle)", TitledBorder.LEFT, TitledBorder.TOP, null, ACCENT));
             setBackground(BG_PANEL); 
             addMouseMotionListener(this);
             addMouseListener(this);
         }
-        public void updateData(Map<String, List<BenchmarkResult>> d) { this.dataMap = new LinkedHashMap<>(d); hiddenAlgos.clear(); repaint(); }
-        public void clearData() { this.dataMap.clear(); hiddenAlgos.clear(); repaint(); }
-        public void setShowTheory(boolean s) { this.showTheory = s; repaint(); }
-        public void setStatistic(String stat) { this.selectedStat = stat; repaint(); }
+        public void updateData(Map<String, List<BenchmarkResult>> d) { this.dataMap = new LinkedHashMap<>(d); hiddenAlgos.clear(); invalidateData(); }
+        public void clearData() { this.dataMap.clear(); hiddenAlgos.clear(); invalidateData(); }
+        public void setShowTheory(boolean s) { this.showTheory = s; invalidateLayer(); }
+        public void setStatistic(String stat) { this.selectedStat = stat; invalidateData(); }
+        public void setXAxis(String axis) { this.xAxis = axis; invalidateLayer(); }
+        /** Draws the baseline's series dotted under the current ones and rings the cells it judges regressed or improved. */
+        public void setBaseline(RegressionGate gate) { this.baseline = gate; invalidateLayer(); }
+        /** Called with the measured result behind a chart point when it is clicked. */
+        public void setPointListener(java.util.function.Consumer<BenchmarkResult> listener) { this.pointListener = listener; }
+        private void invalidateLayer() { layer = null; hovered = null; repaint(); }
+        private void invalidateData() { fitCache.clear(); invalidateLayer(); }
 
         private long getStatValue(BenchmarkResult res) {
             switch(selectedStat) {
                 case "Avg Time": return res.avgTime;
                 case "Min Time": return res.minTime;
                 case "Max Time": return res.maxTime;
+                case "Cold Start Time": return res.coldTime;
+                case "Allocated Memory": return res.memoryBytes;
+                case "Max Allocated / Run": return res.maxAllocBytes;
+                case "Comparisons": return res.ops == null ? 0 : res.ops.comparisons;
+                case "Swaps": return res.ops == null ? 0 : res.ops.swaps;
+                case "Array Reads": return res.ops == null ? 0 : res.ops.reads;
+                case "Array Writes": return res.ops == null ? 0 : res.ops.writes;
+                case "Recursion Depth": return res.ops == null ? 0 : res.ops.maxDepth;
+                case "Aux Elements Allocated": return res.ops == null ? 0 : res.ops.allocatedElements;
+                case "ns / Query": return res.queriesPerRun > 0 ? Math.round(res.nsPerQuery()) : 0;
+                case "Queries / Second": return res.queriesPerRun > 0 ? Math.round(res.queriesPerSecond()) : 0;
+                case "p50 Time": return res.p50;
+                case "p90 Time": return res.p90;
+                case "p99 Time": return res.p99;
+                case "p99.9 Time": return res.p999;
                 default: return res.medianTime;
             }
         }
 
+        private boolean isMemoryStat() { return selectedStat.equals("Allocated Memory") || selectedStat.equals("Max Allocated / Run"); }
+        private boolean isPercentileStat() { return selectedStat.startsWith("p"); }
+        private boolean isCountStat() { return COUNT_STATS.contains(selectedStat); }
+        private boolean isQueryStat() { return selectedStat.equals("ns / Query") || selectedStat.equals("Queries / Second"); }
+        /** Imported results carry no sample distribution or cold start, only counted cells have operation counts, and only searches have a query rate, so those views leave the rest out. */
+        private List<BenchmarkResult> plotted(List<BenchmarkResult> pts) {
+            boolean cold = selectedStat.equals("Cold Start Time"), counts = isCountStat(), queries = isQueryStat();
+            if (!isPercentileStat() && !cold && !counts && !queries) return pts;
+            List<BenchmarkResult> out = new ArrayList<>(pts.size()); for (BenchmarkResult r : pts) if (queries ? r.queriesPerRun > 0 : counts ? r.ops != null : cold ? r.coldTime > 0 : r.p50 > 0) out.add(r);
+            return out;
+        }
+        private String formatValue(double v) { return isMemoryStat() ? formatMemory((long) v) : isCountStat() ? formatCount(v) : selectedStat.equals("Queries / Second") ? formatCount(v) + " q/s" : formatTime(v); }
+
+        /** Polyline of f over [from, to] in chart coordinates; returns the x of its first point. */
+        private int drawCurve(Graphics2D g2d, java.util.function.DoubleUnaryOperator f, int from, int to, int pM, int w, int h, int maxSize, long maxValue) {
+            int prevX = -1, prevY = 0, firstX = -1, steps = 40;
+            for (int i = 0; i <= steps; i++) {
+                double s = from + (double) (to - from) * i / steps;
+                int x = pM + (int)(s/maxSize*(w-2*pM)), y = h - pM - (int)((f.applyAsDouble(s)/maxValue)*(h-2*pM));
+                if (prevX >= 0) g2d.drawLine(prevX, prevY, x, y); else firstX = x;
+                prevX=x; prevY=y;
+            }
+            return firstX;
+        }
+
+        /**
+         * Largest-Triangle-Three-Buckets downsampling to {@code threshold} points. The first and last points are kept; every
+         * bucket in between contributes the point spanning the largest triangle with the previous pick and the next bucket's mean.
+         */
+        static List<BenchmarkResult> lttb(List<BenchmarkResult> pts, java.util.function.ToLongFunction<BenchmarkResult> value, int threshold) {
+            int n = pts.size(); if (threshold < 3 || n <= threshold) return pts;
+            List<BenchmarkResult> out = new ArrayList<>(threshold); out.add(pts.get(0));
+            double every = (double) (n - 2) / (threshold - 2); int a = 0;
+            for (int i = 0; i < threshold - 2; i++) {
+                int avgStart = (int) ((i + 1) * every) + 1, avgEnd = Math.min((int) ((i + 2) * every) + 1, n);
+                double avgX = 0, avgY = 0;
+                for (int j = avgStart; j < avgEnd; j++) { avgX += pts.get(j).size; avgY += value.applyAsLong(pts.get(j)); }
+                avgX /= avgEnd - avgStart; avgY /= avgEnd - avgStart;
+                double ax = pts.get(a).size, ay = value.applyAsLong(pts.get(a)), bestArea = -1; int start = (int) (i * every) + 1, end = (int) ((i + 1) * every) + 1, pick = start;
+                for (int j = start; j < end; j++) {
+                    double area = Math.abs((ax - avgX) * (value.applyAsLong(pts.get(j)) - ay) - (ax - pts.get(j).size) * (avgY - ay));
+                    if (area > bestArea) { bestArea = area; pick = j; }
+                }
+                out.add(pts.get(pick)); a = pick;
+            }
+            out.add(pts.get(n - 1));
+            return out;
+        }
+
+        /** Uniform grid of pixel buckets over the plotted points; a hover query only visits the 3x3 buckets around the cursor. */
+        private static final class HoverIndex {
+            static final int CELL = 16, RADIUS = 10;
+            static final class Hit {
+                final int x, y; final Color color; final BenchmarkResult result; final java.util.function.Supplier<String> label; int next = -1;
+                Hit(int x, int y, Color color, BenchmarkResult result, java.util.function.Supplier<String> label) { this.x = x; this.y = y; this.color = color; this.result = result; this.label = label; }
+            }
+            private final List<Hit> hits = new ArrayList<>(); private int[] heads = new int[0]; private int cols, rows;
+
+            void reset(int w, int h) {
+                hits.clear(); cols = Math.max(1, w / CELL + 1); rows = Math.max(1, h / CELL + 1);
+                if (heads.length < cols * rows) heads = new int[cols * rows];
+                Arrays.fill(heads, 0, cols * rows, -1);
+            }
+            void add(int x, int y, Color color, BenchmarkResult result, java.util.function.Supplier<String> label) {
+                Hit hit = new Hit(x, y, color, result, label); int b = bucket(x / CELL, y / CELL);
+                hit.next = heads[b]; heads[b] = hits.size(); hits.add(hit);
+            }
+            private int bucket(int cx, int cy) { return Math.max(0, Math.min(rows - 1, cy)) * cols + Math.max(0, Math.min(cols - 1, cx)); }
+
+            /** Closest point within RADIUS on both axes, or null. */
+            Hit nearest(int mx, int my) {
+                if (cols == 0) return null;
+                Hit best = null; long bestD = Long.MAX_VALUE; int cx = mx / CELL, cy = my / CELL;
+                for (int y = cy - 1; y <= cy + 1; y++) for (int x = cx - 1; x <= cx + 1; x++) {
+                    if (x < 0 || y < 0 || x >= cols || y >= rows) continue;
+                    for (int i = heads[y * cols + x]; i >= 0; i = hits.get(i).next) {
+                        Hit hit = hits.get(i); int dx = hit.x - mx, dy = hit.y - my;
+                        long d = (long) dx * dx + (long) dy * dy;
+                        if (Math.abs(dx) < RADIUS && Math.abs(dy) < RADIUS && d < bestD) { bestD = d; best = hit; }
+                    }
+                }
+                return best;
+            }
+        }
+
         @Override public void mouseDragged(MouseEvent e) {}
-        @Override public void mouseMoved(MouseEvent e) { mouseX = e.getX(); mouseY = e.getY(); repaint(); }
+        @Override public void mouseMoved(MouseEvent e) {
+            HoverIndex.Hit hit = layer == null ? null : hoverIndex.nearest(e.getX(), e.getY());
+            if (hit != hovered) { hovered = hit; repaint(); }
+        }
         @Override public void mouseClicked(MouseEvent e) {
             for (Map.Entry<String, Rectangle> entry : legendBounds.entrySet()) {
                 if (entry.getValue().contains(e.getPoint())) {
                     if (hiddenAlgos.contains(entry.getKey())) hiddenAlgos.remove(entry.getKey());
                     else hiddenAlgos.add(entry.getKey());
-                    repaint();
+                    invalidateLayer();
                     return;
                 }
             }
+            HoverIndex.Hit hit = layer == null ? null : hoverIndex.nearest(e.getX(), e.getY());
+            if (hit != null && pointListener != null) pointListener.accept(hit.result);
         }
         @Override public void mousePressed(MouseEvent e) {}
         @Override public void mouseReleased(MouseEvent e) {}
         @Override public void mouseEntered(MouseEvent e) {}
-        @Override public void mouseExited(MouseEvent e) {}
+        @Override public void mouseExited(MouseEvent e) { if (hovered != null) { hovered = null; repaint(); } }
 
-        @Override protected void paintComponent(Graphics g) {
-            super.paintComponent(g); if (dataMap.isEmpty()) return;
-            Graphics2D g2d = (Graphics2D) g; g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            int pM = 70, w = getWidth(), h = getHeight(); long maxTime = 1; int maxSize = 1;
-            legendBounds.clear();
+        /** Speedup is a time ratio, so memory and count statistics fall back to the median time. */
+        private long scalingTime(BenchmarkResult r) { return isMemoryStat() || isCountStat() || selectedStat.equals("Queries / Second") ? r.medianTime : getStatValue(r); }
+
+        /**
+         * Thread-scaling view for parallel series: for each algorithm, the largest size measured at every thread count.
+         * Speedup is T(p_min) / T(p); efficiency is speedup scaled by p_min / p, so the ideal lines are y = p / p_min and 100%.
+         */
+        private void paintScaling(Graphics2D g2d, int w, int h, boolean efficiency) {
+            Map<String, TreeMap<Integer, BenchmarkResult>> byAlgo = new LinkedHashMap<>();
+            for (List<BenchmarkResult> series : dataMap.values()) {
+                if (series.isEmpty() || series.get(0).threads <= 0) continue;
+                BenchmarkResult last = series.get(series.size()-1);
+                TreeMap<Integer, BenchmarkResult> points = byAlgo.computeIfAbsent(last.algorithm, k -> new TreeMap<>());
+                BenchmarkResult prev = points.get(last.threads);
+                if (prev == null || last.size > prev.size) points.put(last.threads, last);
+            }
+            g2d.setFont(NOTE_FONT);
+            if (byAlgo.isEmpty()) { g2d.setColor(TEXT_MUTED); g2d.drawString("No parallel algorithms in this run. Select one from the Parallel Sorting family.", 80, 80); return; }
+
+            int pM = 70, minT = Integer.MAX_VALUE, maxT = 1; double maxY = 1.0;
+            Map<String, double[][]> curves = new LinkedHashMap<>();
+            for (Map.Entry<String, TreeMap<Integer, BenchmarkResult>> e : byAlgo.entrySet()) {
+                int base = e.getValue().firstKey(); double baseTime = scalingTime(e.getValue().firstEntry().getValue());
+                double[][] pts = new double[e.getValue().size()][]; int i = 0;
+                for (BenchmarkResult r : e.getValue().values()) {
+                    double speedup = scalingTime(r) > 0 ? baseTime / scalingTime(r) : 0, y = efficiency ? speedup * base / r.threads : speedup;
+                    pts[i++] = new double[]{r.threads, y, r.size};
+                    maxY = Math.max(maxY, y); maxT = Math.max(maxT, r.threads);
+                }
+                minT = Math.min(minT, base);
+                curves.put(e.getKey(), pts);
+            }
+            if (!efficiency) maxY = Math.max(maxY, (double) maxT / minT);
+            maxY *= 1.1;
+
+            g2d.setFont(AXIS_FONT);
+            for (int i = 0; i <= 5; i++) {
+                int y = h - pM - (i * (h - 2 * pM) / 5), x = pM + (i * (w - 2 * pM) / 5);
+                g2d.setColor(BORDER_COLOR); g2d.drawLine(pM, y, w - pM, y); g2d.drawLine(x, h - pM, x, pM);
+                g2d.setColor(TEXT_MUTED);
+                String yL = efficiency ? String.format("%.0f%%", maxY * i * 20) : String.format("%.2fx", maxY * i / 5); g2d.drawString(yL, pM - g2d.getFontMetrics().stringWidth(yL) - 10, y + 4);
+                g2d.drawString(String.format("%.1f", maxT * i / 5.0), x - 10, h - pM + 20);
+            }
+            g2d.drawString(efficiency ? "Parallel efficiency vs. threads (largest size per algorithm)" : "Speedup vs. threads (largest size per algorithm)", pM, pM - 15);
+            g2d.setStroke(AXIS_STROKE); g2d.setColor(TEXT_MAIN); g2d.drawLine(pM, pM, pM, h - pM); g2d.drawLine(pM, h - pM, w - pM, h - pM);
+
+            // Ideal scaling
+            g2d.setStroke(DASHED_STROKE); g2d.setColor(TEXT_MUTED);
+            int ix1 = pM + (int)((double) minT / maxT * (w - 2 * pM)), ix2 = w - pM;
+            int iy1 = h - pM - (int)(1.0 / maxY * (h - 2 * pM)), iy2 = h - pM - (int)((efficiency ? 1.0 : (double) maxT / minT) / maxY * (h - 2 * pM));
+            g2d.drawLine(ix1, iy1, ix2, iy2);
+
+            int cIdx = 0, legY = pM;
+            for (Map.Entry<String, double[][]> e : curves.entrySet()) {
+                Color c = PALETTE[cIdx++ % PALETTE.length]; String algo = e.getKey();
+                g2d.setColor(c); g2d.fillRect(w - 140, legY, 12, 12); g2d.setColor(TEXT_MAIN); g2d.drawString(algo, w - 120, legY + 11); legY += 20;
+                g2d.setColor(c); g2d.setStroke(SERIES_STROKE);
+                int px = -1, py = 0; Iterator<BenchmarkResult> results = byAlgo.get(algo).values().iterator();
+                for (double[] p : e.getValue()) {
+                    int x = pM + (int)(p[0] / maxT * (w - 2 * pM)), y = h - pM - (int)(p[1] / maxY * (h - 2 * pM));
+                    if (px >= 0) g2d.drawLine(px, py, x, y);
+                    g2d.fillOval(x - 4, y - 4, 8, 8); px = x; py = y;
+                    hoverIndex.add(x, y, c, results.next(), () -> String.format("%s | %d threads | Size: %d | %s", algo, (int) p[0], (int) p[2], efficiency ? String.format("Efficiency: %.0f%%", p[1] * 100) : String.format("Speedup: %.2fx", p[1])));
+                }
+            }
+        }
+
+        /** Statistic vs. input size; series wider than the plot are drawn from their LTTB reduction. */
+        private void paintSizes(Graphics2D g2d, int w, int h) {
+            int pM = 70; long maxTime = 1; int maxSize = 1;
 
             // Calculate max bounds ignoring hidden algorithms
             for (Map.Entry<String, List<BenchmarkResult>> entry : dataMap.entrySet()) {
                 if (hiddenAlgos.contains(entry.getKey())) continue;
-                for (BenchmarkResult res : entry.getValue()) {
-                    long val = getStatValue(res);
+                for (BenchmarkResult res : plotted(entry.getValue())) {
+                    long val = selectedStat.equals("Median Time") ? Math.max(res.medianTime, res.ciHigh) : getStatValue(res);
                     if (val > maxTime) maxTime = val; 
                     if (res.size > maxSize) maxSize = res.size;
                 }
+                if (baseline != null) for (BenchmarkResult res : plotted(baseline.series(entry.getKey()))) maxTime = Math.max(maxTime, getStatValue(res));
             }
 
             // Draw Grid & Axes
-            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            g2d.setFont(AXIS_FONT);
             for (int i = 0; i <= 5; i++) {
                 int y = h - pM - (i * (h - 2 * pM) / 5), x = pM + (i * (w - 2 * pM) / 5);
                 g2d.setColor(BORDER_COLOR); g2d.drawLine(pM, y, w - pM, y); g2d.drawLine(x, h - pM, x, pM);
                 g2d.setColor(TEXT_MUTED);
-                String yL = formatTime((maxTime * i) / 5.0); g2d.drawString(yL, pM - g2d.getFontMetrics().stringWidth(yL) - 10, y + 4);
+                String yL = formatValue((maxTime * i) / 5.0); g2d.drawString(yL, pM - g2d.getFontMetrics().stringWidth(yL) - 10, y + 4);
                 g2d.drawString(String.valueOf((maxSize * i) / 5), x - 10, h - pM + 20);
             }
-            g2d.setStroke(new BasicStroke(2f)); g2d.setColor(TEXT_MAIN); g2d.drawLine(pM, pM, pM, h - pM); g2d.drawLine(pM, h - pM, w - pM, h - pM);
-            
-            String hoverText = null; int hX=0, hY=0; Color hColor = Color.WHITE;
+            g2d.setStroke(AXIS_STROKE); g2d.setColor(TEXT_MAIN); g2d.drawLine(pM, pM, pM, h - pM); g2d.drawLine(pM, h - pM, w - pM, h - pM);
 
             // Draw Data Lines & Theory Curves
             int cIdx = 0, legY = pM;
             for (Map.Entry<String, List<BenchmarkResult>> entry : dataMap.entrySet()) {
                 String algoName = entry.getKey();
                 boolean isHidden = hiddenAlgos.contains(algoName);
-                Color c = PALETTE[cIdx % PALETTE.length]; 
+                Color c = PALETTE[cIdx % PALETTE.length], faded = FADED[cIdx % FADED.length];
                 
                 // Draw Interactive Legend
                 g2d.setColor(isHidden ? BORDER_COLOR : c); 
@@ -752,104 +4804,361 @@ public class AlgorithmPerformanceVisualizer extends JFrame {
 
                 if (isHidden) continue;
 
-                List<BenchmarkResult> pts = entry.getValue(); g2d.setColor(c); g2d.setStroke(new BasicStroke(2.5f));
+                List<BenchmarkResult> pts = plotted(entry.getValue());
+                if (pts.isEmpty()) continue;
                 
-                // Theory Curve (On Hover of Legend or if enabled)
+                // Theory Curve: empirical best fit for time. Allocation is not peak live memory, so it gets no space-complexity curve; a rate falls with n, so it gets none either
+                ComplexityFit fit = isMemoryStat() || selectedStat.equals("Queries / Second") ? null : fitCache.computeIfAbsent(algoName, k -> Optional.ofNullable(ComplexityFit.fit(pts, this::getStatValue))).orElse(null);
                 if(showTheory) {
-                    g2d.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, new float[]{5.0f}, 0.0f));
-                    g2d.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 100)); // Transparent
-                    if(algoName.contains("Bubble") || algoName.contains("Selection") || algoName.contains("Insertion")) {
-                        // Plot O(n^2) normalized to last point
-                        if(!pts.isEmpty()) {
-                            BenchmarkResult last = pts.get(pts.size()-1); double constant = (double)getStatValue(last) / ((double)last.size * last.size);
-                            int prevX = pM, prevY = h - pM;
-                            for(int s=0; s<=maxSize; s+=maxSize/20) {
-                                int x = pM + (int)((double)s/maxSize*(w-2*pM)), y = h - pM - (int)(((constant * s * s)/maxTime)*(h-2*pM));
-                                g2d.drawLine(prevX, prevY, x, y); prevX=x; prevY=y;
-                            }
-                        }
-                    }
-                    g2d.setStroke(new BasicStroke(2.5f)); g2d.setColor(c);
-                }
-
-                // Actual Data
-                for (int i = 0; i < pts.size(); i++) {
-                    BenchmarkResult p1 = pts.get(i);
-                    int x1 = pM + (int) ((double) p1.size / maxSize * (w - 2 * pM));
-                    int y1 = h - pM - (int) ((double) getStatValue(p1) / maxTime * (h - 2 * pM));
-                    
-                    if (i < pts.size() - 1) {
-                        BenchmarkResult p2 = pts.get(i + 1);
-                        int x2 = pM + (int) ((double) p2.size / maxSize * (w - 2 * pM));
-                        int y2 = h - pM - (int) ((double) getStatValue(p2) / maxTime * (h - 2 * pM));
-                        g2d.drawLine(x1, y1, x2, y2);
+                    g2d.setStroke(DASHED_STROKE); g2d.setColor(faded);
+                    Shape clip = g2d.getClip(); g2d.clipRect(pM, pM, w - 2 * pM, h - 2 * pM);
+                    if (fit != null) {
+                        BenchmarkResult last = pts.get(pts.size() - 1);
+                        int x0 = drawCurve(g2d, fit::predict, pts.get(0).size, last.size, pM, w, h, maxSize, maxTime);
+                        g2d.setClip(clip); g2d.setFont(FIT_FONT);
+                        int lx = pM + (int) ((double) last.size / maxSize * (w - 2 * pM)), ly = h - pM - (int) (fit.predict(last.size) / maxTime * (h - 2 * pM));
+                        if (x0 >= 0 && ly >= pM) g2d.drawString(fit.best.label, lx + 6, ly + 12);
+                        g2d.setFont(AXIS_FONT);
                     }
-                    g2d.fillOval(x1 - 4, y1 - 4, 8, 8);
+                    g2d.setClip(clip);
+                }
+
+                // Baseline: the same series from the loaded baseline export, dotted and faded
+                if (baseline != null) {
+                    List<BenchmarkResult> base = lttb(plotted(baseline.series(algoName)), this::getStatValue, Math.max(3, w - 2 * pM));
+                    int[] bx = new int[base.size()], by = new int[base.size()];
+                    for (int i = 0; i < bx.length; i++) { bx[i] = pM + (int) ((double) base.get(i).size / maxSize * (w - 2 * pM)); by[i] = h - pM - (int) ((double) getStatValue(base.get(i)) / maxTime * (h - 2 * pM)); }
+                    g2d.setStroke(DASHED_STROKE); g2d.setColor(faded); g2d.drawPolyline(bx, by, bx.length);
+                }
 
-                    // Check Hover
-                    if (Math.abs(mouseX - x1) < 10 && Math.abs(mouseY - y1) < 10) {
-                        hoverText = String.format("%s | Size: %d | Time: %s", p1.algorithm, p1.size, formatTime(getStatValue(p1)));
-                        hX = x1; hY = y1; hColor = c;
+                // Actual Data: one polyline over the (possibly downsampled) points, markers only while they stay distinguishable
+                List<BenchmarkResult> shown = lttb(pts, this::getStatValue, Math.max(3, w - 2 * pM));
+                boolean markers = shown == pts; int n = shown.size(); int[] xs = new int[n], ys = new int[n];
+                g2d.setColor(c);
+                for (int i = 0; i < n; i++) {
+                    BenchmarkResult p = shown.get(i);
+                    xs[i] = pM + (int) ((double) p.size / maxSize * (w - 2 * pM));
+                    ys[i] = h - pM - (int) ((double) getStatValue(p) / maxTime * (h - 2 * pM));
+                    if (selectedStat.equals("Median Time") && p.ciHigh > 0) {
+                        // 95% confidence interval of the median
+                        int yLo = h - pM - (int) ((double) p.ciLow / maxTime * (h - 2 * pM)), yHi = h - pM - (int) ((double) p.ciHigh / maxTime * (h - 2 * pM));
+                        g2d.setStroke(THIN_STROKE); g2d.drawLine(xs[i], yLo, xs[i], yHi); g2d.drawLine(xs[i] - 3, yLo, xs[i] + 3, yLo); g2d.drawLine(xs[i] - 3, yHi, xs[i] + 3, yHi);
+                    }
+                    if (markers) g2d.fillOval(xs[i] - 4, ys[i] - 4, 8, 8);
+                    RegressionGate.Comparison cmp = baseline != null ? baseline.compare(p) : null;
+                    hoverIndex.add(xs[i], ys[i], c, p, () -> String.format("%s | Size: %d | %s: %s", p.algorithm, p.size, isMemoryStat() ? "Memory" : isCountStat() || isQueryStat() ? selectedStat : "Time", formatValue(getStatValue(p)))
+                            + (p.samples > 0 ? String.format(" | n=%d, CV %.1f%%", p.samples, p.cv * 100) : "")
+                            + (fit != null ? String.format(" | fit %s, R² %.3f", fit.best.label, fit.rSquared) : "")
+                            + (cmp != null && cmp.verdict != RegressionGate.Verdict.NEW ? " | vs baseline " + cmp : "")
+                            + (p.telemetry != null && p.telemetry.isNoisy() ? " | noisy: " + p.telemetry.noise : ""));
+                }
+                g2d.setStroke(SERIES_STROKE); g2d.drawPolyline(xs, ys, n);
+                // Cells measured under noisy conditions get a warning triangle above the point
+                g2d.setStroke(THIN_STROKE); g2d.setColor(NOISY_MARKER);
+                for (int i = 0; i < n; i++) if (shown.get(i).telemetry != null && shown.get(i).telemetry.isNoisy()) g2d.drawPolygon(new int[]{xs[i] - 5, xs[i], xs[i] + 5}, new int[]{ys[i] - 8, ys[i] - 16, ys[i] - 8}, 3);
+                if (baseline != null) {
+                    // Verdicts come from the median comparison, whatever statistic is plotted
+                    g2d.setStroke(AXIS_STROKE);
+                    for (int i = 0; i < n; i++) {
+                        RegressionGate.Verdict v = baseline.compare(shown.get(i)).verdict;
+                        if (v != RegressionGate.Verdict.REGRESSION && v != RegressionGate.Verdict.IMPROVEMENT) continue;
+                        g2d.setColor(v == RegressionGate.Verdict.REGRESSION ? REGRESSION_RING : IMPROVEMENT_RING); g2d.drawOval(xs[i] - 7, ys[i] - 7, 14, 14);
                     }
                 }
             }
+        }
+
+        /** Renders the static chart into {@link #layer} at the device scale and rebuilds the hover index to match. */
+        private void renderLayer(int w, int h, double scale) {
+            layer = new BufferedImage(Math.max(1, (int) Math.ceil(w * scale)), Math.max(1, (int) Math.ceil(h * scale)), BufferedImage.TYPE_INT_RGB); layerScale = scale;
+            Graphics2D g2d = layer.createGraphics();
+            try {
+                g2d.setColor(getBackground()); g2d.fillRect(0, 0, layer.getWidth(), layer.getHeight()); g2d.scale(scale, scale);
+                Map<?, ?> desktopHints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+                if (desktopHints != null) g2d.addRenderingHints(desktopHints);
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                hoverIndex.reset(w, h); hovered = null; legendBounds.clear();
+                if (xAxis.equals("Input Size")) paintSizes(g2d, w, h); else paintScaling(g2d, w, h, xAxis.endsWith("Efficiency"));
+            } finally { g2d.dispose(); }
+        }
+
+        @Override protected void paintComponent(Graphics g) {
+            super.paintComponent(g); if (dataMap.isEmpty()) return;
+            Graphics2D g2d = (Graphics2D) g; g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int w = getWidth(), h = getHeight(); double scale = g2d.getTransform().getScaleX();
+            if (layer == null || layerScale != scale || layer.getWidth() != Math.max(1, (int) Math.ceil(w * scale)) || layer.getHeight() != Math.max(1, (int) Math.ceil(h * scale))) renderLayer(w, h, scale);
+            g2d.drawImage(layer, 0, 0, w, h, null);
 
             // Draw Tooltip Box
-            if (hoverText != null) {
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 12)); int tw = g2d.getFontMetrics().stringWidth(hoverText);
-                g2d.setColor(new Color(24, 24, 36, 220)); g2d.fillRoundRect(hX - tw/2 - 10, hY - 30, tw + 20, 20, 5, 5);
-                g2d.setColor(hColor); g2d.drawRoundRect(hX - tw/2 - 10, hY - 30, tw + 20, 20, 5, 5);
+            if (hovered != null) {
+                String hoverText = hovered.label.get(); int hX = hovered.x, hY = hovered.y;
+                g2d.setColor(hovered.color); g2d.setStroke(AXIS_STROKE); g2d.drawOval(hX - 6, hY - 6, 12, 12);
+                g2d.setFont(TOOLTIP_FONT); int tw = g2d.getFontMetrics().stringWidth(hoverText);
+                g2d.setColor(TOOLTIP_BG); g2d.fillRoundRect(hX - tw/2 - 10, hY - 30, tw + 20, 20, 5, 5);
+                g2d.setColor(hovered.color); g2d.drawRoundRect(hX - tw/2 - 10, hY - 30, tw + 20, 20, 5, 5);
                 g2d.setColor(TEXT_MAIN); g2d.drawString(hoverText, hX - tw/2, hY - 15);
             }
         }
     }
 
-    static class SortingVisualizerPanel extends JPanel {
-        private int[] array; private int currentIndex = -1, comparingIndex = -1;
-        private volatile boolean isRunning = false, isPaused = false, stepRequested = false;
-        private final Object lock = new Object(); private View viewRef; private Thread sortThread;
-
-        public SortingVisualizerPanel(View v) { this.viewRef = v; reset("Bubble Sort"); }
-        public void reset(String algo) { stop(); array = new int[70]; for (int i = 0; i < array.length; i++) array[i] = (int)(Math.random() * 300) + 20; currentIndex = -1; comparingIndex = -1; repaint(); }
-        public void play() {
-            if (sortThread != null && sortThread.isAlive()) { synchronized(lock) { isPaused = false; lock.notifyAll(); } }
-            else {
-                String algo = (String) viewRef.visAlgoCombo.getSelectedItem(); isRunning = true; isPaused = false;
-                sortThread = new Thread(() -> {
-                    try {
-                        if(algo.equals("Bubble Sort")) visBubble(); else if(algo.equals("Selection Sort")) visSelection();
-                        else if(algo.equals("Insertion Sort")) visInsertion(); else if(algo.equals("Quick Sort")) visQuick(0, array.length-1);
-                        else if(algo.equals("Merge Sort")) visMerge(0, array.length-1); else if(algo.equals("Heap Sort")) visHeap();
-                    } catch (InterruptedException e) {}
-                    currentIndex = -1; comparingIndex = -1; isRunning = false; repaint();
-                }); sortThread.start();
+    /** Log-time histogram of one cell's kept timed runs, with its p50/p90/p99/p99.9 marked. */
+    static class DistributionPanel extends JPanel {
+        private static final Font AXIS_FONT = new Font("Segoe UI", Font.PLAIN, 11), TITLE_FONT = new Font("Segoe UI", Font.BOLD, 12);
+        private static final BasicStroke AXIS_STROKE = new BasicStroke(2f), DASHED_STROKE = new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, new float[]{5.0f}, 0.0f);
+        private static final Color BAR = new Color(137, 180, 250, 200);
+        private static final Color[] MARKERS = {new Color(166,227,161), new Color(249,226,175), new Color(250,179,135), new Color(243,139,168)};
+        private static final String[] MARKER_LABELS = {"p50", "p90", "p99", "p99.9"};
+        private final BenchmarkResult result; private double logLo, logHi;
+
+        DistributionPanel(BenchmarkResult result) { this.result = result; setBackground(BG_PANEL); setPreferredSize(new Dimension(760, 420)); }
+
+        private int xOf(long v, int pM, int w) { return pM + (int) ((Math.log(Math.max(1, v)) - logLo) / (logHi - logLo) * (w - 2 * pM)); }
+
+        @Override protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            LatencyHistogram hist = result.histogram; if (hist == null || hist.total() == 0) return;
+            Graphics2D g2d = (Graphics2D) g; g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int pM = 60, w = getWidth(), h = getHeight(), first = LatencyHistogram.index(hist.min()), last = hist.buckets() - 1;
+            logLo = Math.log(Math.max(1, LatencyHistogram.lowerBound(first))); logHi = Math.max(logLo + 1e-3, Math.log(LatencyHistogram.lowerBound(last) + LatencyHistogram.width(last)));
+            long peak = 1; for (int i = first; i <= last; i++) peak = Math.max(peak, hist.count(i));
+
+            g2d.setFont(TITLE_FONT); g2d.setColor(TEXT_MAIN);
+            g2d.drawString(String.format("%s | Size %d | %d runs, %d outliers | min %s | max %s", result.seriesName(), result.size, hist.total(), result.outliers, formatTime(hist.min()), formatTime(hist.max())), pM, pM - 25);
+            g2d.setFont(AXIS_FONT);
+            for (int i = 0; i <= 5; i++) {
+                int y = h - pM - (i * (h - 2 * pM) / 5), x = pM + (i * (w - 2 * pM) / 5);
+                g2d.setColor(BORDER_COLOR); g2d.drawLine(pM, y, w - pM, y); g2d.drawLine(x, h - pM, x, pM);
+                g2d.setColor(TEXT_MUTED);
+                String yL = String.valueOf(peak * i / 5); g2d.drawString(yL, pM - g2d.getFontMetrics().stringWidth(yL) - 10, y + 4);
+                String xL = formatTime(Math.exp(logLo + (logHi - logLo) * i / 5)); g2d.drawString(xL, x - g2d.getFontMetrics().stringWidth(xL) / 2, h - pM + 20);
+            }
+            g2d.drawString("runs per bucket vs. time per run (log scale)", pM, h - pM + 40);
+            g2d.setStroke(AXIS_STROKE); g2d.setColor(TEXT_MAIN); g2d.drawLine(pM, pM, pM, h - pM); g2d.drawLine(pM, h - pM, w - pM, h - pM);
+
+            g2d.setColor(BAR);
+            for (int i = first; i <= last; i++) {
+                long count = hist.count(i); if (count == 0) continue;
+                int x1 = xOf(LatencyHistogram.lowerBound(i), pM, w), x2 = xOf(LatencyHistogram.lowerBound(i) + LatencyHistogram.width(i), pM, w), bh = (int) ((double) count / peak * (h - 2 * pM));
+                g2d.fillRect(x1, h - pM - bh, Math.max(1, x2 - x1 - 1), bh);
+            }
+
+            long[] marks = {result.p50, result.p90, result.p99, result.p999};
+            g2d.setStroke(DASHED_STROKE);
+            for (int k = 0; k < marks.length; k++) {
+                int x = xOf(marks[k], pM, w); g2d.setColor(MARKERS[k]); g2d.drawLine(x, pM, x, h - pM);
+                String label = MARKER_LABELS[k] + " " + formatTime(marks[k]); int lw = g2d.getFontMetrics().stringWidth(label);
+                g2d.drawString(label, x + 4 + lw > w - pM ? x - lw - 4 : x + 4, pM + 12 + 14 * k);
             }
         }
-        public void pause() { synchronized(lock) { isPaused = true; } }
-        public void step() { synchronized(lock) { isPaused = true; stepRequested = true; lock.notifyAll(); } }
-        public void stop() { isRunning = false; if (sortThread != null) sortThread.interrupt(); }
+    }
+
+    /**
+     * Plays back an {@link OperationTrace}. The sort is recorded once at full speed on a background thread; playback
+     * moves a cursor through the trace, applying (or undoing) operations on a display copy of the array. Only the
+     * raster columns of elements that changed, plus the previous and current highlight, are redrawn per frame, so
+     * 100k-element sorts play smoothly. When there are more elements than pixels, a column shows the middle element of its range.
+     */
+    static class SortingVisualizerPanel extends JPanel {
+        static final int DEFAULT_SIZE = 70, MAX_SIZE = 1 << 20, FRAME_MS = 16;
+        private static final int BG_RGB = BG_DARK.getRGB(), BAR_RGB = ACCENT.getRGB(), COMPARE_RGB = new Color(249, 226, 175).getRGB(), WRITE_RGB = new Color(243, 139, 168).getRGB();
+        private static final Font OVERLAY_FONT = new Font("Segoe UI", Font.PLAIN, 11);
+        private static final int TOP_MARGIN = 22;
+
+        private final View viewRef; private final javax.swing.Timer timer;
+        private int[] array = new int[0]; private int maxValue = 1;
+        private OperationTrace trace; private int position;
+        private SwingWorker<OperationTrace, Void> recording;
+
+        // Raster state: columns of the back buffer that must be redrawn on the next paint
+        private BufferedImage raster; private int[] pixels; private final BitSet dirty = new BitSet(); private boolean allDirty = true;
+        private int highlightA = -1, highlightB = -1, highlightRgb;
+
+        public SortingVisualizerPanel(View v) {
+            this.viewRef = v; setBackground(BG_DARK);
+            timer = new javax.swing.Timer(FRAME_MS, e -> advance());
+            reset("Bubble Sort");
+        }
+
+        public void reset(String algo) {
+            stop();
+            int n = visualizedSize(); array = new int[n]; for (int i = 0; i < n; i++) array[i] = (int) (Math.random() * n) + 1;
+            maxValue = Math.max(1, Arrays.stream(array).max().orElse(1));
+            trace = null; position = 0; highlightA = highlightB = -1; allDirty = true;
+            viewRef.traceTimeline.setTrace(null, null); viewRef.visTraceLabel.setText(String.format("%,d elements. Play records the sort at full speed, then replays the trace.", n));
+            repaint();
+        }
+
+        public void play() { if (trace == null) { record(true); return; } if (position == trace.length()) seek(0); timer.start(); }
+        public void pause() { timer.stop(); }
+        public void step() { pause(); if (trace == null) record(false); else seek(position + 1); }
+        public void stepBack() { pause(); if (trace != null) seek(position - 1); }
+        public void stop() { timer.stop(); if (recording != null) { recording.cancel(true); recording = null; } }
+        public int getPosition() { return position; }
+
+        private int visualizedSize() {
+            try { return Math.max(2, Math.min(MAX_SIZE, Integer.parseInt(viewRef.visSizeField.getText().trim().replace(",", "")))); }
+            catch (NumberFormatException e) { viewRef.visSizeField.setText(String.valueOf(DEFAULT_SIZE)); return DEFAULT_SIZE; }
+        }
+
+        /** Records the selected algorithm on the current array off the EDT, then starts playback or shows the first step. */
+        private void record(boolean thenPlay) {
+            if (recording != null) return;
+            BenchAlgorithm algo = AlgorithmRegistry.get((String) viewRef.visAlgoCombo.getSelectedItem()); int[] input = array.clone();
+            viewRef.visTraceLabel.setText(String.format("Recording %s on %,d elements...", algo.name(), input.length));
+            recording = new SwingWorker<OperationTrace, Void>() {
+                int[] accessMap;
+                @Override protected OperationTrace doInBackground() throws Exception {
+                    OperationTrace t = OperationTrace.record(algo, input);
+                    accessMap = t.accessMap(TraceTimeline.TIME_BINS, TraceTimeline.INDEX_BINS); return t;
+                }
+                @Override protected void done() {
+                    if (isCancelled() || recording != this) return;
+                    recording = null;
+                    try { trace = get(); } catch (Exception e) { viewRef.visTraceLabel.setText("Recording failed: " + (e.getCause() != null ? e.getCause() : e)); return; }
+                    viewRef.traceTimeline.setTrace(trace, accessMap); viewRef.visTraceLabel.setText(trace.describe());
+                    if (thenPlay) timer.start(); else seek(1);
+                }
+            };
+            recording.execute();
+        }
+
+        /** Operations per frame: 1 at the slowest speed, rising exponentially to the whole trace in about two seconds. */
+        private int opsPerFrame() {
+            double fastest = Math.max(1, trace.length() / (2000.0 / FRAME_MS));
+            return (int) Math.max(1, Math.round(Math.pow(fastest, (viewRef.speedSlider.getValue() - 1) / 99.0)));
+        }
+
+        private void advance() {
+            if (trace == null) { timer.stop(); return; }
+            seek((int) Math.min(trace.length(), (long) position + opsPerFrame()));
+            if (position == trace.length()) timer.stop();
+        }
+
+        /** Moves the playback cursor to just after operation {@code target - 1}, starting from whichever of the array's start, end or current state is closest. */
+        public void seek(int target) {
+            if (trace == null) return;
+            int length = trace.length(); target = Math.max(0, Math.min(length, target));
+            if (target < Math.abs(target - position) && target <= length - target) { System.arraycopy(trace.initial, 0, array, 0, array.length); position = 0; allDirty = true; }
+            else if (length - target < Math.abs(target - position)) { System.arraycopy(trace.finalState, 0, array, 0, array.length); position = length; allDirty = true; }
+            for (; position < target; position++) if (trace.apply(array, position)) touched(position);
+            while (position > target) if (trace.apply(array, --position)) touched(position);
+
+            markDirty(highlightA); markDirty(highlightB);
+            if (position > 0) {
+                int op = position - 1; highlightA = trace.first(op); highlightB = trace.second(op);
+                highlightRgb = trace.kind(op) == OperationTrace.COMPARE ? COMPARE_RGB : WRITE_RGB;
+            } else highlightA = highlightB = -1;
+            markDirty(highlightA); markDirty(highlightB);
+
+            viewRef.traceTimeline.setPosition(position);
+            if (allDirty || raster == null) repaint();
+            else if (!dirty.isEmpty()) { repaint(dirty.nextSetBit(0), 0, dirty.length() - dirty.nextSetBit(0), getHeight()); repaint(0, 0, getWidth(), TOP_MARGIN); }
+            else repaint(0, 0, getWidth(), TOP_MARGIN);
+        }
+
+        private void touched(int op) { if (!allDirty) { markDirty(trace.first(op)); markDirty(trace.second(op)); } }
 
-        private void tick() throws InterruptedException {
-            if (!isRunning) throw new InterruptedException();
-            synchronized (lock) { while (isPaused && !stepRequested) lock.wait(); stepRequested = false; }
-            Thread.sleep(101 - viewRef.speedSlider.getValue()); repaint();
+        /** Marks the raster columns that show element {@code i}. */
+        private void markDirty(int i) {
+            if (i < 0 || allDirty || raster == null || i >= array.length) return;
+            int w = raster.getWidth(), n = array.length;
+            if (n > w) dirty.set((int) ((long) i * w / n));
+            else dirty.set(ceilDiv((long) i * w, n), ceilDiv((long) (i + 1) * w, n));
         }
 
-        private void visBubble() throws InterruptedException { for (int i = 0; i < array.length - 1; i++) for (int j = 0; j < array.length - i - 1; j++) { currentIndex = j; comparingIndex = j + 1; tick(); if (array[j] > array[j + 1]) { int t = array[j]; array[j] = array[j+1]; array[j+1] = t; } } }
-        private void visSelection() throws InterruptedException { for (int i = 0; i < array.length - 1; i++) { int minIdx = i; for (int j = i + 1; j < array.length; j++) { currentIndex = j; comparingIndex = minIdx; tick(); if (array[j] < array[minIdx]) minIdx = j; } int t = array[minIdx]; array[minIdx] = array[i]; array[i] = t; } }
-        private void visInsertion() throws InterruptedException { for (int i = 1; i < array.length; ++i) { int key = array[i], j = i - 1; while (j >= 0 && array[j] > key) { currentIndex = j; comparingIndex = j + 1; tick(); array[j + 1] = array[j]; j--; } array[j + 1] = key; } }
-        private void visQuick(int low, int high) throws InterruptedException { if(low < high) { int p = array[high], i = low - 1; for(int j=low; j<high; j++) { currentIndex = j; comparingIndex = high; tick(); if(array[j] < p) { i++; int t = array[i]; array[i] = array[j]; array[j] = t; } } int t = array[i+1]; array[i+1] = array[high]; array[high] = t; visQuick(low, i); visQuick(i+2, high); } }
-        private void visMerge(int l, int r) throws InterruptedException { if(l < r) { int m = l + (r-l)/2; visMerge(l, m); visMerge(m+1, r); int n1 = m - l + 1, n2 = r - m, L[] = new int[n1], R[] = new int[n2]; for(int i=0; i<n1; ++i) L[i] = array[l+i]; for(int j=0; j<n2; ++j) R[j] = array[m+1+j]; int i=0, j=0, k=l; while(i<n1 && j<n2) { currentIndex = k; tick(); if(L[i] <= R[j]) { array[k] = L[i]; i++; } else { array[k] = R[j]; j++; } k++; } while(i<n1) { array[k] = L[i]; i++; k++; tick(); } while(j<n2) { array[k] = R[j]; j++; k++; tick(); } } }
-        private void visHeap() throws InterruptedException { int n = array.length; for (int i = n / 2 - 1; i >= 0; i--) visHeapify(n, i); for (int i = n - 1; i > 0; i--) { int t = array[0]; array[0] = array[i]; array[i] = t; currentIndex = i; tick(); visHeapify(i, 0); } }
-        private void visHeapify(int n, int i) throws InterruptedException { int max = i, l = 2*i + 1, r = 2*i + 2; if(l < n && array[l] > array[max]) max = l; if(r < n && array[r] > array[max]) max = r; if(max != i) { int t = array[i]; array[i] = array[max]; array[max] = t; comparingIndex = max; tick(); visHeapify(n, max); } }
+        private static int ceilDiv(long a, long b) { return (int) ((a + b - 1) / b); }
+
+        private void drawColumn(int x) {
+            int w = raster.getWidth(), h = raster.getHeight(), n = array.length, value = 0, rgb = BAR_RGB;
+            if (n > w) {
+                int lo = ceilDiv((long) x * n, w), end = ceilDiv((long) (x + 1) * n, w);
+                value = array[(lo + end - 1) >>> 1];
+                if (highlightA >= lo && highlightA < end || highlightB >= lo && highlightB < end) rgb = highlightRgb;
+            } else {
+                int i = (int) ((long) x * n / w);
+                // Leave a one-pixel gap between bars once they are at least three pixels wide
+                if (n * 3 <= w && x == ceilDiv((long) (i + 1) * w, n) - 1) value = 0; else value = array[i];
+                if (i == highlightA || i == highlightB) rgb = highlightRgb;
+            }
+            int top = h - (int) ((long) value * (h - TOP_MARGIN) / maxValue);
+            for (int y = 0, p = x; y < h; y++, p += w) pixels[p] = y < top ? BG_RGB : rgb;
+        }
 
         @Override protected void paintComponent(Graphics g) {
-            super.paintComponent(g); if(array == null) return;
-            Graphics2D g2d = (Graphics2D) g; setBackground(BG_DARK); int w = getWidth() / array.length;
-            for (int i = 0; i < array.length; i++) {
-                if(i == currentIndex) g2d.setColor(new Color(243,139,168)); else if(i == comparingIndex) g2d.setColor(new Color(249,226,175)); else g2d.setColor(ACCENT);
-                g2d.fillRect(i * w, getHeight() - array[i], w - 2, array[i]);
+            super.paintComponent(g);
+            int w = getWidth(), h = getHeight(); if (w <= 0 || h <= TOP_MARGIN || array.length == 0) return;
+            if (raster == null || raster.getWidth() != w || raster.getHeight() != h) {
+                raster = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB); pixels = ((java.awt.image.DataBufferInt) raster.getRaster().getDataBuffer()).getData(); allDirty = true;
+            }
+            if (allDirty) { for (int x = 0; x < w; x++) drawColumn(x); allDirty = false; }
+            else for (int x = dirty.nextSetBit(0); x >= 0 && x < w; x = dirty.nextSetBit(x + 1)) drawColumn(x);
+            dirty.clear();
+            g.drawImage(raster, 0, 0, null);
+            g.setFont(OVERLAY_FONT); g.setColor(TEXT_MUTED);
+            g.drawString(trace == null ? String.format("%,d elements", array.length) : String.format("op %,d / %,d", position, trace.length()), 8, 15);
+        }
+    }
+
+    /**
+     * Scrub bar for the Visualizer: an access map of the recorded trace (time left to right, array index top to bottom,
+     * brighter where the sort touched more elements) with the playback cursor on top. Clicking or dragging seeks.
+     */
+    static class TraceTimeline extends JComponent {
+        static final int TIME_BINS = 600, INDEX_BINS = 48;
+        private static final int[] HEAT = new int[256];
+        static {
+            for (int i = 0; i < HEAT.length; i++) {
+                double t = i / 255.0, u = Math.max(0, t * 2 - 1), s = Math.min(1, t * 2);
+                int r = (int) (BG_PANEL.getRed() + (ACCENT.getRed() - BG_PANEL.getRed()) * s + (255 - ACCENT.getRed()) * u);
+                int gr = (int) (BG_PANEL.getGreen() + (ACCENT.getGreen() - BG_PANEL.getGreen()) * s + (255 - ACCENT.getGreen()) * u);
+                int b = (int) (BG_PANEL.getBlue() + (ACCENT.getBlue() - BG_PANEL.getBlue()) * s + (255 - ACCENT.getBlue()) * u);
+                HEAT[i] = r << 16 | gr << 8 | b;
+            }
+        }
+        private static final Color CURSOR = new Color(243, 139, 168);
+
+        private BufferedImage map; private int length, position;
+        private java.util.function.IntConsumer seekListener;
+
+        TraceTimeline() {
+            setPreferredSize(new Dimension(100, 64)); setOpaque(true); setBackground(BG_PANEL);
+            setToolTipText("Access map: time runs left to right, array index top to bottom. Click or drag to seek.");
+            MouseAdapter seek = new MouseAdapter() {
+                @Override public void mousePressed(MouseEvent e) { seekTo(e.getX()); }
+                @Override public void mouseDragged(MouseEvent e) { seekTo(e.getX()); }
+            };
+            addMouseListener(seek); addMouseMotionListener(seek);
+        }
+
+        void setSeekListener(java.util.function.IntConsumer listener) { seekListener = listener; }
+
+        private void seekTo(int x) { if (length > 0 && seekListener != null) seekListener.accept((int) Math.round((double) Math.max(0, Math.min(getWidth(), x)) / Math.max(1, getWidth()) * length)); }
+
+        /** Installs a trace and its {@link OperationTrace#accessMap(int, int)} at TIME_BINS x INDEX_BINS; null clears the bar. */
+        void setTrace(OperationTrace trace, int[] counts) {
+            length = trace == null ? 0 : trace.length(); position = 0; map = null;
+            if (trace != null && length > 0) {
+                int peak = 1; for (int c : counts) peak = Math.max(peak, c);
+                double scale = 255 / Math.log1p(peak);
+                map = new BufferedImage(TIME_BINS, INDEX_BINS, BufferedImage.TYPE_INT_RGB);
+                for (int t = 0; t < TIME_BINS; t++) for (int i = 0; i < INDEX_BINS; i++) map.setRGB(t, i, HEAT[(int) (Math.log1p(counts[t * INDEX_BINS + i]) * scale)]);
             }
+            repaint();
+        }
+
+        void setPosition(int position) {
+            if (length == 0) return;
+            int w = getWidth(), before = (int) ((long) this.position * w / length), after = (int) ((long) position * w / length);
+            this.position = position;
+            if (before != after) { repaint(before - 1, 0, 3, getHeight()); repaint(after - 1, 0, 3, getHeight()); }
+        }
+
+        @Override protected void paintComponent(Graphics g) {
+            g.setColor(getBackground()); g.fillRect(0, 0, getWidth(), getHeight());
+            if (map == null) return;
+            g.drawImage(map, 0, 0, getWidth(), getHeight(), null);
+            int x = (int) ((long) position * getWidth() / length);
+            g.setColor(CURSOR); g.fillRect(x - 1, 0, 2, getHeight());
         }
     }
 }
\ No newline at end of file